@@ -3,12 +3,29 @@ package edus2.adapter.guice;
 import com.google.inject.AbstractModule;
 import com.google.inject.Singleton;
 import edus2.adapter.guice.provider.FileEDUS2ConfigurationProvider;
+import edus2.adapter.input.RepeatReadFilter;
+import edus2.adapter.media.JavaFxMediaDecoder;
+import edus2.adapter.media.LocalMediaCache;
+import edus2.adapter.media.MediaDecoder;
+import edus2.adapter.media.ScanMediaInspector;
+import edus2.adapter.media.ScanMediaWarmer;
+import edus2.adapter.media.ScenarioTimelineScheduler;
 import edus2.adapter.repository.file.FileManikinRepository;
 import edus2.adapter.repository.file.FileScanRepository;
+import edus2.adapter.repository.file.ScenarioLibrary;
+import edus2.adapter.repository.journal.JournalManikinRepository;
+import edus2.adapter.repository.journal.JournalScanRepository;
+import edus2.adapter.ui.DoubleBufferedMediaView;
 import edus2.adapter.ui.ListenableMediaPlayer;
+import edus2.adapter.ui.MediaPlayerReleaser;
+import edus2.adapter.ui.ScanMediaPlayerPool;
+import edus2.adapter.ui.ScanPrefetcher;
 import edus2.adapter.ui.Toast;
 import edus2.adapter.ui.builder.SceneBuilder;
+import edus2.application.ManikinFacade;
 import edus2.application.ScanFacade;
+import edus2.application.diagnostics.LoopStallMonitor;
+import edus2.application.diagnostics.PlaybackLatencyRecorder;
 import edus2.domain.EDUS2Configuration;
 import edus2.domain.ManikinRepository;
 import edus2.domain.ScanRepository;
@@ -19,6 +36,8 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 
 public class EDUS2JModule extends AbstractModule {
+    private static final String STORAGE_PROPERTY = "edus2j.storage";
+    private static final String JOURNAL_STORAGE = "journal";
 
     private final Stage stage;
     private final BorderPane mainDisplayPane;
@@ -41,18 +60,45 @@ public class EDUS2JModule extends AbstractModule {
 
         bind(ScheduledExecutorService.class).toInstance(Executors.newScheduledThreadPool(5));
 
-        bind(ScanRepository.class).to(FileScanRepository.class).in(Singleton.class);
-
         bind(EDUS2Configuration.class).toProvider(FileEDUS2ConfigurationProvider.class).in(Singleton.class);
 
-        bind(ScanRepository.class).to(FileScanRepository.class).in(Singleton.class);
-
-        bind(ManikinRepository.class).to(FileManikinRepository.class).in(Singleton.class);
+        bindRepositories();
 
         bind(ScanFacade.class).in(Singleton.class);
 
+        bind(ManikinFacade.class).in(Singleton.class);
+
         bind(SceneBuilder.class).in(Singleton.class);
 
         bind(Toast.class).in(Singleton.class);
+
+        bind(ScanMediaPlayerPool.class).in(Singleton.class);
+        bind(MediaPlayerReleaser.class).in(Singleton.class);
+        bind(DoubleBufferedMediaView.class).in(Singleton.class);
+
+        bind(ScanPrefetcher.class).in(Singleton.class);
+
+        bind(ScanMediaWarmer.class).in(Singleton.class);
+        bind(ScenarioLibrary.class).in(Singleton.class);
+        bind(ScenarioTimelineScheduler.class).in(Singleton.class);
+
+        bind(LocalMediaCache.class).in(Singleton.class);
+        bind(MediaDecoder.class).to(JavaFxMediaDecoder.class);
+        bind(ScanMediaInspector.class).in(Singleton.class);
+
+        bind(PlaybackLatencyRecorder.class).in(Singleton.class);
+        bind(RepeatReadFilter.class).in(Singleton.class);
+        bind(LoopStallMonitor.class).in(Singleton.class);
+    }
+
+    private void bindRepositories() {
+        // The journal stores write one line per change instead of rewriting the whole save file
+        if (JOURNAL_STORAGE.equals(System.getProperty(STORAGE_PROPERTY))) {
+            bind(ScanRepository.class).to(JournalScanRepository.class).in(Singleton.class);
+            bind(ManikinRepository.class).to(JournalManikinRepository.class).in(Singleton.class);
+        } else {
+            bind(ScanRepository.class).to(FileScanRepository.class).in(Singleton.class);
+            bind(ManikinRepository.class).to(FileManikinRepository.class).in(Singleton.class);
+        }
     }
 }
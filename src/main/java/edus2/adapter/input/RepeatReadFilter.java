@@ -0,0 +1,84 @@
+package edus2.adapter.input;
+
+import com.google.inject.Inject;
+import edus2.domain.EDUS2Configuration;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Ignores a scan tag read again within the repeat read window of the last time it was read, which readers do for as
+ * long as the probe rests on a location. Every repeat starts the window again, so a tag that keeps being read is only
+ * played again once the reads have stopped for a whole window. Repeats are turned away without touching any
+ * repository; the configured window is only re-read when a read is accepted.
+ * <p>
+ * The counters help tune the window for a reader: many late repeats, reads of the same tag accepted only because the
+ * window had passed, mean the window is shorter than the reader's repeat interval.
+ */
+public class RepeatReadFilter {
+    static final int DEFAULT_REPEAT_READ_WINDOW_MILLIS = 1500;
+
+    private final EDUS2Configuration configuration;
+    private final LongSupplier clock;
+    private String lastScanTag;
+    private long lastReadTime;
+    private long windowNanos;
+    private long acceptedReads;
+    private long suppressedReads;
+    private long lateRepeatReads;
+
+    @Inject
+    public RepeatReadFilter(EDUS2Configuration configuration) {
+        this(configuration, System::nanoTime);
+    }
+
+    RepeatReadFilter(EDUS2Configuration configuration, LongSupplier clock) {
+        this.configuration = configuration;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns whether the read should be played, or is a repeat that should be ignored.
+     */
+    public synchronized boolean accept(String scanTag) {
+        long now = clock.getAsLong();
+        boolean repeat = scanTag.equals(lastScanTag);
+        boolean withinWindow = now - lastReadTime <= windowNanos;
+        lastReadTime = now;
+        if (repeat && withinWindow) {
+            suppressedReads++;
+            return false;
+        }
+
+        if (repeat) {
+            lateRepeatReads++;
+        }
+        acceptedReads++;
+        lastScanTag = scanTag;
+        windowNanos = TimeUnit.MILLISECONDS.toNanos(configuration.getRepeatReadWindow().orElse(DEFAULT_REPEAT_READ_WINDOW_MILLIS));
+        return true;
+    }
+
+    public synchronized long getAcceptedReads() {
+        return acceptedReads;
+    }
+
+    public synchronized long getSuppressedReads() {
+        return suppressedReads;
+    }
+
+    public synchronized long getLateRepeatReads() {
+        return lateRepeatReads;
+    }
+
+    public synchronized void resetCounters() {
+        acceptedReads = 0;
+        suppressedReads = 0;
+        lateRepeatReads = 0;
+    }
+
+    public synchronized String formatCounters() {
+        return String.format("Tag reads: %d accepted, %d suppressed as repeats, %d repeats after the window%n",
+                acceptedReads, suppressedReads, lateRepeatReads);
+    }
+}
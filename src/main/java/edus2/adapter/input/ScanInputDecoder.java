@@ -0,0 +1,119 @@
+package edus2.adapter.input;
+
+import com.google.inject.Inject;
+import edus2.application.ManikinFacade;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Turns the keystrokes typed by an RFID reader into whole scan tags. Characters are collected in a reusable buffer
+ * and handed to the listeners as a single tag when the terminator arrives, so no objects are created per keystroke.
+ * <p>
+ * A reader types a tag as a burst of keys only a few milliseconds apart, whereas a person types far slower. When the
+ * input ends in such a burst and the whole input is not a known tag, only the burst is taken as the tag, so a stray key
+ * pressed before the tag was read does not corrupt it, while a reader that pauses part way through a tag still has the
+ * whole tag read. Slower input is still accepted as a typed tag, as long as no key is more than
+ * {@link #DEFAULT_INPUT_TIMEOUT_MILLIS} after the last; otherwise the partial input is thrown away.
+ */
+public class ScanInputDecoder {
+    static final long DEFAULT_BURST_GAP_MILLIS = 40;
+    static final long DEFAULT_INPUT_TIMEOUT_MILLIS = 2000;
+    static final int MINIMUM_BURST_LENGTH = 4;
+    static final int MAXIMUM_TAG_LENGTH = 128;
+
+    private final LongSupplier clock;
+    private final Predicate<String> isKnownTag;
+    private final long burstGapNanos;
+    private final long inputTimeoutNanos;
+    private final char[] buffer;
+    private final List<ScanTagListener> listeners;
+    private int length;
+    private int burstStart;
+    private boolean overflowed;
+    private long lastKeyTime;
+
+    @Inject
+    public ScanInputDecoder(ManikinFacade manikinFacade) {
+        this(System::nanoTime, DEFAULT_BURST_GAP_MILLIS, DEFAULT_INPUT_TIMEOUT_MILLIS, tag -> manikinFacade.getScanTagLocation(tag).isPresent());
+    }
+
+    ScanInputDecoder(LongSupplier clock, long burstGapMillis, long inputTimeoutMillis, Predicate<String> isKnownTag) {
+        this.clock = clock;
+        this.isKnownTag = isKnownTag;
+        this.burstGapNanos = TimeUnit.MILLISECONDS.toNanos(burstGapMillis);
+        this.inputTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(inputTimeoutMillis);
+        this.buffer = new char[MAXIMUM_TAG_LENGTH];
+        this.listeners = new CopyOnWriteArrayList<>();
+    }
+
+    public void registerTagListener(ScanTagListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Adds a character of the tag being read. Input longer than any tag can be is discarded up to the next terminator.
+     */
+    public void keyTyped(char character) {
+        long now = clock.getAsLong();
+        if (length > 0 || overflowed) {
+            long gap = now - lastKeyTime;
+            if (gap > inputTimeoutNanos) {
+                clear();
+            } else if (gap > burstGapNanos) {
+                burstStart = length;
+            }
+        }
+        lastKeyTime = now;
+
+        if (overflowed) {
+            return;
+        }
+        if (length == buffer.length) {
+            overflowed = true;
+            return;
+        }
+        buffer[length++] = character;
+    }
+
+    /**
+     * Ends the tag being read and passes it to the listeners, unless there is nothing to pass on.
+     */
+    public void terminatorTyped() {
+        long now = clock.getAsLong();
+        boolean timedOut = now - lastKeyTime > inputTimeoutNanos;
+        if (overflowed || timedOut || length == 0) {
+            clear();
+            return;
+        }
+
+        String scanTag = new String(buffer, 0, length);
+        if (burstStart > 0 && isBurst(now) && !isKnownTag.test(scanTag)) {
+            scanTag = new String(buffer, burstStart, length - burstStart);
+        }
+        clear();
+        for (ScanTagListener listener : listeners) {
+            listener.tagScanned(scanTag);
+        }
+    }
+
+    /**
+     * Whether anything has been typed since the last tag.
+     */
+    public boolean hasPartialInput() {
+        return (length > 0 || overflowed) && clock.getAsLong() - lastKeyTime <= inputTimeoutNanos;
+    }
+
+    public void clear() {
+        length = 0;
+        burstStart = 0;
+        overflowed = false;
+    }
+
+    private boolean isBurst(long terminatorTime) {
+        return length - burstStart >= MINIMUM_BURST_LENGTH && terminatorTime - lastKeyTime <= burstGapNanos;
+    }
+}
@@ -0,0 +1,5 @@
+package edus2.adapter.input;
+
+public interface ScanTagListener {
+    void tagScanned(String scanTag);
+}
@@ -0,0 +1,58 @@
+package edus2.adapter.media;
+
+import edus2.domain.ScanMetadata;
+import javafx.scene.media.Media;
+import javafx.scene.media.MediaException;
+import javafx.scene.media.MediaPlayer;
+import javafx.util.Duration;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Decodes a video with the same media stack that plays it, by loading it into a player until the player is ready.
+ */
+public class JavaFxMediaDecoder implements MediaDecoder {
+    private static final long DECODE_TIMEOUT_SECONDS = 30;
+
+    @Override
+    public VideoFormat decode(File video) throws IOException {
+        MediaPlayer player;
+        try {
+            player = new MediaPlayer(new Media(video.toURI().toString()));
+        } catch (MediaException | IllegalArgumentException | UnsupportedOperationException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+
+        CompletableFuture<VideoFormat> ready = new CompletableFuture<>();
+        player.setOnReady(() -> {
+            Media media = player.getMedia();
+            ready.complete(new VideoFormat(toDurationMillis(media.getDuration()), media.getWidth(), media.getHeight()));
+        });
+        player.setOnError(() -> ready.completeExceptionally(player.getError()));
+        try {
+            return ready.get(DECODE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            throw new IOException(String.format("Timed out after %d seconds", DECODE_TIMEOUT_SECONDS), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", e);
+        } finally {
+            player.dispose();
+        }
+    }
+
+    /**
+     * Videos that cannot tell their length report an unknown or indefinite duration, which is not stored as one.
+     */
+    private static long toDurationMillis(Duration duration) {
+        double millis = duration.toMillis();
+        return millis > 0 && !Double.isInfinite(millis) ? (long) millis : ScanMetadata.UNKNOWN_DURATION;
+    }
+}
@@ -0,0 +1,448 @@
+package edus2.adapter.media;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import com.google.inject.Inject;
+import edus2.adapter.repository.file.FileRepository;
+import edus2.application.ScanFacade;
+import edus2.domain.EDUS2Configuration;
+import edus2.domain.Scan;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.nio.file.*;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+
+/**
+ * Keeps local copies of scan videos that live on network shares or removable drives, so that playback does not depend
+ * on a slow or intermittently available path. Copies are made in the background and named by the SHA-256 hash of
+ * their contents, so scans that share a video share a copy. Each copy is verified against its hash the first time it
+ * is used in a session.
+ * <p>
+ * The cache is kept within its size limit by least recently used eviction. A copy only displaces copies that were
+ * used less recently than its scan was last asked for, so scans that have never been played only fill free space and
+ * the copies of scans in use are not evicted to make room for them.
+ * <p>
+ * A copy is used until its source is seen to have changed; when the source cannot be reached, the copy is used
+ * regardless.
+ * <p>
+ * Videos are cached when they are on a network share, a removable or optical drive, or one of the
+ * {@link EDUS2Configuration#getCachedMediaLocations() configured locations}, which covers drives that cannot be told
+ * apart from local disks, such as mapped network drives and USB hard drives.
+ */
+public class LocalMediaCache extends FileRepository {
+    private static final String INDEX_FILE_NAME = "index.json";
+    private static final String CACHE_DIRECTORY_NAME = "media-cache";
+    private static final int DEFAULT_SIZE_LIMIT_IN_MEGABYTES = 2048;
+    private static final long BYTES_PER_MEGABYTE = 1024 * 1024;
+    private static final Set<String> SLOW_FILE_STORE_TYPES = new HashSet<>(Arrays.asList(
+            "cifs", "smbfs", "smb2", "nfs", "nfs4", "webdav", "davfs", "fuse.sshfs", "fat", "fat32", "vfat", "exfat", "msdos"));
+    private static final List<String> REMOVABLE_VOLUME_ATTRIBUTES = Arrays.asList("volume:isRemovable", "volume:isCdrom");
+
+    private final ScanFacade scanFacade;
+    private final EDUS2Configuration configuration;
+    private final Path cacheDirectory;
+    private final Predicate<File> shouldCache;
+    private final ExecutorService cacheThread;
+    private final Gson gson;
+    private final Map<String, CacheEntry> entriesBySource;
+    private final Set<String> verifiedHashes;
+    private final Map<String, Long> requestTimesBySource;
+
+    @Inject
+    public LocalMediaCache(ScanFacade scanFacade, EDUS2Configuration configuration) {
+        this(scanFacade, configuration, defaultCacheDirectory(),
+                file -> isInLocations(file, configuration.getCachedMediaLocations().orElse("")) || isRemoteOrRemovable(file));
+    }
+
+    LocalMediaCache(ScanFacade scanFacade, EDUS2Configuration configuration, Path cacheDirectory, Predicate<File> shouldCache) {
+        this.scanFacade = scanFacade;
+        this.configuration = configuration;
+        this.cacheDirectory = cacheDirectory;
+        this.shouldCache = shouldCache;
+        this.cacheThread = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "edus2j-media-cache");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        this.gson = new GsonBuilder().create();
+        this.verifiedHashes = new HashSet<>();
+        this.requestTimesBySource = new HashMap<>();
+        createDirectory(cacheDirectory);
+        this.entriesBySource = readIndex();
+        scanFacade.registerScansListener(this::cacheAll);
+    }
+
+    /**
+     * Returns the media URI to play for the given scan: the local copy when there is a verified one, otherwise the
+     * scan's own path. Asking for a scan that has no copy yet has one made in the background if there is room.
+     */
+    public synchronized String resolve(Scan scan) {
+        long now = System.currentTimeMillis();
+        Optional<CacheEntry> copy = findVerifiedCopy(scan);
+        if (!copy.isPresent()) {
+            if (requestTimesBySource.put(scan.getPath(), now) == null) {
+                cacheAll(Collections.singletonList(scan));
+            }
+            return scan.getPath();
+        }
+
+        copy.get().lastAccess = now;
+        return cacheFile(copy.get()).toUri().toString();
+    }
+
+    /**
+     * Returns the media URI that {@link #resolve(Scan)} would, without asking for a copy or counting as a use, for
+     * loading scans that may never be played.
+     */
+    public synchronized String getPlaybackSource(Scan scan) {
+        return findVerifiedCopy(scan).map(entry -> cacheFile(entry).toUri().toString()).orElse(scan.getPath());
+    }
+
+    /**
+     * Returns the file that playing the given scan will read, without asking for a copy or counting as a use: the
+     * verified local copy when there is one, otherwise the scan's own file. Nothing is returned while the cache is
+     * responsible for the scan's video, since copying or verifying it reads it anyway.
+     */
+    Optional<File> findPlaybackFile(Scan scan) {
+        synchronized (this) {
+            Optional<CacheEntry> copy = findVerifiedCopy(scan);
+            if (copy.isPresent()) {
+                return Optional.of(cacheFile(copy.get()).toFile());
+            }
+        }
+
+        // Checked outside the lock, since looking at a file on an unreachable share can block for a long time
+        return ScanMediaFiles.localFile(scan).filter(file -> !shouldCache.test(file));
+    }
+
+    public Future<?> cacheAll() {
+        return cacheAll(scanFacade.getActiveScans());
+    }
+
+    /**
+     * Copies or verifies the local copies of the given scans in the background, then evicts copies until the cache
+     * is within its size limit.
+     */
+    public Future<?> cacheAll(List<Scan> scans) {
+        List<Scan> scansToCache = new ArrayList<>(scans);
+        return cacheThread.submit(() -> {
+            scansToCache.forEach(this::cache);
+            evict();
+            saveIndex();
+        });
+    }
+
+    static boolean isRemoteOrRemovable(File file) {
+        String path = file.getPath();
+        if (path.startsWith("\\\\") || path.startsWith("//")) {
+            return true;
+        }
+
+        try {
+            FileStore store = Files.getFileStore(file.toPath());
+            return SLOW_FILE_STORE_TYPES.contains(store.type().toLowerCase(Locale.ROOT)) || isRemovable(store);
+        } catch (IOException e) {
+            // Unreachable files are most likely on a share that is currently unavailable
+            return true;
+        }
+    }
+
+    /**
+     * Whether the file is in one of the given drives or folders, which are separated by semicolons.
+     */
+    static boolean isInLocations(File file, String locations) {
+        Path path = file.getAbsoluteFile().toPath().normalize();
+        for (String location : locations.split(";")) {
+            String trimmedLocation = location.trim();
+            if (trimmedLocation.isEmpty()) {
+                continue;
+            }
+            if (trimmedLocation.endsWith(":")) {
+                // A bare drive letter stands for the root of that drive, not its current directory
+                trimmedLocation += File.separator;
+            }
+
+            try {
+                if (path.startsWith(Paths.get(trimmedLocation).toAbsolutePath().normalize())) {
+                    return true;
+                }
+            } catch (InvalidPathException e) {
+                // Not a location on this system
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Windows reports whether a drive is removable or optical whatever it is formatted as, so USB sticks formatted as
+     * NTFS are recognised as well. Other systems do not support these attributes.
+     */
+    private static boolean isRemovable(FileStore store) {
+        for (String attribute : REMOVABLE_VOLUME_ATTRIBUTES) {
+            try {
+                if (Boolean.TRUE.equals(store.getAttribute(attribute))) {
+                    return true;
+                }
+            } catch (IOException | UnsupportedOperationException | IllegalArgumentException e) {
+                // Not supported here
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected boolean isValidContent(String contents) {
+        try {
+            return gson.fromJson(contents, Object.class) instanceof Map;
+        } catch (JsonParseException e) {
+            return false;
+        }
+    }
+
+    private void cache(Scan scan) {
+        Optional<File> file = ScanMediaFiles.toFile(scan);
+        if (!file.isPresent() || !shouldCache.test(file.get())) {
+            return;
+        }
+
+        File source = file.get();
+        CacheEntry entry = getEntry(scan.getPath());
+        boolean sourceAvailable = source.isFile();
+        if (entry != null && (!sourceAvailable || entry.isCopyOf(source)) && verify(entry)) {
+            return;
+        }
+
+        long requestTime = getRequestTime(scan.getPath());
+        if (sourceAvailable && makeRoom(source.length(), requestTime)) {
+            copy(scan.getPath(), source, requestTime);
+        }
+    }
+
+    private boolean verify(CacheEntry entry) {
+        synchronized (this) {
+            if (verifiedHashes.contains(entry.hash)) {
+                return true;
+            }
+        }
+
+        Path cacheFile = cacheFile(entry);
+        try (InputStream contents = Files.newInputStream(cacheFile)) {
+            if (DigestUtils.sha256Hex(contents).equals(entry.hash)) {
+                synchronized (this) {
+                    verifiedHashes.add(entry.hash);
+                }
+                return true;
+            }
+        } catch (IOException e) {
+            // Treated as damaged
+        }
+
+        remove(entry.hash);
+        return false;
+    }
+
+    private void copy(String sourcePath, File source, long lastAccess) {
+        Path temporaryFile = null;
+        try {
+            temporaryFile = Files.createTempFile(cacheDirectory, "copy", ".tmp");
+            MessageDigest digest = DigestUtils.getSha256Digest();
+            try (InputStream contents = new DigestInputStream(new FileInputStream(source), digest)) {
+                Files.copy(contents, temporaryFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            CacheEntry entry = new CacheEntry(Hex.encodeHexString(digest.digest()), extensionOf(source), source.length(), source.lastModified(), lastAccess);
+            Path cacheFile = cacheFile(entry);
+            if (Files.exists(cacheFile)) {
+                Files.delete(temporaryFile);
+            } else {
+                Files.move(temporaryFile, cacheFile, StandardCopyOption.ATOMIC_MOVE);
+            }
+            entry.size = Files.size(cacheFile);
+            synchronized (this) {
+                CacheEntry previousEntry = entriesBySource.put(sourcePath, entry);
+                verifiedHashes.add(entry.hash);
+                if (previousEntry != null && entriesBySource.values().stream().noneMatch(e -> e.hash.equals(previousEntry.hash))) {
+                    // The source changed and nothing else uses the old copy
+                    deleteQuietly(cacheFile(previousEntry));
+                    verifiedHashes.remove(previousEntry.hash);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println(String.format("Unable to cache scan video %s: %s", source, e));
+            deleteQuietly(temporaryFile);
+        }
+    }
+
+    /**
+     * Evicts copies used before the given time, least recently used first, until a copy of the given size fits.
+     * Nothing is evicted if it would not fit even then.
+     */
+    private synchronized boolean makeRoom(long size, long usedBefore) {
+        List<CacheEntry> copies = getCopiesLeastRecentlyUsedFirst();
+        long limit = getSizeLimit();
+        long totalSize = copies.stream().mapToLong(entry -> entry.size).sum();
+        long evictableSize = copies.stream().filter(entry -> entry.lastAccess < usedBefore).mapToLong(entry -> entry.size).sum();
+        if (totalSize - evictableSize + size > limit) {
+            return false;
+        }
+
+        for (CacheEntry entry : copies) {
+            if (totalSize + size <= limit) {
+                break;
+            }
+            if (entry.lastAccess < usedBefore && remove(entry.hash)) {
+                totalSize -= entry.size;
+            }
+        }
+        return totalSize + size <= limit;
+    }
+
+    /**
+     * Brings the cache back within its size limit, which may have been lowered.
+     */
+    private synchronized void evict() {
+        List<CacheEntry> copies = getCopiesLeastRecentlyUsedFirst();
+        long totalSize = copies.stream().mapToLong(entry -> entry.size).sum();
+        for (CacheEntry entry : copies) {
+            if (totalSize <= getSizeLimit()) {
+                break;
+            }
+            if (remove(entry.hash)) {
+                totalSize -= entry.size;
+            }
+        }
+    }
+
+    private synchronized List<CacheEntry> getCopiesLeastRecentlyUsedFirst() {
+        Map<String, CacheEntry> newestEntryByHash = new HashMap<>();
+        for (CacheEntry entry : entriesBySource.values()) {
+            newestEntryByHash.merge(entry.hash, entry, (a, b) -> a.lastAccess >= b.lastAccess ? a : b);
+        }
+
+        List<CacheEntry> copies = new ArrayList<>(newestEntryByHash.values());
+        copies.sort(Comparator.comparingLong(entry -> entry.lastAccess));
+        return copies;
+    }
+
+    /**
+     * Deletes a copy and forgets every scan that used it. A copy that cannot be deleted, such as one that is being
+     * played, is kept for now.
+     */
+    private synchronized boolean remove(String hash) {
+        Optional<CacheEntry> entry = entriesBySource.values().stream().filter(e -> e.hash.equals(hash)).findFirst();
+        if (entry.isPresent()) {
+            try {
+                Files.deleteIfExists(cacheFile(entry.get()));
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        entriesBySource.values().removeIf(e -> e.hash.equals(hash));
+        verifiedHashes.remove(hash);
+        return true;
+    }
+
+    private synchronized Optional<CacheEntry> findVerifiedCopy(Scan scan) {
+        return Optional.ofNullable(entriesBySource.get(scan.getPath())).filter(entry -> verifiedHashes.contains(entry.hash));
+    }
+
+    private synchronized CacheEntry getEntry(String sourcePath) {
+        return entriesBySource.get(sourcePath);
+    }
+
+    private synchronized long getRequestTime(String sourcePath) {
+        return requestTimesBySource.getOrDefault(sourcePath, 0L);
+    }
+
+    private long getSizeLimit() {
+        return configuration.getMediaCacheSizeLimit().orElse(DEFAULT_SIZE_LIMIT_IN_MEGABYTES) * BYTES_PER_MEGABYTE;
+    }
+
+    private Path cacheFile(CacheEntry entry) {
+        return cacheDirectory.resolve(entry.hash + entry.extension);
+    }
+
+    private Map<String, CacheEntry> readIndex() {
+        Type type = new TypeToken<LinkedHashMap<String, CacheEntry>>() {}.getType();
+        Optional<Map<String, CacheEntry>> index = readFileContents(indexFile()).map(contents -> gson.fromJson(contents, type));
+        return index.orElseGet(LinkedHashMap::new);
+    }
+
+    private void saveIndex() {
+        String index;
+        synchronized (this) {
+            index = gson.toJson(entriesBySource);
+        }
+        saveToFile(index, indexFile());
+    }
+
+    private String indexFile() {
+        return cacheDirectory.resolve(INDEX_FILE_NAME).toString();
+    }
+
+    private static String extensionOf(File file) {
+        // Kept so that the media framework can still recognise the format from the name
+        int extensionStart = file.getName().lastIndexOf('.');
+        return extensionStart < 0 ? "" : file.getName().substring(extensionStart).toLowerCase(Locale.ROOT);
+    }
+
+    private static Path defaultCacheDirectory() {
+        String localAppData = Optional.ofNullable(System.getenv("LOCALAPPDATA")).orElse(System.getProperty("java.io.tmpdir"));
+        return Paths.get(localAppData, "edus2j", CACHE_DIRECTORY_NAME);
+    }
+
+    private static void createDirectory(Path directory) {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                // Left behind
+            }
+        }
+    }
+
+    private static class CacheEntry {
+        String hash;
+        String extension;
+        long sourceSize;
+        long sourceLastModified;
+        long size;
+        long lastAccess;
+
+        CacheEntry(String hash, String extension, long sourceSize, long sourceLastModified, long lastAccess) {
+            this.hash = hash;
+            this.extension = extension;
+            this.sourceSize = sourceSize;
+            this.sourceLastModified = sourceLastModified;
+            this.lastAccess = lastAccess;
+        }
+
+        boolean isCopyOf(File source) {
+            return source.length() == sourceSize && source.lastModified() == sourceLastModified;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package edus2.adapter.media;
+
+import java.io.File;
+import java.io.IOException;
+
+public interface MediaDecoder {
+    /**
+     * Opens the video far enough to know that it can be played, blocking until then.
+     *
+     * @throws IOException when the video cannot be played
+     */
+    VideoFormat decode(File video) throws IOException;
+}
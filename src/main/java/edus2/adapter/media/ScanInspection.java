@@ -0,0 +1,45 @@
+package edus2.adapter.media;
+
+import edus2.domain.ScanMetadata;
+
+import java.io.File;
+import java.util.Optional;
+
+/**
+ * The outcome of checking a video before it is imported: its metadata if it can be played, or why not.
+ */
+public class ScanInspection {
+    private final File video;
+    private final ScanMetadata metadata;
+    private final String problem;
+
+    private ScanInspection(File video, ScanMetadata metadata, String problem) {
+        this.video = video;
+        this.metadata = metadata;
+        this.problem = problem;
+    }
+
+    public static ScanInspection playable(File video, ScanMetadata metadata) {
+        return new ScanInspection(video, metadata, null);
+    }
+
+    public static ScanInspection unplayable(File video, String problem) {
+        return new ScanInspection(video, null, problem);
+    }
+
+    public File getVideo() {
+        return video;
+    }
+
+    public boolean isPlayable() {
+        return metadata != null;
+    }
+
+    public Optional<ScanMetadata> getMetadata() {
+        return Optional.ofNullable(metadata);
+    }
+
+    public Optional<String> getProblem() {
+        return Optional.ofNullable(problem);
+    }
+}
@@ -0,0 +1,39 @@
+package edus2.adapter.media;
+
+import edus2.domain.Scan;
+
+import java.io.File;
+import java.net.URI;
+import java.util.Optional;
+
+public class ScanMediaFiles {
+
+    private ScanMediaFiles() {
+    }
+
+    /**
+     * Returns the file a scan's media URI points to, when it is a file that can be read directly.
+     */
+    public static Optional<File> localFile(Scan scan) {
+        return toFile(scan).filter(File::isFile);
+    }
+
+    /**
+     * Returns the file a scan's media URI refers to, whether or not it can currently be reached. Network share URIs
+     * such as file://server/share/scan.mp4 become UNC paths.
+     */
+    public static Optional<File> toFile(Scan scan) {
+        try {
+            URI uri = URI.create(scan.getPath());
+            if (!"file".equalsIgnoreCase(uri.getScheme())) {
+                return Optional.empty();
+            }
+            if (uri.getAuthority() != null) {
+                return Optional.of(new File("//" + uri.getAuthority() + uri.getPath()));
+            }
+            return Optional.of(new File(uri));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
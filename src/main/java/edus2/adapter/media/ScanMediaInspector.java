@@ -0,0 +1,80 @@
+package edus2.adapter.media;
+
+import com.google.inject.Inject;
+import edus2.domain.ScanMetadata;
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Checks videos before they are imported as scans, several at a time on a small pool of worker threads. Each video is
+ * hashed and decoded, so that videos which will not play are caught at import rather than during a session, and the
+ * metadata of those that do can be stored with their scan.
+ */
+public class ScanMediaInspector {
+    private static final int MAXIMUM_WORKERS = 4;
+
+    private final MediaDecoder decoder;
+    private final ExecutorService workers;
+
+    @Inject
+    public ScanMediaInspector(MediaDecoder decoder) {
+        this.decoder = decoder;
+        AtomicInteger workerCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(Math.min(MAXIMUM_WORKERS, Runtime.getRuntime().availableProcessors()), runnable -> {
+            Thread thread = new Thread(runnable, "edus2j-scan-inspector-" + workerCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Inspects the videos, reporting the number inspected so far after each one. The results are in the same order as
+     * the videos.
+     */
+    public CompletableFuture<List<ScanInspection>> inspect(List<File> videos, IntConsumer progressListener) {
+        AtomicInteger inspected = new AtomicInteger();
+        List<CompletableFuture<ScanInspection>> inspections = new ArrayList<>();
+        for (File video : videos) {
+            inspections.add(CompletableFuture.supplyAsync(() -> {
+                ScanInspection inspection = inspect(video);
+                progressListener.accept(inspected.incrementAndGet());
+                return inspection;
+            }, workers));
+        }
+
+        return CompletableFuture.allOf(inspections.toArray(new CompletableFuture[0]))
+                .thenApply(done -> {
+                    List<ScanInspection> results = new ArrayList<>();
+                    inspections.forEach(inspection -> results.add(inspection.join()));
+                    return results;
+                });
+    }
+
+    private ScanInspection inspect(File video) {
+        try {
+            String contentHash;
+            try (InputStream contents = new FileInputStream(video)) {
+                contentHash = DigestUtils.sha256Hex(contents);
+            }
+
+            VideoFormat format = decoder.decode(video);
+            if (format.getWidth() <= 0 || format.getHeight() <= 0) {
+                return ScanInspection.unplayable(video, "it has no picture");
+            }
+            return ScanInspection.playable(video, new ScanMetadata(format.getDurationMillis(), format.getWidth(), format.getHeight(), contentHash, video.length()));
+        } catch (IOException | RuntimeException e) {
+            return ScanInspection.unplayable(video, e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage());
+        }
+    }
+}
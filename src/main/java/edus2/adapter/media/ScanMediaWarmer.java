@@ -0,0 +1,133 @@
+package edus2.adapter.media;
+
+import com.google.inject.Inject;
+import edus2.application.ScanFacade;
+import edus2.domain.Scan;
+import edus2.domain.property.PropertyObserver;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Reads every scan's video file once in the background so that it is in the operating system's page cache before it
+ * is first played, which matters most for files on network shares and slow drives. Files are streamed rather than
+ * mapped, since mapping files on network shares is unreliable. Warming runs on a single low priority thread and starts
+ * again whenever the scans change; a warm-up that has been superseded stops early.
+ * <p>
+ * The file warmed for a scan is the one its playback will read, so a scan with a local copy has the copy warmed.
+ * Videos the local media cache is still copying are left to it, rather than being read from a slow drive twice at once.
+ */
+public class ScanMediaWarmer {
+    private static final int READ_BUFFER_SIZE = 1024 * 1024;
+
+    private final ScanFacade scanFacade;
+    private final Function<Scan, Optional<File>> playbackFile;
+    private final ExecutorService warmingThread;
+    private final AtomicLong generation;
+    private final List<PropertyObserver<ScanWarmupProgress>> progressListeners;
+
+    @Inject
+    public ScanMediaWarmer(ScanFacade scanFacade, LocalMediaCache mediaCache) {
+        this(scanFacade, mediaCache::findPlaybackFile);
+    }
+
+    ScanMediaWarmer(ScanFacade scanFacade, Function<Scan, Optional<File>> playbackFile) {
+        this.scanFacade = scanFacade;
+        this.playbackFile = playbackFile;
+        this.warmingThread = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "edus2j-scan-warmer");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        this.generation = new AtomicLong();
+        this.progressListeners = new CopyOnWriteArrayList<>();
+        scanFacade.registerScansListener(this::warm);
+    }
+
+    /**
+     * Registers a listener that is told about progress after each file, on the warming thread.
+     */
+    public void registerProgressListener(PropertyObserver<ScanWarmupProgress> listener) {
+        progressListeners.add(listener);
+    }
+
+    public void warmAll() {
+        warm(scanFacade.getActiveScans());
+    }
+
+    /**
+     * Warms the files of scans that are about to become active, in place of any warm-up in progress.
+     */
+    public void warmAhead(List<Scan> scans) {
+        warm(scans);
+    }
+
+    /**
+     * Files are resolved on the warming thread, since checking a file on an unreachable share can block for a long
+     * time and this is often called on the FX thread.
+     */
+    private void warm(List<Scan> scans) {
+        long warmupGeneration = generation.incrementAndGet();
+        List<Scan> scansToWarm = new ArrayList<>(scans);
+        warmingThread.execute(() -> warmFiles(scansToWarm, warmupGeneration));
+    }
+
+    private void warmFiles(List<Scan> scans, long warmupGeneration) {
+        long start = System.nanoTime();
+        Set<File> files = new LinkedHashSet<>();
+        for (Scan scan : scans) {
+            if (generation.get() != warmupGeneration) {
+                return;
+            }
+            playbackFile.apply(scan).ifPresent(files::add);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+        int filesWarmed = 0;
+        long bytesRead = 0;
+        for (File file : files) {
+            if (generation.get() != warmupGeneration) {
+                return;
+            }
+
+            bytesRead += readFully(file, buffer, warmupGeneration);
+            filesWarmed++;
+            notifyProgressListeners(new ScanWarmupProgress(filesWarmed, files.size(), bytesRead, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+        }
+    }
+
+    private long readFully(File file, ByteBuffer buffer, long warmupGeneration) {
+        long bytesRead = 0;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            int read;
+            while (generation.get() == warmupGeneration && (read = channel.read(buffer)) >= 0) {
+                bytesRead += read;
+                buffer.clear();
+            }
+        } catch (IOException e) {
+            System.err.println(String.format("Unable to warm scan file %s: %s", file, e));
+        }
+        return bytesRead;
+    }
+
+    private void notifyProgressListeners(ScanWarmupProgress progress) {
+        for (PropertyObserver<ScanWarmupProgress> listener : progressListeners) {
+            listener.valueChanged(progress);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package edus2.adapter.media;
+
+public class ScanWarmupProgress {
+    private final int filesWarmed;
+    private final int totalFiles;
+    private final long bytesRead;
+    private final long elapsedMillis;
+
+    public ScanWarmupProgress(int filesWarmed, int totalFiles, long bytesRead, long elapsedMillis) {
+        this.filesWarmed = filesWarmed;
+        this.totalFiles = totalFiles;
+        this.bytesRead = bytesRead;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public int getFilesWarmed() {
+        return filesWarmed;
+    }
+
+    public int getTotalFiles() {
+        return totalFiles;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public boolean isFinished() {
+        return filesWarmed == totalFiles;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Warmed %d of %d scan files (%.1f MB) in %d ms", filesWarmed, totalFiles, bytesRead / (1024.0 * 1024.0), elapsedMillis);
+    }
+}
@@ -0,0 +1,112 @@
+package edus2.adapter.media;
+
+import com.google.inject.Inject;
+import edus2.application.ScanFacade;
+import edus2.domain.Scan;
+import edus2.domain.ScanChange;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * Runs a scenario's timeline, overriding each location's scan at the time given for the change. Overrides are not
+ * saved, so the scenario's own scans come back when the application is restarted, and any change to the saved scans
+ * stops the timeline. The incoming video is warmed a while before each change, copied locally when it is on a slow
+ * drive and read into the page cache, so that the new clip starts straight away if its location is being scanned when
+ * the change is made. It is also inspected then, as videos added as scans are, so that it is played with its metadata.
+ */
+public class ScenarioTimelineScheduler {
+    private static final long DEFAULT_WARM_UP_LEAD_MILLIS = TimeUnit.SECONDS.toMillis(20);
+
+    private final ScanFacade scanFacade;
+    private final ScheduledExecutorService executor;
+    private final UnaryOperator<Scan> warmUp;
+    private final long warmUpLeadMillis;
+    private final List<ScheduledFuture<?>> pendingTasks;
+    private long generation;
+
+    @Inject
+    public ScenarioTimelineScheduler(ScanFacade scanFacade, ScanMediaWarmer mediaWarmer, LocalMediaCache mediaCache, ScanMediaInspector mediaInspector,
+                                     ScheduledExecutorService executor) {
+        this(scanFacade, executor, scan -> {
+            mediaCache.cacheAll(Collections.singletonList(scan));
+            mediaWarmer.warmAhead(Collections.singletonList(scan));
+            return withMetadata(scan, mediaInspector);
+        }, DEFAULT_WARM_UP_LEAD_MILLIS);
+    }
+
+    /**
+     * The given warm-up returns the scan to play for the change, which may have been given metadata.
+     */
+    ScenarioTimelineScheduler(ScanFacade scanFacade, ScheduledExecutorService executor, UnaryOperator<Scan> warmUp, long warmUpLeadMillis) {
+        this.scanFacade = scanFacade;
+        this.executor = executor;
+        this.warmUp = warmUp;
+        this.warmUpLeadMillis = warmUpLeadMillis;
+        this.pendingTasks = new ArrayList<>();
+        scanFacade.registerScansEditedListener(this::stop);
+    }
+
+    /**
+     * Runs the given timeline from now, in place of any timeline already running.
+     */
+    public synchronized void start(List<ScanChange> timeline) {
+        stop();
+        long timelineGeneration = generation;
+        for (ScanChange change : timeline) {
+            // A change due before its warm-up has finished goes ahead with the scan as it was read
+            AtomicReference<Scan> warmedScan = new AtomicReference<>(change.getScan());
+            long warmUpDelay = Math.max(0, change.getAfterMillis() - warmUpLeadMillis);
+            pendingTasks.add(executor.schedule(() -> run(timelineGeneration, () -> warmedScan.set(warmUp.apply(change.getScan()))), warmUpDelay, TimeUnit.MILLISECONDS));
+            pendingTasks.add(executor.schedule(() -> run(timelineGeneration, () -> scanFacade.overrideScan(warmedScan.get())), change.getAfterMillis(), TimeUnit.MILLISECONDS));
+        }
+    }
+
+    /**
+     * Stops the running timeline, leaving any changes it has made in place until the saved scans are next changed.
+     */
+    public synchronized void stop() {
+        generation++;
+        pendingTasks.forEach(task -> task.cancel(false));
+        pendingTasks.clear();
+    }
+
+    /**
+     * Only the check is made while holding the lock, so that starting or stopping a timeline never waits on a task.
+     */
+    private void run(long timelineGeneration, Runnable task) {
+        synchronized (this) {
+            if (generation != timelineGeneration) {
+                return;
+            }
+        }
+
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            System.err.println(String.format("Unable to run scenario timeline: %s", e));
+        }
+    }
+
+    private static Scan withMetadata(Scan scan, ScanMediaInspector mediaInspector) {
+        if (scan.getMetadata().isPresent()) {
+            return scan;
+        }
+
+        Optional<File> video = ScanMediaFiles.localFile(scan);
+        if (!video.isPresent()) {
+            return scan;
+        }
+        return mediaInspector.inspect(Collections.singletonList(video.get()), inspected -> {}).join().get(0).getMetadata()
+                .map(metadata -> new Scan(scan.getScanEnum(), scan.getPath(), metadata))
+                .orElse(scan);
+    }
+}
@@ -0,0 +1,25 @@
+package edus2.adapter.media;
+
+public class VideoFormat {
+    private final long durationMillis;
+    private final int width;
+    private final int height;
+
+    public VideoFormat(long durationMillis, int width, int height) {
+        this.durationMillis = durationMillis;
+        this.width = width;
+        this.height = height;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
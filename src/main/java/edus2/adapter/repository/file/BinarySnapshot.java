@@ -0,0 +1,649 @@
+package edus2.adapter.repository.file;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Binary layout for the central data file, read through a memory mapping so that opening it only reads the section
+ * directory and each section is decoded when it is first asked for.
+ * <pre>
+ * header     magic "EDUS2BIN", int version, int section count
+ * directory  per section: int name length, name (UTF-8), long offset, long length
+ * sections   per section: int name count, per name: int length, name (UTF-8); then one value
+ * value      byte type, then
+ *              null, true, false   nothing
+ *              integer             long
+ *              decimal             double
+ *              string              int length, UTF-8
+ *              other number        int length, UTF-8 text, for numbers that neither a long nor a double holds exactly
+ *              array               int element count, values
+ *              object              int member count, per member: int index into the section's names, value
+ * </pre>
+ * Member names are stored once per section rather than once per object. Sections are decoded straight from the
+ * mapping into the requested type, without going through JSON text or a {@link JsonElement} tree. All numbers are
+ * big-endian.
+ */
+class BinarySnapshot {
+    private static final byte[] MAGIC = "EDUS2BIN".getBytes(StandardCharsets.US_ASCII);
+    private static final int VERSION = 2;
+    private static final byte NULL = 0;
+    private static final byte FALSE = 1;
+    private static final byte TRUE = 2;
+    private static final byte INTEGER = 3;
+    private static final byte DECIMAL = 4;
+    private static final byte STRING = 5;
+    private static final byte NUMBER = 6;
+    private static final byte ARRAY = 7;
+    private static final byte OBJECT = 8;
+    private static final Gson GSON = new GsonBuilder().registerTypeAdapterFactory(new MapAdapterFactory()).create();
+
+    private final ByteBuffer buffer;
+    private final Map<String, SectionEntry> directory;
+
+    private BinarySnapshot(ByteBuffer buffer, Map<String, SectionEntry> directory) {
+        this.buffer = buffer;
+        this.directory = directory;
+    }
+
+    static boolean hasMagic(byte[] contents) {
+        return contents.length >= MAGIC.length && Arrays.equals(Arrays.copyOf(contents, MAGIC.length), MAGIC);
+    }
+
+    static boolean hasMagic(File file) {
+        if (file.length() < MAGIC.length) {
+            return false;
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(MAGIC.length);
+            while (magic.hasRemaining() && channel.read(magic) >= 0) {
+                // Keep reading until the magic is complete
+            }
+            return Arrays.equals(magic.array(), MAGIC);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Maps the file and reads its section directory. The mapping stays open until {@link #release()}.
+     */
+    static BinarySnapshot map(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            try {
+                return new BinarySnapshot(buffer, readDirectory(buffer));
+            } catch (IOException e) {
+                release(buffer);
+                throw e;
+            }
+        }
+    }
+
+    static boolean isValid(byte[] contents) {
+        try {
+            readDirectory(ByteBuffer.wrap(contents));
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    Set<String> getSectionNames() {
+        return directory.keySet();
+    }
+
+    Optional<JsonElement> readSection(String sectionName) {
+        return readSection(sectionName, JsonElement.class);
+    }
+
+    /**
+     * Decodes the section into the given type, the way {@link Gson#fromJson(JsonReader, Type)} decodes JSON.
+     */
+    <T> Optional<T> readSection(String sectionName, Type type) {
+        SectionEntry entry = directory.get(sectionName);
+        if (entry == null) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.ofNullable(GSON.fromJson(new ValueReader(slice(entry)), type));
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException
+                | IllegalArgumentException e) {
+            throw new JsonParseException("Section " + sectionName + " is damaged", e);
+        }
+    }
+
+    /**
+     * Converts every section to JSON, for writing the file back in the text format.
+     */
+    Map<String, JsonElement> readAllSections() {
+        Map<String, JsonElement> sections = new LinkedHashMap<>();
+        for (String sectionName : directory.keySet()) {
+            readSection(sectionName).ifPresent(section -> sections.put(sectionName, section));
+        }
+        return sections;
+    }
+
+    /**
+     * Releases the mapping. Nothing read from this snapshot may be used afterwards, and on Windows the file cannot be
+     * replaced until it has been released.
+     */
+    void release() {
+        if (buffer instanceof MappedByteBuffer) {
+            release((MappedByteBuffer) buffer);
+        }
+    }
+
+    private ByteBuffer slice(SectionEntry entry) {
+        ByteBuffer section = buffer.duplicate();
+        section.position((int) entry.offset);
+        section.limit((int) (entry.offset + entry.length));
+        return section.slice();
+    }
+
+    private static Map<String, SectionEntry> readDirectory(ByteBuffer buffer) throws IOException {
+        ByteBuffer header = buffer.duplicate();
+        try {
+            byte[] magic = new byte[MAGIC.length];
+            header.get(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException("Not a binary data file");
+            }
+
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported binary data file version " + version);
+            }
+
+            int sectionCount = header.getInt();
+            Map<String, SectionEntry> directory = new LinkedHashMap<>();
+            for (int i = 0; i < sectionCount; i++) {
+                byte[] name = new byte[header.getInt()];
+                header.get(name);
+                SectionEntry entry = new SectionEntry(header.getLong(), header.getLong());
+                if (entry.offset < 0 || entry.length < 0 || entry.offset + entry.length > buffer.limit()) {
+                    throw new IOException("Section directory points outside the file");
+                }
+                directory.put(new String(name, StandardCharsets.UTF_8), entry);
+            }
+            return directory;
+        } catch (BufferUnderflowException | NegativeArraySizeException e) {
+            throw new IOException("Binary data file is truncated", e);
+        }
+    }
+
+    /**
+     * Unmaps the buffer straight away rather than waiting for it to be garbage collected, which would keep the file
+     * locked on Windows. This relies on JDK internals, so it is best effort: it only works on Java 8, since later
+     * versions no longer expose {@code cleaner()}, and there the mapping lasts until the buffer is collected.
+     */
+    private static void release(MappedByteBuffer buffer) {
+        try {
+            Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            Object cleaner = cleanerMethod.invoke(buffer);
+            if (cleaner != null) {
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Left to the garbage collector
+        }
+    }
+
+    static class Builder {
+        private final Map<String, byte[]> sections = new LinkedHashMap<>();
+
+        Builder addSection(String sectionName, JsonElement section) {
+            ByteArrayOutputStream value = new ByteArrayOutputStream();
+            ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+            try {
+                Map<String, Integer> names = new LinkedHashMap<>();
+                writeValue(new DataOutputStream(value), section, names);
+                DataOutputStream output = new DataOutputStream(encoded);
+                output.writeInt(names.size());
+                for (String name : names.keySet()) {
+                    writeString(output, name);
+                }
+                value.writeTo(output);
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to encode section " + sectionName, e);
+            }
+            sections.put(sectionName, encoded.toByteArray());
+            return this;
+        }
+
+        /**
+         * Copies a section from another snapshot without decoding it.
+         */
+        Builder copySection(BinarySnapshot snapshot, String sectionName) {
+            SectionEntry entry = snapshot.directory.get(sectionName);
+            ByteBuffer section = snapshot.slice(entry);
+            byte[] value = new byte[section.remaining()];
+            section.get(value);
+            sections.put(sectionName, value);
+            return this;
+        }
+
+        byte[] build() {
+            try {
+                ByteArrayOutputStream directory = new ByteArrayOutputStream();
+                DataOutputStream directoryOutput = new DataOutputStream(directory);
+                long offset = MAGIC.length + 8 + directorySize();
+                for (Map.Entry<String, byte[]> section : sections.entrySet()) {
+                    writeString(directoryOutput, section.getKey());
+                    directoryOutput.writeLong(offset);
+                    directoryOutput.writeLong(section.getValue().length);
+                    offset += section.getValue().length;
+                }
+
+                ByteArrayOutputStream contents = new ByteArrayOutputStream();
+                DataOutputStream output = new DataOutputStream(contents);
+                output.write(MAGIC);
+                output.writeInt(VERSION);
+                output.writeInt(sections.size());
+                output.write(directory.toByteArray());
+                for (byte[] section : sections.values()) {
+                    output.write(section);
+                }
+                return contents.toByteArray();
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to encode binary data file", e);
+            }
+        }
+
+        private long directorySize() {
+            long size = 0;
+            for (String sectionName : sections.keySet()) {
+                size += 4 + sectionName.getBytes(StandardCharsets.UTF_8).length + 8 + 8;
+            }
+            return size;
+        }
+
+        private static void writeValue(DataOutputStream output, JsonElement value, Map<String, Integer> names)
+                throws IOException {
+            if (value.isJsonNull()) {
+                output.writeByte(NULL);
+            } else if (value.isJsonArray()) {
+                JsonArray array = value.getAsJsonArray();
+                output.writeByte(ARRAY);
+                output.writeInt(array.size());
+                for (JsonElement element : array) {
+                    writeValue(output, element, names);
+                }
+            } else if (value.isJsonObject()) {
+                JsonObject object = value.getAsJsonObject();
+                output.writeByte(OBJECT);
+                output.writeInt(object.size());
+                for (Map.Entry<String, JsonElement> member : object.entrySet()) {
+                    output.writeInt(names.computeIfAbsent(member.getKey(), name -> names.size()));
+                    writeValue(output, member.getValue(), names);
+                }
+            } else {
+                writePrimitive(output, value.getAsJsonPrimitive());
+            }
+        }
+
+        private static void writePrimitive(DataOutputStream output, JsonPrimitive value) throws IOException {
+            if (value.isBoolean()) {
+                output.writeByte(value.getAsBoolean() ? TRUE : FALSE);
+            } else if (value.isString()) {
+                output.writeByte(STRING);
+                writeString(output, value.getAsString());
+            } else {
+                writeNumber(output, value.getAsString());
+            }
+        }
+
+        private static void writeNumber(DataOutputStream output, String number) throws IOException {
+            try {
+                long integer = Long.parseLong(number);
+                output.writeByte(INTEGER);
+                output.writeLong(integer);
+                return;
+            } catch (NumberFormatException e) {
+                // Not an integer
+            }
+
+            double decimal = Double.parseDouble(number);
+            if (Double.toString(decimal).equals(number)) {
+                output.writeByte(DECIMAL);
+                output.writeDouble(decimal);
+            } else {
+                output.writeByte(NUMBER);
+                writeString(output, number);
+            }
+        }
+
+        private static void writeString(DataOutputStream output, String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        }
+    }
+
+    /**
+     * Presents a value as a stream of JSON tokens, so that gson can bind it to any type without the value first being
+     * turned into JSON text.
+     */
+    private static class ValueReader extends JsonReader {
+        private final ByteBuffer value;
+        private final String[] names;
+        private int[] remaining;
+        private boolean[] objects;
+        private boolean[] awaitingValue;
+        private int depth;
+        private boolean started;
+        private byte[] scratch;
+
+        ValueReader(ByteBuffer value) {
+            super(new StringReader(""));
+            this.value = value;
+            this.remaining = new int[16];
+            this.objects = new boolean[16];
+            this.awaitingValue = new boolean[16];
+            this.scratch = new byte[64];
+            this.names = new String[value.getInt()];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = readString();
+            }
+        }
+
+        @Override
+        public JsonToken peek() {
+            if (depth == 0) {
+                return started ? JsonToken.END_DOCUMENT : tokenOf(value.get(value.position()));
+            }
+
+            int top = depth - 1;
+            if (objects[top] && !awaitingValue[top]) {
+                return remaining[top] > 0 ? JsonToken.NAME : JsonToken.END_OBJECT;
+            }
+            if (!objects[top] && remaining[top] == 0) {
+                return JsonToken.END_ARRAY;
+            }
+            return tokenOf(value.get(value.position()));
+        }
+
+        @Override
+        public boolean hasNext() {
+            JsonToken token = peek();
+            return token != JsonToken.END_ARRAY && token != JsonToken.END_OBJECT && token != JsonToken.END_DOCUMENT;
+        }
+
+        @Override
+        public void beginArray() {
+            open(ARRAY, "an array");
+        }
+
+        @Override
+        public void endArray() {
+            close(JsonToken.END_ARRAY);
+        }
+
+        @Override
+        public void beginObject() {
+            open(OBJECT, "an object");
+        }
+
+        @Override
+        public void endObject() {
+            close(JsonToken.END_OBJECT);
+        }
+
+        @Override
+        public String nextName() {
+            expect(JsonToken.NAME);
+            int top = depth - 1;
+            remaining[top]--;
+            awaitingValue[top] = true;
+            return names[value.getInt()];
+        }
+
+        @Override
+        public String nextString() {
+            switch (consume(STRING, INTEGER, DECIMAL, NUMBER, "a string")) {
+                case INTEGER:
+                    return Long.toString(value.getLong());
+                case DECIMAL:
+                    return Double.toString(value.getDouble());
+                default:
+                    return readString();
+            }
+        }
+
+        @Override
+        public boolean nextBoolean() {
+            return consume(TRUE, FALSE, TRUE, FALSE, "a boolean") == TRUE;
+        }
+
+        @Override
+        public void nextNull() {
+            consume(NULL, NULL, NULL, NULL, "null");
+        }
+
+        @Override
+        public double nextDouble() {
+            switch (consume(DECIMAL, INTEGER, NUMBER, STRING, "a double")) {
+                case DECIMAL:
+                    return value.getDouble();
+                case INTEGER:
+                    return value.getLong();
+                default:
+                    return Double.parseDouble(readString());
+            }
+        }
+
+        @Override
+        public long nextLong() {
+            if (isValue(peek()) && peekType() == INTEGER) {
+                consume(INTEGER, INTEGER, INTEGER, INTEGER, "a long");
+                return value.getLong();
+            }
+
+            double decimal = nextDouble();
+            long integer = (long) decimal;
+            if (integer != decimal) {
+                throw new NumberFormatException("Expected a long but was " + decimal);
+            }
+            return integer;
+        }
+
+        @Override
+        public int nextInt() {
+            long integer = nextLong();
+            if ((int) integer != integer) {
+                throw new NumberFormatException("Expected an int but was " + integer);
+            }
+            return (int) integer;
+        }
+
+        @Override
+        public void skipValue() {
+            JsonToken token = peek();
+            if (token == JsonToken.NAME) {
+                nextName();
+            } else if (token == JsonToken.BEGIN_ARRAY) {
+                beginArray();
+                while (hasNext()) {
+                    skipValue();
+                }
+                endArray();
+            } else if (token == JsonToken.BEGIN_OBJECT) {
+                beginObject();
+                while (hasNext()) {
+                    nextName();
+                    skipValue();
+                }
+                endObject();
+            } else if (token == JsonToken.STRING) {
+                skipString();
+            } else if (token == JsonToken.NUMBER) {
+                nextDouble();
+            } else if (token == JsonToken.BOOLEAN) {
+                nextBoolean();
+            } else {
+                nextNull();
+            }
+        }
+
+        private void open(byte type, String expected) {
+            consume(type, type, type, type, expected);
+            if (depth == remaining.length) {
+                remaining = Arrays.copyOf(remaining, depth * 2);
+                objects = Arrays.copyOf(objects, depth * 2);
+                awaitingValue = Arrays.copyOf(awaitingValue, depth * 2);
+            }
+            remaining[depth] = value.getInt();
+            objects[depth] = type == OBJECT;
+            awaitingValue[depth] = false;
+            depth++;
+        }
+
+        private void close(JsonToken token) {
+            expect(token);
+            depth--;
+        }
+
+        /**
+         * Steps past the type of the next value, which has to be one of the given types, and returns it.
+         */
+        private byte consume(byte first, byte second, byte third, byte fourth, String expected) {
+            JsonToken token = peek();
+            byte type = isValue(token) ? peekType() : -1;
+            if (type != first && type != second && type != third && type != fourth) {
+                throw new IllegalStateException("Expected " + expected + " but was " + token);
+            }
+
+            if (depth == 0) {
+                started = true;
+            } else if (objects[depth - 1]) {
+                awaitingValue[depth - 1] = false;
+            } else {
+                remaining[depth - 1]--;
+            }
+            value.get();
+            return type;
+        }
+
+        private void expect(JsonToken token) {
+            JsonToken actual = peek();
+            if (actual != token) {
+                throw new IllegalStateException("Expected " + token + " but was " + actual);
+            }
+        }
+
+        private byte peekType() {
+            return value.get(value.position());
+        }
+
+        private String readString() {
+            int length = value.getInt();
+            if (length > scratch.length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            value.get(scratch, 0, length);
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        private void skipString() {
+            consume(STRING, STRING, STRING, STRING, "a string");
+            int length = value.getInt();
+            value.position(value.position() + length);
+        }
+
+        private static boolean isValue(JsonToken token) {
+            return token != JsonToken.NAME && token != JsonToken.END_ARRAY && token != JsonToken.END_OBJECT
+                    && token != JsonToken.END_DOCUMENT;
+        }
+
+        private static JsonToken tokenOf(byte type) {
+            switch (type) {
+                case NULL:
+                    return JsonToken.NULL;
+                case FALSE:
+                case TRUE:
+                    return JsonToken.BOOLEAN;
+                case INTEGER:
+                case DECIMAL:
+                case NUMBER:
+                    return JsonToken.NUMBER;
+                case STRING:
+                    return JsonToken.STRING;
+                case ARRAY:
+                    return JsonToken.BEGIN_ARRAY;
+                case OBJECT:
+                    return JsonToken.BEGIN_OBJECT;
+                default:
+                    throw new IllegalArgumentException("Unknown value type " + type);
+            }
+        }
+    }
+
+    /**
+     * Gson reads map keys by reaching into the internals of its own readers, which {@link ValueReader} does not share,
+     * so maps are read through a tree instead. They are only ever small.
+     */
+    private static class MapAdapterFactory implements TypeAdapterFactory {
+        @Override
+        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+            if (!Map.class.isAssignableFrom(type.getRawType())) {
+                return null;
+            }
+
+            TypeAdapter<T> delegate = gson.getDelegateAdapter(this, type);
+            TypeAdapter<JsonElement> trees = gson.getAdapter(JsonElement.class);
+            return new TypeAdapter<T>() {
+                @Override
+                public void write(JsonWriter out, T value) throws IOException {
+                    delegate.write(out, value);
+                }
+
+                @Override
+                public T read(JsonReader in) throws IOException {
+                    return delegate.fromJsonTree(trees.read(in));
+                }
+            };
+        }
+    }
+
+    private static class SectionEntry {
+        final long offset;
+        final long length;
+
+        SectionEntry(long offset, long length) {
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
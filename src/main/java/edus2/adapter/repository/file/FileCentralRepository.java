@@ -1,48 +1,44 @@
 package edus2.adapter.repository.file;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
 import edus2.domain.EDUS2Configuration;
 
+import java.lang.reflect.Type;
 import java.util.Optional;
 
 public abstract class FileCentralRepository extends FileRepository {
-    private Gson gson;
     private EDUS2Configuration configuration;
     private static final String DEFAULT_SAVE_FILE = "EDUS2Data.json";
 
     public FileCentralRepository(EDUS2Configuration configuration) {
         this.configuration = configuration;
-        this.gson = new GsonBuilder().create();
     }
 
-    protected Optional<String> retrieveSection() {
-        Optional<String> fileContentsOptional = readFileContents(getFileLocation());
-        if (!fileContentsOptional.isPresent()) {
-            return Optional.empty();
-        }
+    protected Optional<JsonElement> retrieveSection() {
+        return getDocumentCache().getSection(getSectionName());
+    }
+
+    /**
+     * Retrieves the section decoded into its typed form. The decoded value is cached until the section changes, so
+     * it is shared between calls and must be copied before being modified.
+     */
+    protected <T> Optional<T> retrieveSection(Type type) {
+        return getDocumentCache().getDecodedSection(getSectionName(), type);
+    }
 
-        JsonObject json = gson.fromJson(fileContentsOptional.get(), JsonObject.class);
-        JsonElement section = json.get(getSectionName());
-        if (section == null) {
-            return Optional.empty();
-        }
+    protected void saveSection(JsonElement section) {
+        getDocumentCache().saveSection(getSectionName(), section);
+    }
 
-        return Optional.of(section.getAsString());
+    /**
+     * Changes whenever this repository's section changes, including changes made to the file by someone else.
+     */
+    public long getRevision() {
+        return getDocumentCache().getSectionRevision(getSectionName());
     }
 
-    protected void saveSection(String json) {
-        Optional<String> fileContentsOptional = readFileContents(getFileLocation());
-        JsonObject fileJson;
-        if (fileContentsOptional.isPresent()) {
-            fileJson = gson.fromJson(fileContentsOptional.get(), JsonObject.class);
-        } else {
-            fileJson = new JsonObject();
-        }
-        fileJson.addProperty(getSectionName(), json);
-        saveToFile(gson.toJson(fileJson), getFileLocation());
+    private FileDocumentCache getDocumentCache() {
+        return FileDocumentCache.forFile(getFileLocation());
     }
 
     private String getFileLocation() {
@@ -0,0 +1,364 @@
+package edus2.adapter.repository.file;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps the contents of a central data file resident in memory, shared by every repository that stores a section in
+ * that file. The file is only re-read when its size or modification time changes, and only re-parsed when its content
+ * hash changes as well. Those checks are throttled so that steady state reads touch neither the disk nor the JSON
+ * parser.
+ * <p>
+ * Sections are stored as nested JSON values and read in a single streaming pass that skips every other section.
+ * Files written before that stored each section as an escaped JSON string; such sections are decoded transparently
+ * and rewritten as nested values on the next save.
+ * <p>
+ * The file may instead be stored in the {@link BinarySnapshot} format, which is detected by its header and read
+ * through a memory mapping, decoding each section only when it is first asked for. Saves keep the format the file is
+ * already in. When the {@code edus2j.dataFormat} system property is {@code binary} or {@code json}, an existing file
+ * is converted to that format the first time it is opened, and new files are written in it.
+ */
+public class FileDocumentCache extends FileRepository {
+    private static final Map<String, FileDocumentCache> CACHES = new ConcurrentHashMap<>();
+    private static final long FRESHNESS_CHECK_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+    private static final AtomicLong REVISIONS = new AtomicLong();
+    private static final String FORMAT_PROPERTY = "edus2j.dataFormat";
+    private static final String BINARY_FORMAT = "binary";
+    private static final String JSON_FORMAT = "json";
+
+    private final File file;
+    private final LongSupplier clock;
+    private final Gson gson;
+    private final Map<String, Object> decodedSections;
+    private final Map<String, Long> sectionRevisions;
+    private String contents;
+    private JsonObject document;
+    private BinarySnapshot snapshot;
+    private long fileSize;
+    private long lastModified;
+    private String contentHash;
+    private long lastFreshnessCheck;
+    private boolean loaded;
+
+    private FileDocumentCache(File file, LongSupplier clock) {
+        this.file = file;
+        this.clock = clock;
+        this.gson = new GsonBuilder().create();
+        this.decodedSections = new HashMap<>();
+        this.sectionRevisions = new HashMap<>();
+    }
+
+    public static FileDocumentCache forFile(String fileLocation) {
+        return forFile(fileLocation, System::nanoTime);
+    }
+
+    /**
+     * The clock, in nanoseconds, throttles the freshness checks. It is only used if the file has no cache yet.
+     */
+    static FileDocumentCache forFile(String fileLocation, LongSupplier clock) {
+        String absolutePath = new File(fileLocation).getAbsoluteFile().toPath().normalize().toString();
+        return CACHES.computeIfAbsent(absolutePath, path -> {
+            FileDocumentCache cache = new FileDocumentCache(new File(path), clock);
+            cache.convertToPreferredFormat();
+            return cache;
+        });
+    }
+
+    public synchronized Optional<JsonElement> getSection(String sectionName) {
+        return readSection(sectionName, JsonElement.class);
+    }
+
+    /**
+     * Returns the section decoded into the given type, decoding it at most once per loaded version of the file.
+     * The decoded value is shared between callers, so callers must not modify it.
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> Optional<T> getDecodedSection(String sectionName, Type type) {
+        refreshIfStale();
+        if (decodedSections.containsKey(sectionName)) {
+            return Optional.of((T) decodedSections.get(sectionName));
+        }
+
+        Optional<T> decoded = readSection(sectionName, type);
+        decoded.ifPresent(d -> decodedSections.put(sectionName, d));
+        return decoded;
+    }
+
+    public synchronized void saveSection(String sectionName, JsonElement section) {
+        refreshIfStale();
+        if (snapshot != null || (!file.exists() && isBinaryPreferred())) {
+            saveBinary(sectionName, section);
+        } else {
+            JsonObject updatedDocument = new JsonObject();
+            for (Map.Entry<String, JsonElement> entry : getDocument().entrySet()) {
+                updatedDocument.add(entry.getKey(), entry.getValue());
+            }
+            updatedDocument.add(sectionName, section);
+            saveJson(updatedDocument);
+        }
+        decodedSections.remove(sectionName);
+        sectionRevisions.put(sectionName, REVISIONS.incrementAndGet());
+    }
+
+    /**
+     * Rewrites the file in the binary format. Nothing changes if it is already binary or does not exist yet.
+     */
+    public synchronized void convertToBinary() {
+        refreshIfStale();
+        if (snapshot != null || contents == null) {
+            return;
+        }
+
+        BinarySnapshot.Builder builder = new BinarySnapshot.Builder();
+        getDocument().entrySet().forEach(entry -> builder.addSection(entry.getKey(), entry.getValue()));
+        saveBinary(builder.build());
+    }
+
+    /**
+     * Rewrites the file as JSON. Nothing changes if it is already JSON or does not exist yet.
+     */
+    public synchronized void convertToJson() {
+        refreshIfStale();
+        if (snapshot == null) {
+            return;
+        }
+
+        saveJson(getDocument());
+    }
+
+    /**
+     * Returns a number that changes whenever the section changes, whether through a save or a reload of an externally
+     * modified file. Revisions are unique across all cached files, so switching save files also changes the revision.
+     */
+    public synchronized long getSectionRevision(String sectionName) {
+        refreshIfStale();
+        return sectionRevisions.computeIfAbsent(sectionName, s -> REVISIONS.incrementAndGet());
+    }
+
+    @Override
+    protected boolean isValidContent(String contents) {
+        return isJsonObject(contents);
+    }
+
+    @Override
+    protected boolean isValidContent(byte[] contents) {
+        return BinarySnapshot.hasMagic(contents) ? BinarySnapshot.isValid(contents) : super.isValidContent(contents);
+    }
+
+    static boolean isJsonObject(String contents) {
+        try {
+            return new JsonParser().parse(contents).isJsonObject();
+        } catch (JsonParseException e) {
+            return false;
+        }
+    }
+
+    private <T> Optional<T> readSection(String sectionName, Type type) {
+        refreshIfStale();
+        if (snapshot != null) {
+            return snapshot.readSection(sectionName, type);
+        }
+        if (contents == null) {
+            return Optional.empty();
+        }
+
+        try (JsonReader reader = new JsonReader(new StringReader(contents))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (!reader.nextName().equals(sectionName)) {
+                    reader.skipValue();
+                } else if (reader.peek() == JsonToken.STRING) {
+                    return Optional.ofNullable(gson.fromJson(reader.nextString(), type));
+                } else {
+                    return Optional.ofNullable(gson.fromJson(reader, type));
+                }
+            }
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new JsonParseException("Unable to read section " + sectionName + " of " + file.getPath(), e);
+        }
+    }
+
+    /**
+     * Parses the whole document, which is only needed to write it back. Sections still stored as escaped JSON strings
+     * are converted to nested values along the way.
+     */
+    private JsonObject getDocument() {
+        if (document == null) {
+            document = new JsonObject();
+            if (snapshot != null) {
+                snapshot.readAllSections().forEach(document::add);
+            } else if (contents != null) {
+                JsonObject parsedDocument = gson.fromJson(contents, JsonObject.class);
+                for (Map.Entry<String, JsonElement> entry : parsedDocument.entrySet()) {
+                    document.add(entry.getKey(), migrateSection(entry.getValue()));
+                }
+            }
+        }
+        return document;
+    }
+
+    private JsonElement migrateSection(JsonElement section) {
+        if (section.isJsonPrimitive() && section.getAsJsonPrimitive().isString()) {
+            return gson.fromJson(section.getAsString(), JsonElement.class);
+        }
+        return section;
+    }
+
+    private void saveBinary(String sectionName, JsonElement section) {
+        BinarySnapshot.Builder builder = new BinarySnapshot.Builder();
+        if (snapshot != null) {
+            // Unchanged sections are copied across as they are, without being decoded
+            for (String existingSectionName : snapshot.getSectionNames()) {
+                if (!existingSectionName.equals(sectionName)) {
+                    builder.copySection(snapshot, existingSectionName);
+                }
+            }
+        }
+        builder.addSection(sectionName, section);
+        saveBinary(builder.build());
+    }
+
+    private void saveBinary(byte[] updatedContents) {
+        // The mapping has to be released before the file can be replaced on Windows. Should the save fail, the next
+        // read maps the file again.
+        releaseSnapshot();
+        loaded = false;
+        saveToFile(updatedContents, file.getPath());
+        try {
+            snapshot = BinarySnapshot.map(file);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to read back " + file.getPath() + ". Error: " + e.getMessage(), e);
+        }
+        contents = null;
+        document = null;
+        recordFingerprint(null);
+    }
+
+    private void saveJson(JsonObject updatedDocument) {
+        byte[] updatedContents = gson.toJson(updatedDocument).getBytes(Charset.defaultCharset());
+        releaseSnapshot();
+        loaded = false;
+        saveToFile(updatedContents, file.getPath());
+        contents = toText(updatedContents);
+        document = updatedDocument;
+        recordFingerprint(DigestUtils.sha1Hex(updatedContents));
+    }
+
+    /**
+     * A file that cannot be converted is left in the format it is in; it is still read and saved as before.
+     */
+    private synchronized void convertToPreferredFormat() {
+        String format = System.getProperty(FORMAT_PROPERTY);
+        try {
+            if (BINARY_FORMAT.equals(format)) {
+                convertToBinary();
+            } else if (JSON_FORMAT.equals(format)) {
+                convertToJson();
+            }
+        } catch (RuntimeException e) {
+            System.err.println(String.format("Unable to convert %s to the %s format: %s", file.getPath(), format, e));
+        }
+    }
+
+    private static boolean isBinaryPreferred() {
+        return BINARY_FORMAT.equals(System.getProperty(FORMAT_PROPERTY));
+    }
+
+    private void refreshIfStale() {
+        long now = clock.getAsLong();
+        if (loaded && now - lastFreshnessCheck < FRESHNESS_CHECK_INTERVAL_NANOS) {
+            return;
+        }
+        lastFreshnessCheck = now;
+
+        if (loaded && file.length() == fileSize && file.lastModified() == lastModified) {
+            return;
+        }
+
+        // Binary files are mapped rather than read, so they are not hashed; a changed size or modification time is
+        // enough to reload them. Damaged binary files fall through to the regular read, which recovers them.
+        if (!BinarySnapshot.hasMagic(file) || !reloadSnapshot()) {
+            reloadContents();
+        }
+        fileSize = file.length();
+        lastModified = file.lastModified();
+        loaded = true;
+    }
+
+    private boolean reloadSnapshot() {
+        BinarySnapshot reloadedSnapshot;
+        try {
+            reloadedSnapshot = BinarySnapshot.map(file);
+        } catch (IOException e) {
+            return false;
+        }
+
+        releaseSnapshot();
+        snapshot = reloadedSnapshot;
+        contents = null;
+        contentHash = null;
+        invalidateSections();
+        return true;
+    }
+
+    private void reloadContents() {
+        Optional<byte[]> reloadedContents = readFileBytes(file.getPath());
+        if (reloadedContents.isPresent() && BinarySnapshot.hasMagic(reloadedContents.get()) && reloadSnapshot()) {
+            // Recovered from a binary backup, which is now back in place
+            return;
+        }
+
+        String hash = reloadedContents.map(DigestUtils::sha1Hex).orElse(null);
+        if (!loaded || snapshot != null || !Objects.equals(hash, contentHash)) {
+            releaseSnapshot();
+            contents = reloadedContents.map(this::toText).filter(s -> !s.isEmpty()).orElse(null);
+            invalidateSections();
+        }
+        contentHash = hash;
+    }
+
+    private void invalidateSections() {
+        document = null;
+        decodedSections.clear();
+        // Any section may have changed; rather than parsing the whole file to find out which, treat them all as
+        // changed
+        sectionRevisions.replaceAll((sectionName, revision) -> REVISIONS.incrementAndGet());
+    }
+
+    private void releaseSnapshot() {
+        if (snapshot != null) {
+            snapshot.release();
+            snapshot = null;
+        }
+    }
+
+    private void recordFingerprint(String hash) {
+        fileSize = file.length();
+        lastModified = file.lastModified();
+        contentHash = hash;
+        lastFreshnessCheck = clock.getAsLong();
+        loaded = true;
+    }
+}
@@ -10,65 +10,122 @@ import edus2.domain.property.ReadableObserableProperty;
 import java.io.File;
 import java.nio.file.Paths;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
+/**
+ * Keeps the configuration in memory as an immutable snapshot, so reads never touch the disk. Changes replace the
+ * snapshot and are written behind: every change made within {@link #FLUSH_DELAY_MILLIS} of the first unsaved one is
+ * coalesced into a single write. Pending changes are also written on {@link #flush()} and when the JVM shuts down; a
+ * single shutdown hook flushes every configuration that has unsaved changes at that point.
+ */
 public class FileEDUS2Configuration extends FileRepository implements EDUS2Configuration {
+    private static final long FLUSH_DELAY_MILLIS = 500;
+    private static final ScheduledExecutorService FLUSH_EXECUTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "edus2j-configuration-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final Set<FileEDUS2Configuration> UNSAVED_CONFIGURATIONS = ConcurrentHashMap.newKeySet();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> UNSAVED_CONFIGURATIONS.forEach(FileEDUS2Configuration::flush),
+                "edus2j-configuration-shutdown-flush"));
+    }
 
     private Gson gson;
     private String filePath;
     private ObservableProperty<Boolean> darkModeProperty;
+    private final AtomicReference<EDUS2ConfigurationDto> snapshot;
+    private final AtomicBoolean flushPending;
 
     public FileEDUS2Configuration(String saveFilePath) {
         this.filePath = Paths.get(saveFilePath).toString();
         this.gson = new GsonBuilder().create();
-        saveToFile(gson.toJson(getDto()), filePath);
-        darkModeProperty = new ObservableProperty<>(getDto().darkModeEnabled);
+        this.snapshot = new AtomicReference<>(readDto());
+        this.flushPending = new AtomicBoolean(false);
+        saveToFile(gson.toJson(snapshot.get()), filePath);
+        darkModeProperty = new ObservableProperty<>(snapshot.get().darkModeEnabled);
     }
 
     FileEDUS2Configuration(String fileDirectory, String fileName) {
-        this.filePath = fileDirectory + "\\" + fileName;
-        this.gson = new GsonBuilder().create();
-        saveToFile(gson.toJson(getDto()), filePath);
-        darkModeProperty = new ObservableProperty<>(getDto().darkModeEnabled);
+        this(fileDirectory + "\\" + fileName);
     }
 
     @Override
     public Optional<Integer> getMinimumVideoHeight() {
-        return Optional.ofNullable(getDto().minimumVideoHeight);
+        return Optional.ofNullable(snapshot.get().minimumVideoHeight);
     }
 
     @Override
     public Optional<Integer> getMinimumVideoWidth() {
-        return Optional.ofNullable(getDto().minimumVideoWidth);
+        return Optional.ofNullable(snapshot.get().minimumVideoWidth);
+    }
+
+    @Override
+    public Optional<Integer> getPrefetchMemoryBudget() {
+        return Optional.ofNullable(snapshot.get().prefetchMemoryBudget);
+    }
+
+    @Override
+    public Optional<Integer> getMediaCacheSizeLimit() {
+        return Optional.ofNullable(snapshot.get().mediaCacheSizeLimit);
+    }
+
+    @Override
+    public Optional<Integer> getRepeatReadWindow() {
+        return Optional.ofNullable(snapshot.get().repeatReadWindow);
+    }
+
+    @Override
+    public Optional<String> getScanFileNameAliases() {
+        return Optional.ofNullable(snapshot.get().scanFileNameAliases);
+    }
+
+    @Override
+    public Optional<String> getCachedMediaLocations() {
+        return Optional.ofNullable(snapshot.get().cachedMediaLocations);
     }
 
     @Override
     public Optional<String> getHashedPassword() {
-        return Optional.ofNullable(getDto().hashedPassword);
+        return Optional.ofNullable(snapshot.get().hashedPassword);
     }
 
     @Override
     public Optional<String> getSaveFileLocation() {
-        return Optional.ofNullable(getDto().saveFileLocation);
+        return Optional.ofNullable(snapshot.get().saveFileLocation);
     }
 
     @Override
     public Optional<File> getDefaultScenarioDirectory() {
-        return Optional.ofNullable(getDto().defaultScenarioDirectory).map(File::new);
+        return Optional.ofNullable(snapshot.get().defaultScenarioDirectory).map(File::new);
     }
 
     @Override
     public Optional<File> getDefaultVideoDirectory() {
-        return Optional.ofNullable(getDto().defaultVideoDirectory).map(File::new);
+        return Optional.ofNullable(snapshot.get().defaultVideoDirectory).map(File::new);
     }
 
     @Override
     public SystemIdentifier getSystemIdentifier() {
-        return SystemIdentifier.of(getDto().systemIdentifier);
+        return SystemIdentifier.of(snapshot.get().systemIdentifier);
     }
 
     @Override
     public boolean acceptedPhoneHomeWarning() {
-        return getDto().acceptedPhoneHomeWarning;
+        return snapshot.get().acceptedPhoneHomeWarning;
+    }
+
+    @Override
+    public boolean isScanLoopingEnabled() {
+        return snapshot.get().scanLoopingEnabled;
     }
 
     @Override
@@ -78,71 +135,129 @@ public class FileEDUS2Configuration extends FileRepository implements EDUS2Confi
 
     @Override
     public void setMinimumVideoHeight(int minimumVideoHeight) {
-        EDUS2ConfigurationDto dto = getDto();
-        dto.minimumVideoHeight = minimumVideoHeight;
-        saveToFile(gson.toJson(dto), filePath);
+        update(dto -> dto.minimumVideoHeight = minimumVideoHeight);
     }
 
     @Override
     public void setMinimumVideoWidth(int minimumVideoWidth) {
-        EDUS2ConfigurationDto dto = getDto();
-        dto.minimumVideoWidth = minimumVideoWidth;
-        saveToFile(gson.toJson(dto), filePath);
+        update(dto -> dto.minimumVideoWidth = minimumVideoWidth);
+    }
+
+    @Override
+    public void setPrefetchMemoryBudget(int prefetchMemoryBudget) {
+        update(dto -> dto.prefetchMemoryBudget = prefetchMemoryBudget);
+    }
+
+    @Override
+    public void setMediaCacheSizeLimit(int mediaCacheSizeLimit) {
+        update(dto -> dto.mediaCacheSizeLimit = mediaCacheSizeLimit);
+    }
+
+    @Override
+    public void setRepeatReadWindow(int repeatReadWindow) {
+        update(dto -> dto.repeatReadWindow = repeatReadWindow);
+    }
+
+    @Override
+    public void setScanFileNameAliases(String scanFileNameAliases) {
+        update(dto -> dto.scanFileNameAliases = scanFileNameAliases);
+    }
+
+    @Override
+    public void setCachedMediaLocations(String cachedMediaLocations) {
+        update(dto -> dto.cachedMediaLocations = cachedMediaLocations);
     }
 
     @Override
     public void setHashedPassword(String hashedPassword) {
-        EDUS2ConfigurationDto dto = getDto();
-        dto.hashedPassword = hashedPassword;
-        saveToFile(gson.toJson(dto), filePath);
+        update(dto -> dto.hashedPassword = hashedPassword);
     }
 
     @Override
     public void setSaveFileLocation(String saveFileLocation) {
-        EDUS2ConfigurationDto dto = getDto();
-        dto.saveFileLocation = saveFileLocation;
-        saveToFile(gson.toJson(dto), filePath);
+        update(dto -> dto.saveFileLocation = saveFileLocation);
     }
 
     @Override
     public void setDefaultScenarioDirectory(File defaultScenarioDirectory) {
-        EDUS2ConfigurationDto dto = getDto();
-        dto.defaultScenarioDirectory = defaultScenarioDirectory.getAbsolutePath();
-        saveToFile(gson.toJson(dto), filePath);
+        update(dto -> dto.defaultScenarioDirectory = defaultScenarioDirectory.getAbsolutePath());
     }
 
     @Override
     public void setDefaultVideoDirectory(File defaultVideoDirectory) {
-        EDUS2ConfigurationDto dto = getDto();
-        dto.defaultVideoDirectory = defaultVideoDirectory.getAbsolutePath();
-        saveToFile(gson.toJson(dto), filePath);
+        update(dto -> dto.defaultVideoDirectory = defaultVideoDirectory.getAbsolutePath());
     }
 
     @Override
     public void acceptPhoneHomeWarning() {
-        EDUS2ConfigurationDto dto = getDto();
-        dto.acceptedPhoneHomeWarning = true;
-        saveToFile(gson.toJson(dto), filePath);
+        update(dto -> dto.acceptedPhoneHomeWarning = true);
     }
 
     @Override
     public void setDarkModeEnabled(boolean enabled) {
-        EDUS2ConfigurationDto dto = getDto();
-        dto.darkModeEnabled = enabled;
-        saveToFile(gson.toJson(dto), filePath);
+        update(dto -> dto.darkModeEnabled = enabled);
         darkModeProperty.set(enabled);
     }
 
-    private EDUS2ConfigurationDto getDto() {
+    @Override
+    public void setScanLoopingEnabled(boolean enabled) {
+        update(dto -> dto.scanLoopingEnabled = enabled);
+    }
+
+    /**
+     * Writes any pending changes to disk immediately.
+     */
+    public void flush() {
+        // Removed before the flag is cleared, so a change made in between is still flushed on shutdown
+        UNSAVED_CONFIGURATIONS.remove(this);
+        if (flushPending.getAndSet(false)) {
+            writeSnapshot();
+        }
+    }
+
+    private void update(Consumer<EDUS2ConfigurationDto> change) {
+        snapshot.updateAndGet(current -> {
+            EDUS2ConfigurationDto updated = current.copy();
+            change.accept(updated);
+            return updated;
+        });
+        scheduleFlush();
+    }
+
+    private void scheduleFlush() {
+        if (flushPending.compareAndSet(false, true)) {
+            UNSAVED_CONFIGURATIONS.add(this);
+            FLUSH_EXECUTOR.schedule(this::flush, FLUSH_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private synchronized void writeSnapshot() {
+        saveToFile(gson.toJson(snapshot.get()), filePath);
+    }
+
+    @Override
+    protected boolean isValidContent(String contents) {
+        return FileDocumentCache.isJsonObject(contents);
+    }
+
+    private EDUS2ConfigurationDto readDto() {
         Optional<String> fileContents = readFileContents(filePath);
         return fileContents
                 .map(s -> gson.fromJson(s, EDUS2ConfigurationDto.class))
                 .orElse(new EDUS2ConfigurationDto());
     }
 
+    /**
+     * Snapshots published through {@link #snapshot} are never modified; changes are made to a copy.
+     */
     private static class EDUS2ConfigurationDto {
         Integer minimumVideoHeight;
         Integer minimumVideoWidth;
+        Integer prefetchMemoryBudget;
+        Integer mediaCacheSizeLimit;
+        Integer repeatReadWindow;
+        String scanFileNameAliases;
+        String cachedMediaLocations;
         String hashedPassword;
         String saveFileLocation;
         String defaultScenarioDirectory;
@@ -150,5 +265,26 @@ public class FileEDUS2Configuration extends FileRepository implements EDUS2Confi
         String systemIdentifier = SystemIdentifier.ofRandom().getSystemIdentifier();
         boolean acceptedPhoneHomeWarning;
         boolean darkModeEnabled = true;
+        boolean scanLoopingEnabled;
+
+        EDUS2ConfigurationDto copy() {
+            EDUS2ConfigurationDto copy = new EDUS2ConfigurationDto();
+            copy.minimumVideoHeight = minimumVideoHeight;
+            copy.minimumVideoWidth = minimumVideoWidth;
+            copy.prefetchMemoryBudget = prefetchMemoryBudget;
+            copy.mediaCacheSizeLimit = mediaCacheSizeLimit;
+            copy.repeatReadWindow = repeatReadWindow;
+            copy.scanFileNameAliases = scanFileNameAliases;
+            copy.cachedMediaLocations = cachedMediaLocations;
+            copy.hashedPassword = hashedPassword;
+            copy.saveFileLocation = saveFileLocation;
+            copy.defaultScenarioDirectory = defaultScenarioDirectory;
+            copy.defaultVideoDirectory = defaultVideoDirectory;
+            copy.systemIdentifier = systemIdentifier;
+            copy.acceptedPhoneHomeWarning = acceptedPhoneHomeWarning;
+            copy.darkModeEnabled = darkModeEnabled;
+            copy.scanLoopingEnabled = scanLoopingEnabled;
+            return copy;
+        }
     }
 }
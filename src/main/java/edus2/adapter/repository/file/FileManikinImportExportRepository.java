@@ -2,16 +2,19 @@ package edus2.adapter.repository.file;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
+import com.google.gson.JsonElement;
+import com.google.gson.stream.JsonReader;
 import edus2.application.ManikinFacade;
+import edus2.application.exception.InvalidManikinsException;
 import edus2.domain.Manikin;
 import edus2.domain.ManikinScanEnum;
 
 import javax.inject.Inject;
 import java.io.File;
 import java.io.IOException;
-import java.lang.reflect.Type;
+import java.nio.charset.Charset;
 import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -32,14 +35,31 @@ public class FileManikinImportExportRepository {
         Files.write(outputFile.toPath(), gson.toJson(manikinDtos).getBytes());
     }
 
+    /**
+     * Imports every manikin in the file with a single write, or none of them. The file is read one record at a time,
+     * and every invalid record is reported rather than just the first.
+     */
     public void importManikinsFromFile(File inputFile) throws IOException {
-        byte[] fileContents = Files.readAllBytes(inputFile.toPath());
-        Type type = new TypeToken<List<ManikinDto>>(){}.getType();
-        List<ManikinDto> manikinDtos = gson.fromJson(new String(fileContents), type);
-        List<Manikin> manikins = manikinDtos.stream().map(ManikinDto::toManikin).collect(Collectors.toList());
-        for (Manikin manikin : manikins) {
-            manikinFacade.create(manikin);
+        List<Manikin> manikins = new ArrayList<>();
+        List<String> problems = new ArrayList<>();
+        try (JsonReader reader = new JsonReader(Files.newBufferedReader(inputFile.toPath(), Charset.defaultCharset()))) {
+            reader.beginArray();
+            for (int record = 1; reader.hasNext(); record++) {
+                JsonElement manikinJson = gson.fromJson(reader, JsonElement.class);
+                try {
+                    manikins.add(gson.fromJson(manikinJson, ManikinDto.class).toManikin());
+                } catch (RuntimeException e) {
+                    problems.add(String.format("Record %d: %s", record, e.getMessage()));
+                }
+            }
+            reader.endArray();
+        }
+
+        problems.addAll(manikinFacade.findCreationProblems(manikins));
+        if (!problems.isEmpty()) {
+            throw new InvalidManikinsException(problems);
         }
+        manikinFacade.createAll(manikins);
     }
 
     private static class ManikinDto {
@@ -56,6 +76,10 @@ public class FileManikinImportExportRepository {
 
         Manikin toManikin() {
             Map<ManikinScanEnum, String> tagMap = new HashMap<>();
+            if (this.tagMap == null) {
+                return new Manikin(tagMap, this.name);
+            }
+
             for (Map.Entry<String, String> entry : this.tagMap.entrySet()) {
                 tagMap.put(ManikinScanEnum.findByName(entry.getKey()), entry.getValue());
             }
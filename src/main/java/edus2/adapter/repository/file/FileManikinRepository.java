@@ -10,8 +10,11 @@ import edus2.domain.ManikinRepository;
 
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 public class FileManikinRepository extends FileCentralRepository implements ManikinRepository {
 
@@ -37,9 +40,8 @@ public class FileManikinRepository extends FileCentralRepository implements Mani
 
     @Override
     public List<Manikin> retrieveAll() {
-        Optional<String> json = retrieveSection();
-        //noinspection unchecked
-        return json.map(fc -> (List<Manikin>)gson.fromJson(fc, MANIKIN_SECTION_TYPE)).orElse(new ArrayList<>());
+        Optional<List<Manikin>> manikins = retrieveSection(MANIKIN_SECTION_TYPE);
+        return manikins.map(ArrayList::new).orElse(new ArrayList<>());
     }
 
     @Override
@@ -47,13 +49,27 @@ public class FileManikinRepository extends FileCentralRepository implements Mani
         List<Manikin> manikins = retrieveAll();
         manikins.removeIf(m -> m.getName().equals(manikin.getName()));
         manikins.add(manikin);
-        saveSection(gson.toJson(manikins));
+        saveSection(gson.toJsonTree(manikins));
+    }
+
+    @Override
+    public void saveAll(Collection<Manikin> manikinsToSave) {
+        Set<String> names = manikinsToSave.stream().map(Manikin::getName).collect(Collectors.toSet());
+        List<Manikin> manikins = retrieveAll();
+        manikins.removeIf(m -> names.contains(m.getName()));
+        manikins.addAll(manikinsToSave);
+        saveSection(gson.toJsonTree(manikins));
+    }
+
+    @Override
+    public void replaceAll(Collection<Manikin> manikins) {
+        saveSection(gson.toJsonTree(new ArrayList<>(manikins)));
     }
 
     @Override
     public void remove(String name) {
         List<Manikin> manikins = retrieveAll();
         manikins.removeIf(m -> m.getName().equals(name));
-        saveSection(gson.toJson(manikins));
+        saveSection(gson.toJsonTree(manikins));
     }
 }
@@ -1,40 +1,141 @@
 package edus2.adapter.repository.file;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.*;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Optional;
 
+/**
+ * Files are saved durably: the new contents are written to a temporary file, forced to disk and then renamed over
+ * the original, which is kept as a single backup generation. If the file is found empty or invalid when it is read,
+ * it is restored from the newest valid backup or temporary file.
+ */
 public abstract class FileRepository {
+    static final String BACKUP_SUFFIX = ".bak";
+    static final String TEMPORARY_SUFFIX = ".tmp";
 
     protected Optional<String> readFileContents(String fileName) {
-        File file = new File(fileName);
-        StringBuilder json = new StringBuilder();
+        return readFileBytes(fileName).map(this::toText).filter(s -> !s.isEmpty());
+    }
+
+    protected Optional<byte[]> readFileBytes(String fileName) {
+        Optional<byte[]> contents = readBytes(new File(fileName));
+        if (contents.isPresent() && isValidContent(contents.get())) {
+            return contents;
+        }
+
+        Optional<byte[]> recoveredContents = recoverContents(fileName);
+        if (recoveredContents.isPresent()) {
+            return recoveredContents;
+        }
+        return contents;
+    }
+
+    protected void saveToFile(String content, String fileName) {
+        saveToFile(content.getBytes(Charset.defaultCharset()), fileName);
+    }
+
+    protected void saveToFile(byte[] content, String fileName) {
         try {
-            file.createNewFile();
-            try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-                String currentLine;
-                while ((currentLine = reader.readLine()) != null) {
-                    json.append(currentLine);
-                }
+            Path file = Paths.get(fileName).toAbsolutePath();
+            Path temporaryFile = writeTemporaryFile(content, file);
+            if (Files.exists(file) && Files.size(file) > 0) {
+                Files.move(file, siblingOf(file, BACKUP_SUFFIX), StandardCopyOption.REPLACE_EXISTING);
             }
-        } catch (Exception e) {
-            e.printStackTrace();
+            replace(temporaryFile, file);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to save to " + fileName + ". Error: " + e.getMessage(), e);
         }
+    }
+
+    /**
+     * Returns whether the contents read from a file are complete. Files that fail this check are recovered from a
+     * backup when one is available.
+     */
+    protected boolean isValidContent(String contents) {
+        return true;
+    }
+
+    protected boolean isValidContent(byte[] contents) {
+        return isValidContent(toText(contents));
+    }
 
-        if (json.toString().isEmpty()) {
+    private Optional<byte[]> recoverContents(String fileName) {
+        Path file = Paths.get(fileName).toAbsolutePath();
+        Optional<Path> newestValidGeneration = Arrays.asList(siblingOf(file, TEMPORARY_SUFFIX), siblingOf(file, BACKUP_SUFFIX))
+                .stream()
+                .filter(Files::isRegularFile)
+                .sorted(Comparator.comparingLong((Path p) -> p.toFile().lastModified()).reversed())
+                .filter(p -> readBytes(p.toFile()).filter(this::isValidContent).isPresent())
+                .findFirst();
+        if (!newestValidGeneration.isPresent()) {
             return Optional.empty();
         }
-        return Optional.of(json.toString());
+
+        Optional<byte[]> recoveredContents = readBytes(newestValidGeneration.get().toFile());
+        try {
+            replace(writeTemporaryFile(recoveredContents.get(), file), file);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return recoveredContents;
     }
 
-    protected void saveToFile(String content, String fileName) {
-        File file = new File(fileName);
+    private Optional<byte[]> readBytes(File file) {
+        if (!file.exists()) {
+            return Optional.empty();
+        }
+
         try {
-            file.createNewFile();
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
-                writer.write(content);
+            byte[] contents = Files.readAllBytes(file.toPath());
+            return contents.length == 0 ? Optional.empty() : Optional.of(contents);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return Optional.empty();
+        }
+    }
+
+    protected String toText(byte[] contents) {
+        // Line breaks are dropped, as they always have been when reading text files here
+        return new String(contents, Charset.defaultCharset()).replaceAll("[\r\n]", "");
+    }
+
+    private Path writeTemporaryFile(byte[] content, Path file) throws IOException {
+        Path temporaryFile = siblingOf(file, TEMPORARY_SUFFIX);
+        ByteBuffer bytes = ByteBuffer.wrap(content);
+        try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
             }
+            channel.force(true);
+        }
+        return temporaryFile;
+    }
+
+    private void replace(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        forceDirectory(target.getParent());
+    }
+
+    private void forceDirectory(Path directory) {
+        // Makes the rename itself durable. Directories cannot be opened for writing on every platform (notably
+        // Windows), in which case the rename is left to the file system.
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
         } catch (IOException e) {
-            throw new RuntimeException("Unable to save to " + fileName + ". Error: " + e.getMessage(), e);
+            // Not supported on this platform
         }
     }
+
+    private Path siblingOf(Path file, String suffix) {
+        return file.resolveSibling(file.getFileName() + suffix);
+    }
 }
@@ -2,17 +2,24 @@ package edus2.adapter.repository.file;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
 import com.google.gson.reflect.TypeToken;
 import com.google.inject.Inject;
 import edus2.application.ScanFacade;
 import edus2.domain.ManikinScanEnum;
 import edus2.domain.Scan;
+import edus2.domain.ScanChange;
+import edus2.domain.ScanMetadata;
+import edus2.domain.Scenario;
 
 import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Type;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 public class FileScanImportExportRepository {
@@ -31,24 +38,60 @@ public class FileScanImportExportRepository {
     }
 
     public void importScansFromFile(File inputFile) throws IOException {
+        scanFacade.replaceAllScans(readScansFromFile(inputFile));
+    }
+
+    public List<Scan> readScansFromFile(File inputFile) throws IOException {
+        return readScenarioFromFile(inputFile).getScans();
+    }
+
+    /**
+     * Reads a scenario's scans along with its timeline. A scan may list changes, each giving the number of seconds
+     * after the scenario is loaded at which another video replaces it, for example
+     * {@code {"scanEnum": "RUQ", "path": "...", "changes": [{"afterSeconds": 240, "path": "..."}]}}.
+     */
+    public Scenario readScenarioFromFile(File inputFile) throws IOException {
         byte[] fileContents = Files.readAllBytes(inputFile.toPath());
         Type type = new TypeToken<List<ScanDto>>(){}.getType();
         List<ScanDto> scanDtos = gson.fromJson(new String(fileContents), type);
         List<Scan> scans = scanDtos.stream().map(ScanDto::toScan).collect(Collectors.toList());
-        scanFacade.removeAllScans();
-        scanFacade.addScans(scans);
+        List<ScanChange> timeline = new ArrayList<>();
+        scanDtos.forEach(scanDto -> timeline.addAll(scanDto.toScanChanges()));
+        return new Scenario(scans, timeline);
     }
 
     private static class ScanDto {
         private ManikinScanEnum scanEnum;
         private String path;
+        private ScanMetadata metadata;
+        private List<ScanChangeDto> changes;
         ScanDto(Scan scan) {
             this.scanEnum = scan.getScanEnum();
             this.path = scan.getPath();
+            this.metadata = scan.getMetadata().orElse(null);
         }
 
         Scan toScan() {
-            return new Scan(scanEnum, this.path);
+            return new Scan(scanEnum, this.path, metadata);
+        }
+
+        List<ScanChange> toScanChanges() {
+            if (changes == null) {
+                return Collections.emptyList();
+            }
+            return changes.stream().map(change -> change.toScanChange(scanEnum)).collect(Collectors.toList());
+        }
+    }
+
+    private static class ScanChangeDto {
+        private long afterSeconds;
+        private String path;
+
+        ScanChange toScanChange(ManikinScanEnum scanEnum) {
+            if (afterSeconds < 0 || path == null) {
+                throw new JsonParseException(String.format("Changes to %s need a path and a time that is not negative", scanEnum));
+            }
+            return new ScanChange(TimeUnit.SECONDS.toMillis(afterSeconds), new Scan(scanEnum, path));
         }
     }
 }
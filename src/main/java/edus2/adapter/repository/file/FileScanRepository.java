@@ -10,6 +10,7 @@ import edus2.domain.ScanRepository;
 import javax.inject.Inject;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,13 +33,8 @@ public class FileScanRepository extends FileCentralRepository implements ScanRep
     @Override
     public List<Scan> retrieveAll() {
         List<Scan> scans = new ArrayList<>();
-        Optional<String> jsonOptional = retrieveSection();
-        if (!jsonOptional.isPresent()) {
-            return scans;
-        }
-
-        List<Scan> retrievedScans = gson.fromJson(jsonOptional.get(), SCAN_SECTION_TYPE);
-        scans.addAll(retrievedScans);
+        Optional<List<Scan>> retrievedScans = retrieveSection(SCAN_SECTION_TYPE);
+        retrievedScans.ifPresent(scans::addAll);
         return scans;
     }
 
@@ -46,22 +42,31 @@ public class FileScanRepository extends FileCentralRepository implements ScanRep
     public void save(Scan scan) {
         List<Scan> allScans = retrieveAll();
         allScans.add(scan);
-        String jsonScanString = gson.toJson(allScans);
-        saveSection(jsonScanString);
+        saveSection(gson.toJsonTree(allScans));
+    }
+
+    @Override
+    public void saveAll(Collection<Scan> scans) {
+        List<Scan> allScans = retrieveAll();
+        allScans.addAll(scans);
+        saveSection(gson.toJsonTree(allScans));
+    }
+
+    @Override
+    public void replaceAll(Collection<Scan> scans) {
+        saveSection(gson.toJsonTree(new ArrayList<>(scans)));
     }
 
     @Override
     public void remove(Scan scan) {
         List<Scan> allScans = retrieveAll();
         allScans.remove(scan);
-        String jsonScanString = gson.toJson(allScans);
-        saveSection(jsonScanString);
+        saveSection(gson.toJsonTree(allScans));
     }
 
     @Override
     public void removeAll() {
         List<Scan> noScans = new ArrayList<>();
-        String jsonScanString = gson.toJson(noScans);
-        saveSection(jsonScanString);
+        saveSection(gson.toJsonTree(noScans));
     }
 }
@@ -0,0 +1,182 @@
+package edus2.adapter.repository.file;
+
+import com.google.gson.JsonParseException;
+import com.google.inject.Inject;
+import edus2.application.ScanFacade;
+import edus2.domain.EDUS2Configuration;
+import edus2.domain.Scan;
+import edus2.domain.Scenario;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps the scenarios in the default scenario directory ready to switch to. The directory is indexed on a background
+ * thread, and the scans of the most recently used scenarios stay in memory, so switching scenario is a single write of
+ * scans that were read ahead of time. A scenario is read again whenever its file has changed.
+ */
+public class ScenarioLibrary {
+    private static final int RESIDENT_SCENARIO_LIMIT = 8;
+    private static final String SCENARIO_EXTENSION = ".scn";
+
+    private final EDUS2Configuration configuration;
+    private final FileScanImportExportRepository importExportRepository;
+    private final ScanFacade scanFacade;
+    private final ExecutorService indexingThread;
+    private final Map<File, ResidentScenario> residentScenarios;
+    private volatile List<File> scenarioFiles;
+
+    @Inject
+    public ScenarioLibrary(EDUS2Configuration configuration, FileScanImportExportRepository importExportRepository, ScanFacade scanFacade) {
+        this.configuration = configuration;
+        this.importExportRepository = importExportRepository;
+        this.scanFacade = scanFacade;
+        this.indexingThread = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "edus2j-scenario-library");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        this.residentScenarios = new LinkedHashMap<File, ResidentScenario>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<File, ResidentScenario> eldest) {
+                return size() > RESIDENT_SCENARIO_LIMIT;
+            }
+        };
+        this.scenarioFiles = Collections.emptyList();
+    }
+
+    /**
+     * Indexes the scenario directory in the background, reading the first scenarios found into memory while there is
+     * room for them.
+     */
+    public CompletableFuture<List<File>> refresh() {
+        return CompletableFuture.supplyAsync(this::index, indexingThread);
+    }
+
+    /**
+     * Returns the scenario files found by the last refresh, sorted by name.
+     */
+    public List<File> getScenarioFiles() {
+        return scenarioFiles;
+    }
+
+    /**
+     * Returns the scans of the given scenario, only reading its file when it is not in memory or has changed since it
+     * was read. The returned list cannot be modified.
+     */
+    public List<Scan> getScans(File scenarioFile) throws IOException {
+        return getScenario(scenarioFile).getScans();
+    }
+
+    /**
+     * Gets the scans of the given scenario on the library's background thread, for callers that must not wait on the
+     * file being read. The future fails if the scenario cannot be read.
+     */
+    public CompletableFuture<List<Scan>> readAhead(File scenarioFile) {
+        CompletableFuture<List<Scan>> scans = new CompletableFuture<>();
+        indexingThread.execute(() -> {
+            try {
+                scans.complete(getScans(scenarioFile));
+            } catch (IOException | RuntimeException e) {
+                scans.completeExceptionally(e);
+            }
+        });
+        return scans;
+    }
+
+    /**
+     * Returns the given scenario, only reading its file when it is not in memory or has changed since it was read.
+     */
+    public Scenario getScenario(File scenarioFile) throws IOException {
+        synchronized (residentScenarios) {
+            ResidentScenario resident = residentScenarios.get(scenarioFile);
+            if (resident != null && resident.isCurrent(scenarioFile)) {
+                return resident.getScenario();
+            }
+        }
+
+        ResidentScenario scenario = read(scenarioFile);
+        synchronized (residentScenarios) {
+            residentScenarios.put(scenarioFile, scenario);
+        }
+        return scenario.getScenario();
+    }
+
+    /**
+     * Makes the given scenario's scans the active scans with a single write, and returns the scenario.
+     */
+    public Scenario activate(File scenarioFile) throws IOException {
+        Scenario scenario = getScenario(scenarioFile);
+        scanFacade.replaceAllScans(scenario.getScans());
+        return scenario;
+    }
+
+    private List<File> index() {
+        File[] files = configuration.getDefaultScenarioDirectory()
+                .map(directory -> directory.listFiles((dir, name) -> name.toLowerCase(Locale.ROOT).endsWith(SCENARIO_EXTENSION)))
+                .orElse(null);
+        List<File> indexedFiles = files == null ? new ArrayList<>() : new ArrayList<>(Arrays.asList(files));
+        indexedFiles.sort(Comparator.comparing(File::getName, String.CASE_INSENSITIVE_ORDER));
+        scenarioFiles = Collections.unmodifiableList(indexedFiles);
+
+        for (File file : indexedFiles.subList(0, Math.min(RESIDENT_SCENARIO_LIMIT, indexedFiles.size()))) {
+            try {
+                preload(file);
+            } catch (IOException | JsonParseException e) {
+                System.err.println(String.format("Unable to read scenario %s: %s", file, e));
+            }
+        }
+        return scenarioFiles;
+    }
+
+    /**
+     * Reads a scenario into memory only if it is not there already and there is room for it, so that reading ahead
+     * neither evicts nor counts as a use of the scenarios that have actually been used.
+     */
+    private void preload(File scenarioFile) throws IOException {
+        synchronized (residentScenarios) {
+            if (residentScenarios.containsKey(scenarioFile) || residentScenarios.size() >= RESIDENT_SCENARIO_LIMIT) {
+                return;
+            }
+        }
+
+        ResidentScenario scenario = read(scenarioFile);
+        synchronized (residentScenarios) {
+            if (!residentScenarios.containsKey(scenarioFile) && residentScenarios.size() < RESIDENT_SCENARIO_LIMIT) {
+                residentScenarios.put(scenarioFile, scenario);
+            }
+        }
+    }
+
+    private ResidentScenario read(File scenarioFile) throws IOException {
+        // The file is looked at before it is read, so a change made while reading it is picked up next time
+        long fileSize = scenarioFile.length();
+        long lastModified = scenarioFile.lastModified();
+        return new ResidentScenario(importExportRepository.readScenarioFromFile(scenarioFile), fileSize, lastModified);
+    }
+
+    private static class ResidentScenario {
+        private final Scenario scenario;
+        private final long fileSize;
+        private final long lastModified;
+
+        ResidentScenario(Scenario scenario, long fileSize, long lastModified) {
+            this.scenario = scenario;
+            this.fileSize = fileSize;
+            this.lastModified = lastModified;
+        }
+
+        boolean isCurrent(File file) {
+            return file.length() == fileSize && file.lastModified() == lastModified;
+        }
+
+        Scenario getScenario() {
+            return scenario;
+        }
+    }
+}
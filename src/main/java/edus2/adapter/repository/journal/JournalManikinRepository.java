@@ -0,0 +1,76 @@
+package edus2.adapter.repository.journal;
+
+import edus2.adapter.repository.file.FileManikinRepository;
+import edus2.domain.EDUS2Configuration;
+import edus2.domain.Manikin;
+import edus2.domain.ManikinRepository;
+
+import javax.inject.Inject;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+
+public class JournalManikinRepository extends JournalRepository<Manikin> implements ManikinRepository {
+    private static final String MANIKIN_SECTION_NAME = "mannequins";
+
+    @Inject
+    public JournalManikinRepository(EDUS2Configuration configuration, ScheduledExecutorService executor) {
+        super(configuration, executor);
+    }
+
+    @Override
+    public Optional<Manikin> retrieve(String name) {
+        return getStore().retrieve(name);
+    }
+
+    @Override
+    public List<Manikin> retrieveAll() {
+        return getStore().retrieveAll();
+    }
+
+    @Override
+    public void save(Manikin manikin) {
+        getStore().put(manikin);
+    }
+
+    @Override
+    public void saveAll(Collection<Manikin> manikins) {
+        getStore().putAll(manikins);
+    }
+
+    @Override
+    public void replaceAll(Collection<Manikin> manikins) {
+        getStore().replaceAll(manikins);
+    }
+
+    @Override
+    public void remove(String name) {
+        getStore().remove(name);
+    }
+
+    @Override
+    public long getRevision() {
+        return getStore().getRevision();
+    }
+
+    @Override
+    protected String getSectionName() {
+        return MANIKIN_SECTION_NAME;
+    }
+
+    @Override
+    protected Class<Manikin> getValueType() {
+        return Manikin.class;
+    }
+
+    @Override
+    protected String getKey(Manikin manikin) {
+        return manikin.getName();
+    }
+
+    @Override
+    protected List<Manikin> retrieveInitialValues() {
+        return new FileManikinRepository(getConfiguration()).retrieveAll();
+    }
+}
@@ -0,0 +1,52 @@
+package edus2.adapter.repository.journal;
+
+import edus2.domain.EDUS2Configuration;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Base for repositories that keep one kind of value in a {@link JournalStore} next to the configured save file.
+ * Stores are shared between repositories using the same files, and follow the save file when it is changed.
+ */
+public abstract class JournalRepository<T> {
+    private static final String DEFAULT_SAVE_FILE = "EDUS2Data.json";
+    private static final long COMPACTION_THRESHOLD_BYTES = 256 * 1024;
+    private static final Map<Path, JournalStore<?>> STORES = new ConcurrentHashMap<>();
+
+    private final EDUS2Configuration configuration;
+    private final ScheduledExecutorService executor;
+
+    protected JournalRepository(EDUS2Configuration configuration, ScheduledExecutorService executor) {
+        this.configuration = configuration;
+        this.executor = executor;
+    }
+
+    @SuppressWarnings("unchecked")
+    protected JournalStore<T> getStore() {
+        String saveFileLocation = configuration.getSaveFileLocation().orElse(DEFAULT_SAVE_FILE);
+        Path journalFile = Paths.get(saveFileLocation + "." + getSectionName() + ".journal").toAbsolutePath().normalize();
+        Path snapshotFile = Paths.get(saveFileLocation + "." + getSectionName() + ".snapshot").toAbsolutePath().normalize();
+        return (JournalStore<T>) STORES.computeIfAbsent(journalFile, path -> new JournalStore<>(snapshotFile, journalFile,
+                getValueType(), this::getKey, executor, COMPACTION_THRESHOLD_BYTES, this::retrieveInitialValues));
+    }
+
+    protected abstract String getSectionName();
+
+    protected abstract Class<T> getValueType();
+
+    protected abstract String getKey(T value);
+
+    /**
+     * Values to start from when no journal exists yet for the save file, such as those already stored in it.
+     */
+    protected abstract List<T> retrieveInitialValues();
+
+    EDUS2Configuration getConfiguration() {
+        return configuration;
+    }
+}
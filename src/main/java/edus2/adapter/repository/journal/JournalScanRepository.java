@@ -0,0 +1,78 @@
+package edus2.adapter.repository.journal;
+
+import edus2.adapter.repository.file.FileScanRepository;
+import edus2.domain.EDUS2Configuration;
+import edus2.domain.Scan;
+import edus2.domain.ScanRepository;
+
+import javax.inject.Inject;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Scans are keyed by location and path, so saving the same scan twice stores it once.
+ */
+public class JournalScanRepository extends JournalRepository<Scan> implements ScanRepository {
+    private static final String SCAN_SECTION_NAME = "scans";
+
+    @Inject
+    public JournalScanRepository(EDUS2Configuration configuration, ScheduledExecutorService executor) {
+        super(configuration, executor);
+    }
+
+    @Override
+    public List<Scan> retrieveAll() {
+        return getStore().retrieveAll();
+    }
+
+    @Override
+    public void save(Scan scan) {
+        getStore().put(scan);
+    }
+
+    @Override
+    public void saveAll(Collection<Scan> scans) {
+        getStore().putAll(scans);
+    }
+
+    @Override
+    public void replaceAll(Collection<Scan> scans) {
+        getStore().replaceAll(scans);
+    }
+
+    @Override
+    public void remove(Scan scan) {
+        getStore().remove(getKey(scan));
+    }
+
+    @Override
+    public void removeAll() {
+        getStore().removeAll();
+    }
+
+    @Override
+    public long getRevision() {
+        return getStore().getRevision();
+    }
+
+    @Override
+    protected String getSectionName() {
+        return SCAN_SECTION_NAME;
+    }
+
+    @Override
+    protected Class<Scan> getValueType() {
+        return Scan.class;
+    }
+
+    @Override
+    protected String getKey(Scan scan) {
+        return scan.getScanEnum() + "|" + scan.getPath();
+    }
+
+    @Override
+    protected List<Scan> retrieveInitialValues() {
+        return new FileScanRepository(getConfiguration()).retrieveAll();
+    }
+}
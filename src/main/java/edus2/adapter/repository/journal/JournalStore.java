@@ -0,0 +1,348 @@
+package edus2.adapter.repository.journal;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.reflect.TypeToken;
+import edus2.adapter.repository.file.FileRepository;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Stores keyed values as a snapshot plus an append-only journal of the changes made since. A change costs one
+ * appended line regardless of how many values are stored. The journal is replayed on top of the snapshot when the
+ * store is opened, and folded back into the snapshot in the background once it grows past a threshold.
+ * <p>
+ * Compaction only holds the store's lock to copy the values and to start a fresh journal, setting the old one aside
+ * as {@code <journal>.1}; the snapshot is written without it, and the old journal is deleted once the snapshot is in
+ * place. When the store is opened, the old journal is replayed ahead of the current one if it is still there.
+ * Replaying a journal on top of a snapshot that already contains its changes gives the same values, so a crash
+ * between writing the snapshot and deleting the old journal loses nothing.
+ */
+public class JournalStore<T> extends FileRepository {
+    private static final AtomicLong REVISIONS = new AtomicLong();
+
+    private final Path snapshotFile;
+    private final Path journalFile;
+    private final Path rotatedJournalFile;
+    private final Type valueType;
+    private final Function<T, String> keyOf;
+    private final ExecutorService compactionExecutor;
+    private final long compactionThresholdBytes;
+    private final Gson gson;
+    private final Map<String, T> values;
+    private final Object compactionLock = new Object();
+    private long journalSize;
+    private boolean compactionScheduled;
+    private long revision;
+
+    public JournalStore(Path snapshotFile, Path journalFile, Class<T> valueType, Function<T, String> keyOf,
+                        ExecutorService compactionExecutor, long compactionThresholdBytes,
+                        Supplier<Collection<T>> initialValues) {
+        this.snapshotFile = snapshotFile;
+        this.journalFile = journalFile;
+        this.rotatedJournalFile = journalFile.resolveSibling(journalFile.getFileName() + ".1");
+        this.valueType = valueType;
+        this.keyOf = keyOf;
+        this.compactionExecutor = compactionExecutor;
+        this.compactionThresholdBytes = compactionThresholdBytes;
+        this.gson = new GsonBuilder().create();
+        this.values = new LinkedHashMap<>();
+        open(initialValues);
+    }
+
+    public synchronized List<T> retrieveAll() {
+        return new ArrayList<>(values.values());
+    }
+
+    public synchronized Optional<T> retrieve(String key) {
+        return Optional.ofNullable(values.get(key));
+    }
+
+    public synchronized void put(T value) {
+        String key = keyOf.apply(value);
+        append(new JournalRecord(Operation.PUT, key, gson.toJsonTree(value, valueType)));
+        values.put(key, value);
+        revision = REVISIONS.incrementAndGet();
+    }
+
+    /**
+     * Stores all of the given values as a single journal record, so either all of them or none survive a crash.
+     */
+    public synchronized void putAll(Collection<T> newValues) {
+        append(new JournalRecord(Operation.PUT_ALL, null, gson.toJsonTree(new ArrayList<>(newValues), getSnapshotType())));
+        newValues.forEach(v -> values.put(keyOf.apply(v), v));
+        revision = REVISIONS.incrementAndGet();
+    }
+
+    /**
+     * Replaces every stored value with the given values as a single journal record.
+     */
+    public synchronized void replaceAll(Collection<T> newValues) {
+        append(new JournalRecord(Operation.REPLACE_ALL, null, gson.toJsonTree(new ArrayList<>(newValues), getSnapshotType())));
+        values.clear();
+        newValues.forEach(v -> values.put(keyOf.apply(v), v));
+        revision = REVISIONS.incrementAndGet();
+    }
+
+    public synchronized void remove(String key) {
+        append(new JournalRecord(Operation.REMOVE, key, null));
+        values.remove(key);
+        revision = REVISIONS.incrementAndGet();
+    }
+
+    public synchronized void removeAll() {
+        append(new JournalRecord(Operation.CLEAR, null, null));
+        values.clear();
+        revision = REVISIONS.incrementAndGet();
+    }
+
+    /**
+     * Changes whenever the stored values change. Revisions are unique across stores, so switching to another store
+     * also changes the revision.
+     */
+    public synchronized long getRevision() {
+        return revision;
+    }
+
+    /**
+     * Writes the current values as the new snapshot and empties the journal. The store is only locked while the
+     * values are copied and the journal is set aside, so reads and writes carry on while the snapshot is written.
+     */
+    public void compact() {
+        synchronized (compactionLock) {
+            List<T> snapshot;
+            synchronized (this) {
+                compactionScheduled = false;
+                snapshot = retrieveAll();
+                rotateJournal();
+            }
+
+            saveToFile(gson.toJson(snapshot, getSnapshotType()), snapshotFile.toString());
+            synchronized (this) {
+                try {
+                    Files.deleteIfExists(rotatedJournalFile);
+                } catch (IOException e) {
+                    throw new RuntimeException("Unable to compact " + rotatedJournalFile + ". Error: " + e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    @Override
+    protected boolean isValidContent(String contents) {
+        try {
+            return new JsonParser().parse(contents).isJsonArray();
+        } catch (JsonParseException e) {
+            return false;
+        }
+    }
+
+    private void open(Supplier<Collection<T>> initialValues) {
+        if (!Files.exists(snapshotFile) && !Files.exists(journalFile)) {
+            for (T value : initialValues.get()) {
+                values.put(keyOf.apply(value), value);
+            }
+            compact();
+        } else {
+            readSnapshot();
+            boolean compactionInterrupted = Files.exists(rotatedJournalFile);
+            replayJournal(rotatedJournalFile);
+            journalSize = replayJournal(journalFile);
+            if (compactionInterrupted) {
+                compact();
+            }
+        }
+        revision = REVISIONS.incrementAndGet();
+    }
+
+    private void readSnapshot() {
+        Optional<String> contents = readFileContents(snapshotFile.toString());
+        if (contents.isPresent()) {
+            List<T> snapshot = gson.fromJson(contents.get(), getSnapshotType());
+            for (T value : snapshot) {
+                values.put(keyOf.apply(value), value);
+            }
+        }
+    }
+
+    /**
+     * Applies every complete record in the journal and returns their length. A record cut short by a crash is
+     * dropped, along with anything after it, so that new records are never appended behind a damaged one.
+     */
+    private long replayJournal(Path journalFile) {
+        if (!Files.exists(journalFile)) {
+            return 0;
+        }
+
+        byte[] journal;
+        try {
+            journal = Files.readAllBytes(journalFile);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to read " + journalFile + ". Error: " + e.getMessage(), e);
+        }
+
+        int validLength = 0;
+        for (int end = 0; end < journal.length; end++) {
+            if (journal[end] != '\n') {
+                continue;
+            }
+
+            String line = new String(journal, validLength, end - validLength, StandardCharsets.UTF_8);
+            Optional<JournalRecord> record = parseRecord(line);
+            if (!record.isPresent()) {
+                break;
+            }
+            apply(record.get());
+            validLength = end + 1;
+        }
+
+        if (validLength < journal.length) {
+            truncateJournal(journalFile, validLength);
+        }
+        return validLength;
+    }
+
+    private Optional<JournalRecord> parseRecord(String line) {
+        try {
+            JournalRecord record = gson.fromJson(line, JournalRecord.class);
+            if (record == null || record.operation == null) {
+                return Optional.empty();
+            }
+            return Optional.of(record);
+        } catch (JsonParseException e) {
+            return Optional.empty();
+        }
+    }
+
+    private void apply(JournalRecord record) {
+        switch (record.operation) {
+            case PUT:
+                values.put(record.key, gson.fromJson(record.value, valueType));
+                break;
+            case REMOVE:
+                values.remove(record.key);
+                break;
+            case CLEAR:
+                values.clear();
+                break;
+            case REPLACE_ALL:
+                values.clear();
+                putDecodedValues(record.value);
+                break;
+            case PUT_ALL:
+                putDecodedValues(record.value);
+                break;
+        }
+    }
+
+    private void putDecodedValues(JsonElement encodedValues) {
+        List<T> decodedValues = gson.fromJson(encodedValues, getSnapshotType());
+        for (T value : decodedValues) {
+            values.put(keyOf.apply(value), value);
+        }
+    }
+
+    private void append(JournalRecord record) {
+        ByteBuffer line = ByteBuffer.wrap((gson.toJson(record) + "\n").getBytes(StandardCharsets.UTF_8));
+        int length = line.remaining();
+        try (FileChannel channel = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (line.hasRemaining()) {
+                channel.write(line);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to save to " + journalFile + ". Error: " + e.getMessage(), e);
+        }
+        journalSize += length;
+        scheduleCompactionIfNeeded();
+    }
+
+    private void scheduleCompactionIfNeeded() {
+        if (journalSize < compactionThresholdBytes || compactionScheduled) {
+            return;
+        }
+
+        compactionScheduled = true;
+        try {
+            compactionExecutor.execute(this::compact);
+        } catch (RejectedExecutionException e) {
+            // The application is shutting down; the journal is replayed on the next start instead
+            compactionScheduled = false;
+        }
+    }
+
+    /**
+     * Sets the journal aside for the compaction in progress and starts an empty one. A journal left behind by a
+     * compaction that failed has this one added to it, since its changes are not in the snapshot yet.
+     */
+    private void rotateJournal() {
+        try {
+            if (Files.exists(rotatedJournalFile) && Files.exists(journalFile)) {
+                try (FileChannel rotated = FileChannel.open(rotatedJournalFile, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                    ByteBuffer journal = ByteBuffer.wrap(Files.readAllBytes(journalFile));
+                    while (journal.hasRemaining()) {
+                        rotated.write(journal);
+                    }
+                    rotated.force(true);
+                }
+                Files.delete(journalFile);
+            } else if (Files.exists(journalFile)) {
+                Files.move(journalFile, rotatedJournalFile, StandardCopyOption.ATOMIC_MOVE);
+            }
+            Files.createFile(journalFile);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to compact " + journalFile + ". Error: " + e.getMessage(), e);
+        }
+        journalSize = 0;
+    }
+
+    private void truncateJournal(Path journalFile, long length) {
+        try (FileChannel channel = FileChannel.open(journalFile, StandardOpenOption.WRITE)) {
+            channel.truncate(length);
+            channel.force(true);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to repair " + journalFile + ". Error: " + e.getMessage(), e);
+        }
+    }
+
+    private Type getSnapshotType() {
+        return TypeToken.getParameterized(List.class, valueType).getType();
+    }
+
+    private enum Operation {
+        PUT,
+        REMOVE,
+        CLEAR,
+        PUT_ALL,
+        REPLACE_ALL
+    }
+
+    private static class JournalRecord {
+        Operation operation;
+        String key;
+        JsonElement value;
+
+        JournalRecord(Operation operation, String key, JsonElement value) {
+            this.operation = operation;
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
@@ -11,12 +11,18 @@ import java.util.Optional;
 public class InMemoryEDUS2Configuration implements EDUS2Configuration {
     private Integer minimumVideoHeight;
     private Integer minimumVideoWidth;
+    private Integer prefetchMemoryBudget;
+    private Integer mediaCacheSizeLimit;
+    private Integer repeatReadWindow;
+    private String scanFileNameAliases;
+    private String cachedMediaLocations;
     private String hashedPassword;
     private String saveFileLocation;
     private String defaultScenarioDirectory;
     private String defaultVideoDirectory;
     private SystemIdentifier systemIdentifier;
     private boolean acceptedPhoneHomeWarning;
+    private boolean scanLoopingEnabled;
     private ObservableProperty<Boolean> darkModeEnabledProperty;
 
     public InMemoryEDUS2Configuration() {
@@ -35,6 +41,31 @@ public class InMemoryEDUS2Configuration implements EDUS2Configuration {
         return Optional.ofNullable(minimumVideoWidth);
     }
 
+    @Override
+    public Optional<Integer> getPrefetchMemoryBudget() {
+        return Optional.ofNullable(prefetchMemoryBudget);
+    }
+
+    @Override
+    public Optional<Integer> getMediaCacheSizeLimit() {
+        return Optional.ofNullable(mediaCacheSizeLimit);
+    }
+
+    @Override
+    public Optional<Integer> getRepeatReadWindow() {
+        return Optional.ofNullable(repeatReadWindow);
+    }
+
+    @Override
+    public Optional<String> getScanFileNameAliases() {
+        return Optional.ofNullable(scanFileNameAliases);
+    }
+
+    @Override
+    public Optional<String> getCachedMediaLocations() {
+        return Optional.ofNullable(cachedMediaLocations);
+    }
+
     @Override
     public Optional<String> getHashedPassword() {
         return Optional.ofNullable(hashedPassword);
@@ -71,6 +102,11 @@ public class InMemoryEDUS2Configuration implements EDUS2Configuration {
         return acceptedPhoneHomeWarning;
     }
 
+    @Override
+    public boolean isScanLoopingEnabled() {
+        return scanLoopingEnabled;
+    }
+
     @Override
     public ReadableObserableProperty<Boolean> darkModeEnabledProperty() {
         return darkModeEnabledProperty;
@@ -86,6 +122,31 @@ public class InMemoryEDUS2Configuration implements EDUS2Configuration {
         this.minimumVideoWidth = minimumVideoWidth;
     }
 
+    @Override
+    public void setPrefetchMemoryBudget(int prefetchMemoryBudget) {
+        this.prefetchMemoryBudget = prefetchMemoryBudget;
+    }
+
+    @Override
+    public void setMediaCacheSizeLimit(int mediaCacheSizeLimit) {
+        this.mediaCacheSizeLimit = mediaCacheSizeLimit;
+    }
+
+    @Override
+    public void setRepeatReadWindow(int repeatReadWindow) {
+        this.repeatReadWindow = repeatReadWindow;
+    }
+
+    @Override
+    public void setScanFileNameAliases(String scanFileNameAliases) {
+        this.scanFileNameAliases = scanFileNameAliases;
+    }
+
+    @Override
+    public void setCachedMediaLocations(String cachedMediaLocations) {
+        this.cachedMediaLocations = cachedMediaLocations;
+    }
+
     @Override
     public void setHashedPassword(String hashedPassword) {
         this.hashedPassword = hashedPassword;
@@ -115,4 +176,9 @@ public class InMemoryEDUS2Configuration implements EDUS2Configuration {
     public void setDarkModeEnabled(boolean enabled) {
         darkModeEnabledProperty.set(enabled);
     }
+
+    @Override
+    public void setScanLoopingEnabled(boolean enabled) {
+        this.scanLoopingEnabled = enabled;
+    }
 }
@@ -8,9 +8,11 @@ import java.util.*;
 public class InMemoryManikinRepository implements ManikinRepository {
 
     private Map<String, Manikin> manikinMap;
+    private long revision;
 
     public InMemoryManikinRepository() {
         manikinMap = new HashMap<>();
+        revision = 0;
     }
     @Override
     public Optional<Manikin> retrieve(String name) {
@@ -25,10 +27,29 @@ public class InMemoryManikinRepository implements ManikinRepository {
     @Override
     public void save(Manikin manikin) {
         manikinMap.put(manikin.getName(), manikin);
+        revision++;
+    }
+
+    @Override
+    public void saveAll(Collection<Manikin> manikins) {
+        manikins.forEach(m -> manikinMap.put(m.getName(), m));
+        revision++;
+    }
+
+    @Override
+    public void replaceAll(Collection<Manikin> manikins) {
+        manikinMap.clear();
+        saveAll(manikins);
     }
 
     @Override
     public void remove(String name) {
         manikinMap.remove(name);
+        revision++;
+    }
+
+    @Override
+    public long getRevision() {
+        return revision;
     }
 }
@@ -5,15 +5,18 @@ import edus2.domain.ScanRepository;
 
 import javax.inject.Inject;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 public class InMemoryScanRepository implements ScanRepository {
 
     private List<Scan> scans;
+    private long revision;
 
     @Inject
     public InMemoryScanRepository() {
         this.scans = new ArrayList<>();
+        this.revision = 0;
     }
 
     @Override
@@ -24,15 +27,35 @@ public class InMemoryScanRepository implements ScanRepository {
     @Override
     public void save(Scan scan) {
         scans.add(scan);
+        revision++;
+    }
+
+    @Override
+    public void saveAll(Collection<Scan> scans) {
+        this.scans.addAll(scans);
+        revision++;
+    }
+
+    @Override
+    public void replaceAll(Collection<Scan> scans) {
+        this.scans = new ArrayList<>(scans);
+        revision++;
     }
 
     @Override
     public void remove(Scan scan) {
         scans.remove(scan);
+        revision++;
     }
 
     @Override
     public void removeAll() {
         scans.clear();
+        revision++;
+    }
+
+    @Override
+    public long getRevision() {
+        return revision;
     }
 }
@@ -6,6 +6,7 @@ import edus2.adapter.ui.PasswordInputDialog;
 import edus2.adapter.ui.builder.FormBuilder;
 import edus2.adapter.ui.builder.SceneBuilder;
 import edus2.application.AuthenticationFacade;
+import edus2.application.ScanFileNameMatcher;
 import edus2.domain.EDUS2Configuration;
 import javafx.scene.Parent;
 import javafx.scene.control.*;
@@ -25,6 +26,11 @@ public class ConfigurationWindowContents extends StageBuilder {
     private final EDUS2IconStage stage;
     private final TextField minVideoWidth;
     private final TextField minVideoHeight;
+    private final TextField prefetchMemoryBudget;
+    private final TextField mediaCacheSizeLimit;
+    private final TextField repeatReadWindow;
+    private final TextField scanFileNameAliases;
+    private final TextField cachedMediaLocations;
 
     @Inject
     public ConfigurationWindowContents(SceneBuilder sceneBuilder, EDUS2Configuration configuration, AuthenticationFacade authenticationFacade, EDUS2IconStage stage) {
@@ -34,6 +40,11 @@ public class ConfigurationWindowContents extends StageBuilder {
         this.stage = stage;
         minVideoWidth = new TextField();
         minVideoHeight = new TextField();
+        prefetchMemoryBudget = new TextField();
+        mediaCacheSizeLimit = new TextField();
+        repeatReadWindow = new TextField();
+        scanFileNameAliases = new TextField();
+        cachedMediaLocations = new TextField();
     }
 
     @Override
@@ -50,9 +61,19 @@ public class ConfigurationWindowContents extends StageBuilder {
 
         minVideoWidth.setTextFormatter(new TextFormatter<>(integerFilter));
         minVideoHeight.setTextFormatter(new TextFormatter<>(integerFilter));
+        prefetchMemoryBudget.setTextFormatter(new TextFormatter<>(integerFilter));
+        mediaCacheSizeLimit.setTextFormatter(new TextFormatter<>(integerFilter));
+        repeatReadWindow.setTextFormatter(new TextFormatter<>(integerFilter));
 
         minVideoWidth.setText(configuration.getMinimumVideoWidth().map(Object::toString).orElse(""));
         minVideoHeight.setText(configuration.getMinimumVideoHeight().map(Object::toString).orElse(""));
+        prefetchMemoryBudget.setText(configuration.getPrefetchMemoryBudget().map(Object::toString).orElse(""));
+        mediaCacheSizeLimit.setText(configuration.getMediaCacheSizeLimit().map(Object::toString).orElse(""));
+        repeatReadWindow.setText(configuration.getRepeatReadWindow().map(Object::toString).orElse(""));
+        scanFileNameAliases.setText(configuration.getScanFileNameAliases().orElse(""));
+        scanFileNameAliases.setPromptText("*_ruq*=RUQ; *liver*=Right Upper Quadrant");
+        cachedMediaLocations.setText(configuration.getCachedMediaLocations().orElse(""));
+        cachedMediaLocations.setPromptText("Z:; E:\\Videos");
 
         Button btnSetPassword = new Button("Set Password");
         Button btnClearPassword = new Button("Clear Password");
@@ -60,6 +81,7 @@ public class ConfigurationWindowContents extends StageBuilder {
         Button btnSetDefaultScenarioDirectory = new Button("Set Default Scenario Directory");
         Button btnSetDefaultVideoDirectory = new Button("Set Default Video Directory");
         CheckBox chkEnableDarkMode = new CheckBox("Enable");
+        CheckBox chkLoopScans = new CheckBox("Loop until the next scan");
         btnSetPassword.setOnAction(a -> setPassword());
         btnClearPassword.setOnAction(a -> clearPassword());
 
@@ -69,9 +91,16 @@ public class ConfigurationWindowContents extends StageBuilder {
 
         chkEnableDarkMode.setOnAction(a -> setDarkMode(chkEnableDarkMode));
         chkEnableDarkMode.setSelected(configuration.darkModeEnabledProperty().get());
+        chkLoopScans.setOnAction(a -> configuration.setScanLoopingEnabled(chkLoopScans.isSelected()));
+        chkLoopScans.setSelected(configuration.isScanLoopingEnabled());
 
         minVideoWidth.setOnKeyReleased(e -> saveMinVideoWidth());
         minVideoHeight.setOnKeyReleased(e -> saveMinVideoHeight());
+        prefetchMemoryBudget.setOnKeyReleased(e -> savePrefetchMemoryBudget());
+        mediaCacheSizeLimit.setOnKeyReleased(e -> saveMediaCacheSizeLimit());
+        repeatReadWindow.setOnKeyReleased(e -> saveRepeatReadWindow());
+        scanFileNameAliases.setOnKeyReleased(e -> saveScanFileNameAliases());
+        cachedMediaLocations.setOnKeyReleased(e -> configuration.setCachedMediaLocations(cachedMediaLocations.getText()));
 
         GridPane formControls = new FormBuilder()
                 .addLabel("edus2j Configuration Settings")
@@ -83,6 +112,12 @@ public class ConfigurationWindowContents extends StageBuilder {
                 .addControl("Default Scenario Directory", btnSetDefaultScenarioDirectory)
                 .addControl("Default Video Directory", btnSetDefaultVideoDirectory)
                 .addControl("Save File Location", btnSaveFileLocation)
+                .addControl("Prefetch Memory Budget (MB)", prefetchMemoryBudget)
+                .addControl("Media Cache Size Limit (MB)", mediaCacheSizeLimit)
+                .addControl("Always Cache Videos From", cachedMediaLocations)
+                .addControl("Repeat Read Window (ms)", repeatReadWindow)
+                .addControl("Loop Scans", chkLoopScans)
+                .addControl("Video File Name Aliases", scanFileNameAliases)
                 .build();
 
         configurationBox.getChildren().add(formControls);
@@ -164,6 +199,10 @@ public class ConfigurationWindowContents extends StageBuilder {
     }
 
     private boolean validVideoDimension(String attempt) {
+        return validInteger(attempt, "Minimum video width/height");
+    }
+
+    private boolean validInteger(String attempt, String description) {
         if (StringUtils.isEmpty(attempt)) {
             return false;
         }
@@ -172,7 +211,7 @@ public class ConfigurationWindowContents extends StageBuilder {
             Integer.parseInt(attempt);
             return true;
         } catch (NumberFormatException e) {
-            Alert alert = new Alert(Alert.AlertType.ERROR, String.format("Minimum video width/height can be %s at most: %s is too large", Integer.MAX_VALUE, attempt));
+            Alert alert = new Alert(Alert.AlertType.ERROR, String.format("%s can be %s at most: %s is too large", description, Integer.MAX_VALUE, attempt));
             alert.showAndWait();
             return false;
         }
@@ -193,4 +232,38 @@ public class ConfigurationWindowContents extends StageBuilder {
         }
 
     }
+
+    private void savePrefetchMemoryBudget() {
+        String rawText = prefetchMemoryBudget.getText();
+        if (validInteger(rawText, "Prefetch memory budget")) {
+            configuration.setPrefetchMemoryBudget(Integer.parseInt(rawText));
+        }
+    }
+
+    private void saveMediaCacheSizeLimit() {
+        String rawText = mediaCacheSizeLimit.getText();
+        if (validInteger(rawText, "Media cache size limit")) {
+            configuration.setMediaCacheSizeLimit(Integer.parseInt(rawText));
+        }
+    }
+
+    /**
+     * Aliases are only saved once they can all be read, so half typed aliases are never used.
+     */
+    private void saveScanFileNameAliases() {
+        String rawText = scanFileNameAliases.getText();
+        try {
+            ScanFileNameMatcher.parseAliases(rawText);
+            configuration.setScanFileNameAliases(rawText);
+        } catch (IllegalArgumentException e) {
+            // Kept as typed until the aliases can be read
+        }
+    }
+
+    private void saveRepeatReadWindow() {
+        String rawText = repeatReadWindow.getText();
+        if (validInteger(rawText, "Repeat read window")) {
+            configuration.setRepeatReadWindow(Integer.parseInt(rawText));
+        }
+    }
 }
@@ -0,0 +1,72 @@
+package edus2.adapter.stagebuilder;
+
+import com.google.inject.Inject;
+import edus2.adapter.input.RepeatReadFilter;
+import edus2.adapter.media.ScanMediaWarmer;
+import edus2.adapter.media.ScanWarmupProgress;
+import edus2.adapter.ui.builder.SceneBuilder;
+import edus2.application.diagnostics.LoopStallMonitor;
+import edus2.application.diagnostics.PlaybackLatencyRecorder;
+import javafx.geometry.Insets;
+import javafx.scene.Parent;
+import javafx.scene.control.Button;
+import javafx.scene.control.TextArea;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.text.Font;
+
+public class DiagnosticsWindowContents extends StageBuilder {
+    private final PlaybackLatencyRecorder latencyRecorder;
+    private final RepeatReadFilter repeatReadFilter;
+    private final LoopStallMonitor loopStallMonitor;
+    private volatile ScanWarmupProgress warmupProgress;
+
+    @Inject
+    public DiagnosticsWindowContents(SceneBuilder sceneBuilder, PlaybackLatencyRecorder latencyRecorder, RepeatReadFilter repeatReadFilter,
+                                     LoopStallMonitor loopStallMonitor, ScanMediaWarmer mediaWarmer) {
+        super(sceneBuilder);
+        this.latencyRecorder = latencyRecorder;
+        this.repeatReadFilter = repeatReadFilter;
+        this.loopStallMonitor = loopStallMonitor;
+        mediaWarmer.registerProgressListener(progress -> warmupProgress = progress);
+    }
+
+    @Override
+    protected Parent buildSceneContents() {
+        TextArea report = new TextArea(formatReport());
+        report.setEditable(false);
+        report.setFont(Font.font("Monospaced", 14.0));
+        report.setPrefColumnCount(90);
+        report.setPrefRowCount(10);
+
+        Button btnRefresh = new Button("Refresh");
+        Button btnReset = new Button("Reset");
+        btnRefresh.setOnAction(a -> report.setText(formatReport()));
+        btnReset.setOnAction(a -> {
+            latencyRecorder.reset();
+            repeatReadFilter.resetCounters();
+            loopStallMonitor.reset();
+            report.setText(formatReport());
+        });
+
+        HBox buttons = new HBox(10, btnRefresh, btnReset);
+        BorderPane diagnostics = new BorderPane();
+        diagnostics.setCenter(report);
+        diagnostics.setBottom(buttons);
+        BorderPane.setMargin(buttons, new Insets(10.0, 0, 0, 0));
+        diagnostics.setPadding(new Insets(10.0));
+        return diagnostics;
+    }
+
+    private String formatReport() {
+        ScanWarmupProgress progress = warmupProgress;
+        String warmup = progress == null ? "No scan files warmed yet" : progress.toString();
+        return latencyRecorder.formatReport() + System.lineSeparator() + repeatReadFilter.formatCounters() + loopStallMonitor.formatReport()
+                + warmup + System.lineSeparator();
+    }
+
+    @Override
+    public String getTitle() {
+        return "Diagnostics";
+    }
+}
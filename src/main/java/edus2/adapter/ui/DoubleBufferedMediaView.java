@@ -0,0 +1,141 @@
+package edus2.adapter.ui;
+
+import com.google.inject.Inject;
+import javafx.animation.FadeTransition;
+import javafx.scene.layout.StackPane;
+import javafx.scene.media.MediaPlayer;
+import javafx.scene.media.MediaView;
+import javafx.util.Duration;
+
+/**
+ * Shows scans through two media views, so that the next scan can get ready in the hidden view while the current one
+ * stays on screen. The views are only swapped once the next scan is playing, fading it in over the current one, and
+ * the outgoing player is then stopped in the background. Both views' players are pinned in the
+ * {@link ScanMediaPlayerPool}, so that the pool does not dispose of a player while it is on screen.
+ * <p>
+ * The fade lasts {@value #DEFAULT_CROSSFADE_MILLIS} ms unless the {@code edus2j.crossfadeMillis} system property says
+ * otherwise; 0 swaps the views straight away.
+ */
+public class DoubleBufferedMediaView extends StackPane {
+    static final long DEFAULT_CROSSFADE_MILLIS = 150;
+    private static final String CROSSFADE_PROPERTY = "edus2j.crossfadeMillis";
+
+    private final MediaPlayerReleaser releaser;
+    private final ScanMediaPlayerPool playerPool;
+    private final Duration crossfade;
+    private MediaView front;
+    private MediaView back;
+    private boolean loaded;
+    private FadeTransition fade;
+    private Runnable fadeFinisher;
+
+    @Inject
+    public DoubleBufferedMediaView(MediaPlayerReleaser releaser, ScanMediaPlayerPool playerPool) {
+        this.releaser = releaser;
+        this.playerPool = playerPool;
+        this.crossfade = Duration.millis(Long.getLong(CROSSFADE_PROPERTY, DEFAULT_CROSSFADE_MILLIS));
+        this.front = new MediaView();
+        this.back = new MediaView();
+        back.setVisible(false);
+        getChildren().addAll(front, back);
+    }
+
+    /**
+     * Puts the player in the hidden view, replacing any player loaded before it that was never shown, and returns the
+     * view. The current scan stays on screen until {@link #showLoaded()}. A player that is being shown already, or
+     * was still to be stopped, is stopped first so that it plays again from the start. A player whose stop was already
+     * under way is played again once the stop has finished, in case it was started in the meantime.
+     */
+    public MediaView load(MediaPlayer mediaPlayer) {
+        finishFade();
+        if (loaded) {
+            releaseUnlessShowing(back.getMediaPlayer(), mediaPlayer);
+        }
+        if (releaser.reclaim(mediaPlayer, () -> resumeAfterStop(mediaPlayer)) || mediaPlayer == front.getMediaPlayer()) {
+            mediaPlayer.stop();
+        }
+
+        playerPool.pin(mediaPlayer);
+        back.setMediaPlayer(mediaPlayer);
+        back.setOpacity(0);
+        back.setVisible(true);
+        back.toFront();
+        loaded = true;
+        return back;
+    }
+
+    /**
+     * Swaps the loaded view in, if there is one. Called once its player is playing, so that it has a frame to show.
+     */
+    public void showLoaded() {
+        if (!loaded) {
+            return;
+        }
+        loaded = false;
+
+        MediaView incoming = back;
+        MediaView outgoing = front;
+        front = incoming;
+        back = outgoing;
+        fadeFinisher = () -> {
+            incoming.setOpacity(1);
+            MediaPlayer outgoingPlayer = outgoing.getMediaPlayer();
+            outgoing.setVisible(false);
+            outgoing.setMediaPlayer(null);
+            releaseUnlessShowing(outgoingPlayer, incoming.getMediaPlayer());
+        };
+
+        if (crossfade.toMillis() <= 0) {
+            finishFade();
+            return;
+        }
+
+        fade = new FadeTransition(crossfade, incoming);
+        fade.setFromValue(0);
+        fade.setToValue(1);
+        fade.setOnFinished(e -> finishFade());
+        fade.play();
+    }
+
+    /**
+     * Empties both views and stops their players.
+     */
+    public void clear() {
+        finishFade();
+        loaded = false;
+        for (MediaView view : new MediaView[]{front, back}) {
+            MediaPlayer mediaPlayer = view.getMediaPlayer();
+            view.setMediaPlayer(null);
+            if (mediaPlayer != null) {
+                releaser.stop(mediaPlayer);
+                playerPool.unpin(mediaPlayer);
+            }
+        }
+    }
+
+    private void finishFade() {
+        if (fade != null) {
+            fade.stop();
+            fade = null;
+        }
+        if (fadeFinisher != null) {
+            Runnable finisher = fadeFinisher;
+            fadeFinisher = null;
+            finisher.run();
+        }
+    }
+
+    private void resumeAfterStop(MediaPlayer mediaPlayer) {
+        boolean inView = mediaPlayer == front.getMediaPlayer() || (loaded && mediaPlayer == back.getMediaPlayer());
+        if (inView && mediaPlayer.getStatus() == MediaPlayer.Status.STOPPED) {
+            mediaPlayer.play();
+        }
+    }
+
+    private void releaseUnlessShowing(MediaPlayer mediaPlayer, MediaPlayer showing) {
+        if (mediaPlayer != null && mediaPlayer != showing && mediaPlayer != front.getMediaPlayer()) {
+            releaser.stop(mediaPlayer);
+            playerPool.unpin(mediaPlayer);
+        }
+    }
+}
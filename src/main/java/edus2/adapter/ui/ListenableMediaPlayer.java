@@ -1,5 +1,6 @@
 package edus2.adapter.ui;
 
+import edus2.domain.ScanMetadata;
 import javafx.scene.media.MediaPlayer;
 import javafx.scene.media.MediaView;
 
@@ -8,14 +9,34 @@ import java.util.*;
 public class ListenableMediaPlayer {
     private Map<ListenableMediaPlayerEventEnum, Set<MediaPlayerEventHandler>> watcherMap;
     private MediaView mediaView;
+    private ScanMetadata scanMetadata;
 
     public ListenableMediaPlayer() {
         watcherMap = new HashMap<>();
     }
 
+    /**
+     * Sets the media to listen to. Players that are already past loading, such as preloaded players, will not report
+     * ready again, so listeners are told straight away instead.
+     */
     public void setMedia(MediaView mediaView) {
+        setMedia(mediaView, null);
+    }
+
+    /**
+     * Sets the media to listen to, along with the metadata recorded for its scan, if any.
+     */
+    public void setMedia(MediaView mediaView, ScanMetadata scanMetadata) {
         this.mediaView = mediaView;
+        this.scanMetadata = scanMetadata;
         registerInternalListeners();
+        if (isLoaded(mediaView.getMediaPlayer().getStatus())) {
+            callListeners(ListenableMediaPlayerEventEnum.ON_READY);
+        }
+    }
+
+    private boolean isLoaded(MediaPlayer.Status status) {
+        return status != null && status != MediaPlayer.Status.UNKNOWN && status != MediaPlayer.Status.HALTED && status != MediaPlayer.Status.DISPOSED;
     }
 
     public Optional<MediaPlayer> getMediaPlayer() {
@@ -26,32 +47,29 @@ public class ListenableMediaPlayer {
         return Optional.ofNullable(mediaView.getMediaPlayer());
     }
 
-    private void registerInternalListeners() {
-        mediaView.getMediaPlayer().setOnPlaying(this::mediaPlaying);
-        mediaView.getMediaPlayer().setOnEndOfMedia(this::endOfMedia);
-        mediaView.getMediaPlayer().setOnReady(this::playerReady);
-        mediaView.getMediaPlayer().setOnStopped(this::playerStopped);
-        mediaView.getMediaPlayer().setOnPaused(this::playerPaused);
+    public Optional<ScanMetadata> getScanMetadata() {
+        return Optional.ofNullable(scanMetadata);
     }
 
-    private void playerPaused() {
-        callListeners(ListenableMediaPlayerEventEnum.ON_PAUSED);
-    }
-
-    private void mediaPlaying() {
-        callListeners(ListenableMediaPlayerEventEnum.ON_PLAYING);
-    }
-
-    private void endOfMedia() {
-        callListeners(ListenableMediaPlayerEventEnum.ON_END_OF_MEDIA);
-    }
-
-    private void playerReady() {
-        callListeners(ListenableMediaPlayerEventEnum.ON_READY);
+    private void registerInternalListeners() {
+        MediaPlayer mediaPlayer = mediaView.getMediaPlayer();
+        mediaPlayer.setOnPlaying(listenerFor(mediaPlayer, ListenableMediaPlayerEventEnum.ON_PLAYING));
+        mediaPlayer.setOnEndOfMedia(listenerFor(mediaPlayer, ListenableMediaPlayerEventEnum.ON_END_OF_MEDIA));
+        mediaPlayer.setOnReady(listenerFor(mediaPlayer, ListenableMediaPlayerEventEnum.ON_READY));
+        mediaPlayer.setOnStopped(listenerFor(mediaPlayer, ListenableMediaPlayerEventEnum.ON_STOPPED));
+        mediaPlayer.setOnPaused(listenerFor(mediaPlayer, ListenableMediaPlayerEventEnum.ON_PAUSED));
     }
 
-    private void playerStopped() {
-        callListeners(ListenableMediaPlayerEventEnum.ON_STOPPED);
+    /**
+     * Players are reused, so a player that has since been replaced may still report events, such as the stop of the
+     * previous scan arriving after the next one has started. Only events from the current player are passed on.
+     */
+    private Runnable listenerFor(MediaPlayer mediaPlayer, ListenableMediaPlayerEventEnum status) {
+        return () -> {
+            if (getMediaPlayer().orElse(null) == mediaPlayer) {
+                callListeners(status);
+            }
+        };
     }
 
     private void callListeners(ListenableMediaPlayerEventEnum status) {
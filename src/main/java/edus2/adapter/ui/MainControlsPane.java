@@ -2,17 +2,18 @@ package edus2.adapter.ui;
 
 import com.google.inject.Inject;
 import edus2.adapter.stagebuilder.Credits;
+import edus2.adapter.stagebuilder.DiagnosticsWindowContents;
 import edus2.adapter.ui.handler.frontpage.FullscreenHandler;
 import edus2.adapter.ui.handler.frontpage.ManikinSettingsWindowHandler;
 import edus2.adapter.ui.handler.frontpage.ScanSettingsWindowHandler;
 import edus2.adapter.ui.handler.frontpage.ShutdownHandler;
+import edus2.application.diagnostics.PlaybackLatencyRecorder;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.ProgressBar;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
-import javafx.scene.media.MediaView;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontPosture;
 import javafx.scene.text.FontWeight;
@@ -20,7 +21,6 @@ import javafx.scene.text.Text;
 import javafx.stage.Stage;
 
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 
 public class MainControlsPane extends BorderPane {
     private final BorderPane mainDisplayPane;
@@ -34,20 +34,20 @@ public class MainControlsPane extends BorderPane {
     private ListenableMediaPlayer listenablePlayer;
     private ScheduledExecutorService threadPool;
     private Credits credits;
-    private static final int FRAMES_PER_SECOND = 60;
-    private static final int MILLIS_PER_SECOND = 1000;
-    private static final int MILLIS_BETWEEN_FRAMES = MILLIS_PER_SECOND / FRAMES_PER_SECOND;
+    private DiagnosticsWindowContents diagnosticsWindowContents;
 
     @Inject
     public MainControlsPane(Stage stage, BorderPane mainDisplayPane,
                             ListenableMediaPlayer listenablePlayer, ScheduledExecutorService threadPool,
                             Credits credits, ManikinSettingsWindowHandler manikinSettingsWindowHandler,
-                            ScanSettingsWindowHandler scanSettingsWindowHandler) {
+                            ScanSettingsWindowHandler scanSettingsWindowHandler, DiagnosticsWindowContents diagnosticsWindowContents,
+                            PlaybackLatencyRecorder latencyRecorder) {
         this.listenablePlayer = listenablePlayer;
         this.threadPool = threadPool;
         this.credits = credits;
         this.manikinSettingsWindowHandler = manikinSettingsWindowHandler;
         this.scanSettingsWindowHandler = scanSettingsWindowHandler;
+        this.diagnosticsWindowContents = diagnosticsWindowContents;
         ProgressBar playbackProgress = new ProgressBar(0.0);
         playbackProgress.setMinHeight(18.0);
         playbackProgress.setMinWidth(150.0);
@@ -55,7 +55,7 @@ public class MainControlsPane extends BorderPane {
         this.mainDisplayPane = mainDisplayPane;
         fullscreenHandler = new FullscreenHandler(mainDisplayPane, stage);
         scanProgressUpdater = new ScanProgressUpdater(listenablePlayer, playbackProgress);
-        shutdownHandler = new ShutdownHandler(mainDisplayPane, stage, threadPool);
+        shutdownHandler = new ShutdownHandler(mainDisplayPane, stage, threadPool, latencyRecorder);
 
         titleBox = generateTitleBox();
         VBox playbackPositionBox = generatePlaybackPositionControl(playbackProgress);
@@ -92,17 +92,14 @@ public class MainControlsPane extends BorderPane {
         VBox.setMargin(playbackProgress, new Insets(5.0));
         VBox.setMargin(btnClearScreen, new Insets(5.0, 0, 0, 0));
         btnClearScreen.setOnAction(e -> {
-            if (mainDisplayPane.getCenter() instanceof MediaView) {
-                MediaView mediaView = (MediaView) mainDisplayPane.getCenter();
-                mediaView.getMediaPlayer().stop();
-                mediaView.setMediaPlayer(null);
+            if (mainDisplayPane.getCenter() instanceof DoubleBufferedMediaView) {
+                ((DoubleBufferedMediaView) mainDisplayPane.getCenter()).clear();
                 playbackElements.getChildren().remove(btnClearScreen);
             }
         });
 
         listenablePlayer.registerListener(ListenableMediaPlayer.ListenableMediaPlayerEventEnum.ON_END_OF_MEDIA, (mp) -> playbackElements.getChildren().add(btnClearScreen));
         listenablePlayer.registerListener(ListenableMediaPlayer.ListenableMediaPlayerEventEnum.ON_PLAYING, (mp) -> playbackElements.getChildren().remove(btnClearScreen));
-        threadPool.scheduleAtFixedRate(scanProgressUpdater, 0, MILLIS_BETWEEN_FRAMES, TimeUnit.MILLISECONDS);
         playbackElements.setAlignment(Pos.BOTTOM_CENTER);
         return playbackElements;
     }
@@ -111,10 +108,11 @@ public class MainControlsPane extends BorderPane {
         MainControlButton btnFullscreen = new MainControlButton("Toggle Fullscreen");
         MainControlButton btnScanSettings = new MainControlButton("Scan Settings");
         MainControlButton btnManikinSettings = new MainControlButton("Manikin Settings");
+        MainControlButton btnDiagnostics = new MainControlButton("Diagnostics");
         MainControlButton btnQuit = new MainControlButton("Quit");
 
         HBox buttons = new HBox();
-        buttons.getChildren().addAll(btnFullscreen, btnScanSettings, btnManikinSettings, btnQuit);
+        buttons.getChildren().addAll(btnFullscreen, btnScanSettings, btnManikinSettings, btnDiagnostics, btnQuit);
         buttons.setAlignment(Pos.BOTTOM_RIGHT);
 
 
@@ -126,6 +124,7 @@ public class MainControlsPane extends BorderPane {
         btnFullscreen.setOnAction(e -> fullscreenHandler.handle());
         btnScanSettings.setOnAction(e -> scanSettingsWindowHandler.handle());
         btnManikinSettings.setOnAction(e -> manikinSettingsWindowHandler.handle());
+        btnDiagnostics.setOnAction(e -> diagnosticsWindowContents.build().show());
         btnQuit.setOnAction(e -> shutdownHandler.handle());
         return buttons;
     }
@@ -0,0 +1,68 @@
+package edus2.adapter.ui;
+
+import javafx.application.Platform;
+import javafx.scene.media.MediaPlayer;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Stops and disposes of media players on a background thread. Tearing down a player can block while the media
+ * pipeline shuts down, which would otherwise hold up the FX thread in the middle of switching scans.
+ * <p>
+ * Pooled players are stopped rather than disposed of and may be played again before their stop has run, so a pending
+ * stop can be taken back with {@link #reclaim(MediaPlayer, Runnable)}. Neither side waits for the other: a stop that is
+ * already under way is left to finish, and whoever reclaimed the player is told once it has.
+ */
+public class MediaPlayerReleaser {
+    private final ExecutorService releaseThread;
+    private final Set<MediaPlayer> pendingStops;
+    private final Set<MediaPlayer> stopsInProgress;
+
+    public MediaPlayerReleaser() {
+        this.releaseThread = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "edus2j-media-release");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.pendingStops = ConcurrentHashMap.newKeySet();
+        this.stopsInProgress = ConcurrentHashMap.newKeySet();
+    }
+
+    public void stop(MediaPlayer mediaPlayer) {
+        pendingStops.add(mediaPlayer);
+        releaseThread.execute(() -> {
+            // Marked as in progress before the pending stop is taken, so a reclaim never sees neither
+            stopsInProgress.add(mediaPlayer);
+            try {
+                if (pendingStops.remove(mediaPlayer)) {
+                    mediaPlayer.stop();
+                }
+            } finally {
+                stopsInProgress.remove(mediaPlayer);
+            }
+        });
+    }
+
+    /**
+     * Cancels a stop that has not run yet, without waiting for one that is under way. Returns whether a stop was
+     * cancelled, in which case the player may still be playing. When a stop is already under way, the given action is
+     * run on the FX thread once it has finished.
+     */
+    public boolean reclaim(MediaPlayer mediaPlayer, Runnable afterStopInProgress) {
+        if (pendingStops.remove(mediaPlayer)) {
+            return true;
+        }
+        if (stopsInProgress.contains(mediaPlayer)) {
+            // The release thread runs one task at a time, so this runs after the stop
+            releaseThread.execute(() -> Platform.runLater(afterStopInProgress));
+        }
+        return false;
+    }
+
+    public void dispose(MediaPlayer mediaPlayer) {
+        releaseThread.execute(mediaPlayer::dispose);
+    }
+}
@@ -0,0 +1,47 @@
+package edus2.adapter.ui;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Holds back the disposal of players that are on screen, or about to be. A pinned player that is disposed of is only
+ * retired, and is disposed of for real once it is unpinned.
+ */
+class PlayerPins<P> {
+    private final Consumer<P> disposer;
+    private final Set<P> pinnedPlayers;
+    private final Set<P> retiredPlayers;
+
+    PlayerPins(Consumer<P> disposer) {
+        this.disposer = disposer;
+        this.pinnedPlayers = new HashSet<>();
+        this.retiredPlayers = new HashSet<>();
+    }
+
+    void pin(P player) {
+        pinnedPlayers.add(player);
+    }
+
+    void unpin(P player) {
+        pinnedPlayers.remove(player);
+        if (retiredPlayers.remove(player)) {
+            disposer.accept(player);
+        }
+    }
+
+    boolean isPinned(P player) {
+        return pinnedPlayers.contains(player);
+    }
+
+    /**
+     * Disposes of the player, or retires it if it is pinned.
+     */
+    void dispose(P player) {
+        if (pinnedPlayers.contains(player)) {
+            retiredPlayers.add(player);
+        } else {
+            disposer.accept(player);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package edus2.adapter.ui;
+
+import com.google.inject.Inject;
+import edus2.adapter.media.ScanInspection;
+import edus2.adapter.media.ScanMediaInspector;
+import javafx.application.Platform;
+import javafx.event.Event;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.layout.VBox;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+import javafx.stage.StageStyle;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Checks videos about to be imported, showing how far along the check is until it is done.
+ */
+public class ScanInspectionDialog {
+    private final ScanMediaInspector inspector;
+
+    @Inject
+    public ScanInspectionDialog(ScanMediaInspector inspector) {
+        this.inspector = inspector;
+    }
+
+    /**
+     * Inspects the videos, returning once every one of them has been checked. The results are in the same order as
+     * the videos.
+     */
+    public List<ScanInspection> inspect(List<File> videos, Stage owner) {
+        ProgressBar progress = new ProgressBar(0);
+        progress.setPrefWidth(300);
+        VBox contents = new VBox(10, new Label(String.format("Checking that %d video(s) can be played...", videos.size())), progress);
+        contents.setPadding(new Insets(15));
+
+        Stage dialog = new Stage(StageStyle.UTILITY);
+        if (owner != null) {
+            dialog.initOwner(owner);
+        }
+        dialog.initModality(Modality.APPLICATION_MODAL);
+        dialog.setTitle("Checking Videos");
+        dialog.setScene(new Scene(contents));
+        // The check cannot be abandoned part way through, so the dialog only closes once it is done
+        dialog.setOnCloseRequest(Event::consume);
+
+        CompletableFuture<List<ScanInspection>> inspection = inspector.inspect(videos,
+                inspected -> Platform.runLater(() -> progress.setProgress(inspected / (double) videos.size())));
+        inspection.whenComplete((inspections, e) -> Platform.runLater(dialog::close));
+        dialog.showAndWait();
+        return inspection.join();
+    }
+}
@@ -0,0 +1,82 @@
+package edus2.adapter.ui;
+
+import edus2.domain.ManikinScanEnum;
+import javafx.event.ActionEvent;
+import javafx.scene.control.*;
+import javafx.scene.layout.GridPane;
+
+import java.io.File;
+import java.util.*;
+
+/**
+ * Shows every video being added next to the location it will be linked to, so that the locations worked out from the
+ * file names can be checked and changed together. The result holds the videos that were given a location.
+ */
+public class ScanLocationReviewDialog extends Dialog<Map<File, ManikinScanEnum>> {
+    private static final String SKIP = "(Skip)";
+
+    private final Map<File, ComboBox<String>> locationBoxes;
+
+    public ScanLocationReviewDialog(List<File> videos, Collection<ManikinScanEnum> availableLocations, Map<File, ManikinScanEnum> suggestedLocations) {
+        this.locationBoxes = new LinkedHashMap<>();
+
+        List<String> choices = new ArrayList<>();
+        choices.add(SKIP);
+        availableLocations.stream()
+                .sorted()
+                .map(ManikinScanEnum::getName)
+                .forEach(choices::add);
+
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(5);
+        int row = 0;
+        for (File video : videos) {
+            ComboBox<String> locationBox = new ComboBox<>();
+            locationBox.getItems().addAll(choices);
+            locationBox.setValue(Optional.ofNullable(suggestedLocations.get(video)).map(ManikinScanEnum::getName).orElse(SKIP));
+            locationBoxes.put(video, locationBox);
+            grid.addRow(row++, new Label(video.getName()), locationBox);
+        }
+
+        setTitle("Link Videos");
+        DialogPane dialogPane = getDialogPane();
+        dialogPane.setHeaderText("Check the location each video will be linked to");
+        dialogPane.setContent(grid);
+        dialogPane.getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+
+        // Keeps the dialog open until no location is chosen twice
+        dialogPane.lookupButton(ButtonType.OK).addEventFilter(ActionEvent.ACTION, e -> {
+            Optional<String> duplicate = findDuplicateLocation();
+            if (duplicate.isPresent()) {
+                e.consume();
+                Alert alert = new Alert(Alert.AlertType.ERROR, String.format("%s has been chosen for more than one video!", duplicate.get()));
+                alert.showAndWait();
+            }
+        });
+
+        setResultConverter(dialogButton -> {
+            ButtonBar.ButtonData data = dialogButton == null ? null : dialogButton.getButtonData();
+            return data == ButtonBar.ButtonData.OK_DONE ? getChosenLocations() : null;
+        });
+    }
+
+    private Optional<String> findDuplicateLocation() {
+        Set<String> chosen = new HashSet<>();
+        return locationBoxes.values().stream()
+                .map(ComboBox::getValue)
+                .filter(location -> !SKIP.equals(location))
+                .filter(location -> !chosen.add(location))
+                .findFirst();
+    }
+
+    private Map<File, ManikinScanEnum> getChosenLocations() {
+        Map<File, ManikinScanEnum> chosenLocations = new LinkedHashMap<>();
+        locationBoxes.forEach((video, locationBox) -> {
+            if (!SKIP.equals(locationBox.getValue())) {
+                chosenLocations.put(video, ManikinScanEnum.findByName(locationBox.getValue()));
+            }
+        });
+        return chosenLocations;
+    }
+}
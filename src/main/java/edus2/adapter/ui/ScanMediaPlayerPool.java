@@ -0,0 +1,122 @@
+package edus2.adapter.ui;
+
+import com.google.inject.Inject;
+import edus2.adapter.media.LocalMediaCache;
+import edus2.domain.ManikinScanEnum;
+import edus2.domain.Scan;
+import javafx.scene.media.Media;
+import javafx.scene.media.MediaException;
+import javafx.scene.media.MediaPlayer;
+
+import java.util.*;
+
+/**
+ * Keeps media players loaded ahead of time, keyed by scan location, so that a scan can start playing as soon as its
+ * tag is read instead of waiting for its player to become ready. Preloaded players are paused on their first frame.
+ * Players play the {@link LocalMediaCache local copy} of a scan when there is one. Only playing a scan counts as a use
+ * of its copy; loading it ahead of time does not.
+ * <p>
+ * Players that are on screen, or loaded to be shown next, are {@link #pin(MediaPlayer) pinned}. A pinned player is
+ * never disposed of or rebuilt while it is pinned; if its scan is no longer wanted it is disposed of once unpinned.
+ */
+public class ScanMediaPlayerPool {
+    private final LocalMediaCache mediaCache;
+    private final MediaPlayerReleaser releaser;
+    private final Map<ManikinScanEnum, PooledPlayer> players;
+    private final PlayerPins<MediaPlayer> pins;
+
+    @Inject
+    public ScanMediaPlayerPool(LocalMediaCache mediaCache, MediaPlayerReleaser releaser) {
+        this.mediaCache = mediaCache;
+        this.releaser = releaser;
+        this.players = new EnumMap<>(ManikinScanEnum.class);
+        this.pins = new PlayerPins<>(releaser::dispose);
+    }
+
+    /**
+     * Returns the player for the given scan. The pooled player is used when it still matches the scan; otherwise a
+     * new one is created in its place.
+     */
+    public MediaPlayer acquire(Scan scan) {
+        PooledPlayer pooledPlayer = players.get(scan.getScanEnum());
+        if (pooledPlayer == null || !pooledPlayer.isUsableFor(scan)) {
+            release(scan.getScanEnum());
+            pooledPlayer = new PooledPlayer(scan, mediaCache.resolve(scan));
+            players.put(scan.getScanEnum(), pooledPlayer);
+        }
+        return pooledPlayer.player;
+    }
+
+    /**
+     * Keeps the player from being disposed of until it is unpinned.
+     */
+    public void pin(MediaPlayer mediaPlayer) {
+        pins.pin(mediaPlayer);
+    }
+
+    /**
+     * Lets go of a player once it is off screen, disposing of it if the pool no longer holds it.
+     */
+    public void unpin(MediaPlayer mediaPlayer) {
+        pins.unpin(mediaPlayer);
+    }
+
+    /**
+     * Keeps players loaded for exactly the given scans: missing players are created and every other player is
+     * disposed of. Players still playing from a scan's original path are rebuilt once a local copy is available, unless
+     * they are pinned.
+     */
+    public void retain(Collection<Scan> scans) {
+        Map<ManikinScanEnum, Scan> scansByLocation = new EnumMap<>(ManikinScanEnum.class);
+        scans.forEach(scan -> scansByLocation.put(scan.getScanEnum(), scan));
+
+        for (ManikinScanEnum location : new ArrayList<>(players.keySet())) {
+            Scan scan = scansByLocation.get(location);
+            PooledPlayer pooledPlayer = players.get(location);
+            if (scan == null || !pooledPlayer.isUsableFor(scan) || (!pins.isPinned(pooledPlayer.player) && !pooledPlayer.source.equals(mediaCache.getPlaybackSource(scan)))) {
+                release(location);
+            }
+        }
+
+        for (Scan scan : scansByLocation.values()) {
+            if (!players.containsKey(scan.getScanEnum())) {
+                preload(scan);
+            }
+        }
+    }
+
+    private void preload(Scan scan) {
+        try {
+            PooledPlayer pooledPlayer = new PooledPlayer(scan, mediaCache.getPlaybackSource(scan));
+            // Pausing a ready player has it decode its first frame, so that it can be shown straight away
+            pooledPlayer.player.setOnReady(pooledPlayer.player::pause);
+            players.put(scan.getScanEnum(), pooledPlayer);
+        } catch (MediaException | IllegalArgumentException | UnsupportedOperationException e) {
+            // Left for acquire, which reports the problem when the scan is actually played
+        }
+    }
+
+    private void release(ManikinScanEnum location) {
+        PooledPlayer pooledPlayer = players.remove(location);
+        if (pooledPlayer != null) {
+            pins.dispose(pooledPlayer.player);
+        }
+    }
+
+    private static class PooledPlayer {
+        private final String path;
+        private final String source;
+        private final MediaPlayer player;
+
+        PooledPlayer(Scan scan, String source) {
+            this.path = scan.getPath();
+            this.source = source;
+            this.player = new MediaPlayer(new Media(source));
+        }
+
+        boolean isUsableFor(Scan scan) {
+            MediaPlayer.Status status = player.getStatus();
+            return path.equals(scan.getPath()) && status != MediaPlayer.Status.HALTED && status != MediaPlayer.Status.DISPOSED;
+        }
+    }
+}
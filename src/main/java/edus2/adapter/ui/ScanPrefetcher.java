@@ -0,0 +1,81 @@
+package edus2.adapter.ui;
+
+import com.google.inject.Inject;
+import edus2.application.ScanFacade;
+import edus2.application.ScanTransitionModel;
+import edus2.domain.EDUS2Configuration;
+import edus2.domain.ManikinScanEnum;
+import edus2.domain.Scan;
+import edus2.domain.ScanMetadata;
+import javafx.application.Platform;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Learns which scans tend to follow each other and keeps the most likely next scans loaded in the
+ * {@link ScanMediaPlayerPool}, within the configured memory budget. A clip's file size, recorded when it was imported,
+ * stands in for the memory its player uses; files are never looked at here, since this runs on the FX thread.
+ */
+public class ScanPrefetcher {
+    private static final int PREFETCH_COUNT = 3;
+    private static final int DEFAULT_MEMORY_BUDGET_IN_MEGABYTES = 256;
+    private static final long BYTES_PER_MEGABYTE = 1024 * 1024;
+    private static final long UNKNOWN_SCAN_SIZE_IN_BYTES = 32 * BYTES_PER_MEGABYTE;
+
+    private final ScanFacade scanFacade;
+    private final ScanMediaPlayerPool playerPool;
+    private final ScanTransitionModel transitionModel;
+    private final EDUS2Configuration configuration;
+
+    @Inject
+    public ScanPrefetcher(ScanFacade scanFacade, ScanMediaPlayerPool playerPool, ScanTransitionModel transitionModel, EDUS2Configuration configuration) {
+        this.scanFacade = scanFacade;
+        this.playerPool = playerPool;
+        this.transitionModel = transitionModel;
+        this.configuration = configuration;
+        scanFacade.registerScansListener(scans -> Platform.runLater(this::prefetch));
+    }
+
+    /**
+     * Records that the given scan is being played and loads the scans most likely to follow it.
+     */
+    public void scanPlayed(Scan scan) {
+        transitionModel.record(scan.getScanEnum());
+        prefetch();
+    }
+
+    /**
+     * Keeps the current scan and the scans most likely to follow it loaded, disposing of every other player.
+     */
+    public void prefetch() {
+        ManikinScanEnum currentLocation = transitionModel.getLastLocation();
+        List<Scan> retainedScans = new ArrayList<>();
+        Optional.ofNullable(currentLocation).flatMap(scanFacade::getScan).ifPresent(retainedScans::add);
+
+        long budget = configuration.getPrefetchMemoryBudget().orElse(DEFAULT_MEMORY_BUDGET_IN_MEGABYTES) * BYTES_PER_MEGABYTE;
+        long used = 0;
+        int prefetched = 0;
+        for (ManikinScanEnum location : transitionModel.rankNext(currentLocation)) {
+            Optional<Scan> scan = scanFacade.getScan(location);
+            if (prefetched == PREFETCH_COUNT) {
+                break;
+            } else if (!scan.isPresent()) {
+                continue;
+            }
+
+            long size = estimateSize(scan.get());
+            if (used + size <= budget) {
+                retainedScans.add(scan.get());
+                used += size;
+                prefetched++;
+            }
+        }
+        playerPool.retain(retainedScans);
+    }
+
+    private long estimateSize(Scan scan) {
+        return scan.getMetadata().map(ScanMetadata::getSizeInBytes).orElse(UNKNOWN_SCAN_SIZE_IN_BYTES);
+    }
+}
@@ -15,35 +15,52 @@ package edus2.adapter.ui;/*
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
-import javafx.application.Platform;
+import edus2.domain.ScanMetadata;
+import javafx.animation.AnimationTimer;
 import javafx.scene.control.ProgressBar;
 import javafx.scene.media.MediaPlayer;
 
-import java.util.concurrent.atomic.AtomicBoolean;
-
 import static edus2.adapter.ui.ListenableMediaPlayer.ListenableMediaPlayerEventEnum.*;
 
-public class ScanProgressUpdater extends Thread {
+/**
+ * Moves the progress bar along with the playing scan once per frame. The timer only runs while a scan is playing, so
+ * nothing is done while playback is paused, stopped or finished.
+ */
+public class ScanProgressUpdater extends AnimationTimer {
     private ListenableMediaPlayer listenableMediaPlayer;
     private ProgressBar progressBar;
-    private AtomicBoolean videoPlaying = new AtomicBoolean(false);
-
 
     public ScanProgressUpdater(ListenableMediaPlayer listenableMediaPlayer, ProgressBar progressBar) {
         this.listenableMediaPlayer = listenableMediaPlayer;
         this.progressBar = progressBar;
-        listenableMediaPlayer.registerListener(ON_PLAYING, mediaView -> videoPlaying.set(true));
-        listenableMediaPlayer.registerListener(ON_PAUSED, mediaView -> videoPlaying.set(false));
-        listenableMediaPlayer.registerListener(ON_STOPPED, mediaView -> videoPlaying.set(false));
-        listenableMediaPlayer.registerListener(ON_END_OF_MEDIA, mediaView -> videoPlaying.set(false));
+        listenableMediaPlayer.registerListener(ON_PLAYING, mediaView -> start());
+        listenableMediaPlayer.registerListener(ON_PAUSED, mediaView -> stopAndUpdate());
+        listenableMediaPlayer.registerListener(ON_STOPPED, mediaView -> stopAndUpdate());
+        listenableMediaPlayer.registerListener(ON_END_OF_MEDIA, mediaView -> stopAndUpdate());
+    }
+
+    @Override
+    public void handle(long now) {
+        updateProgress();
+    }
+
+    private void stopAndUpdate() {
+        stop();
+        updateProgress();
     }
 
-    public void run() {
+    private void updateProgress() {
         if (listenableMediaPlayer.getMediaPlayer().isPresent()) {
             MediaPlayer mediaPlayer = listenableMediaPlayer.getMediaPlayer().get();
-            double currentProgress = mediaPlayer.getCurrentTime().toSeconds() / mediaPlayer.getTotalDuration().toSeconds();
-            Platform.runLater(() -> progressBar.setProgress(currentProgress));
+            // A single cycle, as looping scans restart their current time at each loop
+            double durationInSeconds = listenableMediaPlayer.getScanMetadata()
+                    .map(ScanMetadata::getDurationMillis)
+                    .filter(durationMillis -> durationMillis > 0)
+                    .map(durationMillis -> durationMillis / 1000.0)
+                    .orElseGet(() -> mediaPlayer.getCycleDuration().toSeconds());
+            if (durationInSeconds > 0 && !Double.isInfinite(durationInSeconds)) {
+                progressBar.setProgress(mediaPlayer.getCurrentTime().toSeconds() / durationInSeconds);
+            }
         }
     }
-
 }
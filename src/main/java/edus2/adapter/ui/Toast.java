@@ -1,58 +1,43 @@
 package edus2.adapter.ui;
 
-import com.google.inject.Inject;
 import javafx.animation.KeyFrame;
 import javafx.animation.KeyValue;
 import javafx.animation.Timeline;
-import javafx.scene.Scene;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
+import javafx.scene.layout.Region;
 import javafx.scene.layout.StackPane;
-import javafx.scene.paint.Color;
-import javafx.stage.Stage;
-import javafx.stage.StageStyle;
 import javafx.util.Duration;
 
-public final class Toast {
+/**
+ * Briefly shows an icon over the scan being played. The toast is a single node layered over the main display, so
+ * showing it creates nothing; showing it again while it is still visible restarts the fade from where it is.
+ */
+public final class Toast extends StackPane {
 
-    private Stage parentStage;
     private static final int FADE_IN_DELAY_MILLIS = 250;
     private static final int FADE_OUT_DELAY_MILLIS = 250;
+    private final ImageView imageView;
+    private final Timeline fadeTimeline;
 
-    @Inject
-    public Toast(Stage parentStage) {
-        this.parentStage = parentStage;
-    }
-
-    public void display(Image image) {
-        Stage toastStage = new Stage();
-        toastStage.initOwner(parentStage);
-        toastStage.setResizable(false);
-        toastStage.initStyle(StageStyle.TRANSPARENT);
-
-        ImageView imageView = new ImageView(image);
+    public Toast() {
+        imageView = new ImageView();
         imageView.setPreserveRatio(true);
         imageView.setFitWidth(50);
-        StackPane root = new StackPane(imageView);
-        root.setStyle("-fx-background-radius: 20; -fx-background-color: #2F302F; -fx-padding: 15px;");
-        root.setOpacity(0);
-
-        Scene scene = new Scene(root);
-        scene.setFill(Color.TRANSPARENT);
-        toastStage.setScene(scene);
-        toastStage.show();
+        getChildren().add(imageView);
+        setStyle("-fx-background-radius: 20; -fx-background-color: #2F302F; -fx-padding: 15px;");
+        setMaxSize(Region.USE_PREF_SIZE, Region.USE_PREF_SIZE);
+        setMouseTransparent(true);
+        setOpacity(0);
+
+        // Without a key frame at the start, the fade in begins at the current opacity
+        fadeTimeline = new Timeline(
+                new KeyFrame(Duration.millis(FADE_IN_DELAY_MILLIS), new KeyValue(opacityProperty(), 1)),
+                new KeyFrame(Duration.millis(FADE_IN_DELAY_MILLIS + FADE_OUT_DELAY_MILLIS), new KeyValue(opacityProperty(), 0)));
+    }
 
-        Timeline fadeInTimeline = new Timeline();
-        KeyFrame fadeInKey1 = new KeyFrame(Duration.millis(FADE_IN_DELAY_MILLIS), new KeyValue(toastStage.getScene().getRoot().opacityProperty(), 1));
-        fadeInTimeline.getKeyFrames().add(fadeInKey1);
-        fadeInTimeline.setOnFinished((ae) ->
-                new Thread(() -> {
-                    Timeline fadeOutTimeline = new Timeline();
-                    KeyFrame fadeOutKey1 = new KeyFrame(Duration.millis(FADE_OUT_DELAY_MILLIS), new KeyValue(toastStage.getScene().getRoot().opacityProperty(), 0));
-                    fadeOutTimeline.getKeyFrames().add(fadeOutKey1);
-                    fadeOutTimeline.setOnFinished((aeb) -> toastStage.close());
-                    fadeOutTimeline.play();
-                }).start());
-        fadeInTimeline.play();
+    public void display(Image image) {
+        imageView.setImage(image);
+        fadeTimeline.playFromStart();
     }
-}
\ No newline at end of file
+}
@@ -1,13 +1,23 @@
 package edus2.adapter.ui.handler.frontpage;
 
 import com.google.inject.Inject;
+import edus2.adapter.input.RepeatReadFilter;
+import edus2.adapter.input.ScanInputDecoder;
+import edus2.adapter.ui.DoubleBufferedMediaView;
 import edus2.adapter.ui.ListenableMediaPlayer;
+import edus2.adapter.ui.ScanMediaPlayerPool;
+import edus2.adapter.ui.ScanPrefetcher;
 import edus2.adapter.ui.Toast;
 import edus2.application.ManikinFacade;
 import edus2.application.ScanFacade;
+import edus2.application.diagnostics.LoopStallMonitor;
+import edus2.application.diagnostics.PlaybackLatencyRecorder;
+import edus2.application.diagnostics.PlaybackStage;
 import edus2.domain.EDUS2Configuration;
 import edus2.domain.ManikinScanEnum;
 import edus2.domain.Scan;
+import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
 import javafx.scene.image.Image;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
@@ -15,6 +25,7 @@ import javafx.scene.layout.BorderPane;
 import javafx.scene.media.Media;
 import javafx.scene.media.MediaPlayer;
 import javafx.scene.media.MediaView;
+import javafx.util.Duration;
 
 import java.util.Optional;
 
@@ -29,34 +40,56 @@ public class ScanPlaybackHandler {
     private final Image PAUSE_IMAGE = new Image(ScanPlaybackHandler.class.getResourceAsStream("/img/playback/pause-icon.png"));
 
     private final BorderPane mainDisplayPane;
+    private final DoubleBufferedMediaView videoView;
     private final ListenableMediaPlayer listenableMediaPlayer;
+    private final ScanMediaPlayerPool playerPool;
+    private final ScanPrefetcher prefetcher;
     private ManikinFacade manikinFacade;
     private final ScanFacade scanFacade;
     private EDUS2Configuration configuration;
     private Toast toast;
-    private String currentScan;
-    private ManikinScanEnum currentLocationPlaying = null;
+    private final PlaybackLatencyRecorder latencyRecorder;
+    private final ScanInputDecoder scanInputDecoder;
+    private final RepeatReadFilter repeatReadFilter;
+    private final LoopStallMonitor loopStallMonitor;
+    private final ChangeListener<Duration> loopPositionListener;
+    private Scan currentScanPlaying = null;
 
     @Inject
-    public ScanPlaybackHandler(BorderPane mainDisplayPane, ListenableMediaPlayer listenableMediaPlayer, ManikinFacade manikinFacade, ScanFacade scanFacade,
-                               EDUS2Configuration configuration, Toast toast) {
+    public ScanPlaybackHandler(BorderPane mainDisplayPane, DoubleBufferedMediaView videoView, ListenableMediaPlayer listenableMediaPlayer, ScanMediaPlayerPool playerPool,
+                               ScanPrefetcher prefetcher, ManikinFacade manikinFacade, ScanFacade scanFacade, EDUS2Configuration configuration, Toast toast,
+                               PlaybackLatencyRecorder latencyRecorder, ScanInputDecoder scanInputDecoder,
+                               RepeatReadFilter repeatReadFilter, LoopStallMonitor loopStallMonitor) {
         this.mainDisplayPane = mainDisplayPane;
+        this.videoView = videoView;
         this.listenableMediaPlayer = listenableMediaPlayer;
+        this.playerPool = playerPool;
+        this.prefetcher = prefetcher;
         this.manikinFacade = manikinFacade;
         this.scanFacade = scanFacade;
         this.configuration = configuration;
         this.toast = toast;
+        this.latencyRecorder = latencyRecorder;
+        this.scanInputDecoder = scanInputDecoder;
+        this.repeatReadFilter = repeatReadFilter;
+        this.loopStallMonitor = loopStallMonitor;
+        this.loopPositionListener = (observable, oldPosition, newPosition) -> reportLoopPosition(newPosition);
         registerPlaybackListeners();
-        currentScan = "";
+        scanInputDecoder.registerTagListener(this::processScanRequest);
+        scanFacade.registerScansListener(scans -> Platform.runLater(this::switchReplacedScan));
+        prefetcher.prefetch();
     }
 
+    /**
+     * A space typed while a tag is being read is part of the tag, not a request to pause or resume playback.
+     */
     public void handle(KeyEvent event) {
         if (event.getCode() == KeyCode.ENTER) {
-            processScanRequest();
-        } else if (event.getCode() == KeyCode.SPACE) {
+            scanInputDecoder.terminatorTyped();
+        } else if (event.getCode() == KeyCode.SPACE && !scanInputDecoder.hasPartialInput()) {
             toggleVideoPlayStatus();
-        } else {
-            currentScan += event.getText();
+        } else if (!event.getText().isEmpty()) {
+            scanInputDecoder.keyTyped(event.getText().charAt(0));
         }
     }
 
@@ -76,56 +109,120 @@ public class ScanPlaybackHandler {
         }
     }
 
-    private void processScanRequest() {
-        Optional<ManikinScanEnum> scanTagLocationOptional = manikinFacade.getScanTagLocation(currentScan);
+    private void processScanRequest(String scanTag) {
+        if (!repeatReadFilter.accept(scanTag)) {
+            return;
+        }
+
+        latencyRecorder.keyReceived();
+        Optional<ManikinScanEnum> scanTagLocationOptional = manikinFacade.getScanTagLocation(scanTag);
         if (!scanTagLocationOptional.isPresent()) {
-            currentScan = "";
+            latencyRecorder.abandon();
             return;
         }
+        latencyRecorder.mark(PlaybackStage.TAG_RESOLVED);
 
         Optional<Scan> scanOptional = scanFacade.getScan(scanTagLocationOptional.get());
         if (scanOptional.isPresent() && !isScanPlaying(scanOptional.get())) {
+            latencyRecorder.mark(PlaybackStage.SCAN_RESOLVED);
             playScan(scanOptional.get());
+        } else {
+            latencyRecorder.abandon();
         }
-        currentScan = "";
     }
 
     private void playScan(Scan scan) {
-        stopPlayer();
-        String scanPath = scan.getPath();
-        currentLocationPlaying = scan.getScanEnum();
-        Media video = new Media(scanPath);
-        MediaPlayer mediaPlayer = new MediaPlayer(video);
-        MediaView videoView = new MediaView(mediaPlayer);
-        listenableMediaPlayer.setMedia(videoView);
-        mainDisplayPane.setCenter(videoView);
+        showScan(scan);
+        prefetcher.scanPlayed(scan);
     }
 
-    private void stopPlayer() {
-        listenableMediaPlayer.getMediaPlayer().ifPresent(MediaPlayer::stop);
+    /**
+     * Switches to the new clip straight away when the scan being played is replaced, as happens when a scenario's
+     * timeline moves on. The switch is not counted as a scan by the prefetcher.
+     */
+    private void switchReplacedScan() {
+        if (currentScanPlaying == null) {
+            return;
+        }
+
+        scanFacade.getScan(currentScanPlaying.getScanEnum())
+                .filter(scan -> !scan.getPath().equals(currentScanPlaying.getPath()))
+                .ifPresent(this::showScan);
+    }
+
+    /**
+     * The scan playing now stays on screen, and keeps playing, until the new scan is playing in the hidden view.
+     */
+    private void showScan(Scan scan) {
+        listenableMediaPlayer.getMediaPlayer().ifPresent(mp -> mp.currentTimeProperty().removeListener(loopPositionListener));
+        currentScanPlaying = scan;
+        MediaPlayer mediaPlayer = playerPool.acquire(scan);
+        latencyRecorder.mark(PlaybackStage.MEDIA_CREATED);
+        setLooping(mediaPlayer, configuration.isScanLoopingEnabled());
+        MediaView loadedView = videoView.load(mediaPlayer);
+        scan.getMetadata().ifPresent(metadata -> sizeVideo(loadedView, metadata.getWidth(), metadata.getHeight()));
+        listenableMediaPlayer.setMedia(loadedView, scan.getMetadata().orElse(null));
+        if (mainDisplayPane.getCenter() != videoView) {
+            mainDisplayPane.setCenter(videoView);
+        }
+    }
+
+    /**
+     * Looping is left to the player, which wraps back to the start within the media pipeline rather than ending and
+     * being restarted, so there is no gap at the loop point. The stall at each wrap is measured regardless.
+     */
+    private void setLooping(MediaPlayer mediaPlayer, boolean looping) {
+        mediaPlayer.setCycleCount(looping ? MediaPlayer.INDEFINITE : 1);
+        loopStallMonitor.restart();
+        if (looping) {
+            mediaPlayer.currentTimeProperty().addListener(loopPositionListener);
+        }
+    }
+
+    private void reportLoopPosition(Duration position) {
+        listenableMediaPlayer.getMediaPlayer().ifPresent(mp -> loopStallMonitor.positionChanged(toMicros(position), toMicros(mp.getCycleDuration())));
+    }
+
+    private static long toMicros(Duration duration) {
+        return (long) (duration.toMillis() * 1000);
     }
 
     private boolean isScanPlaying(Scan scan) {
         return listenableMediaPlayer.getMediaPlayer()
                 .map(mp -> mp.getStatus().equals(PLAYING))
                 .orElse(false)
-                && scan.getScanEnum().equals(currentLocationPlaying);
+                && currentScanPlaying != null
+                && scan.getScanEnum().equals(currentScanPlaying.getScanEnum());
     }
 
     private void registerPlaybackListeners() {
         listenableMediaPlayer.registerListener(ListenableMediaPlayer.ListenableMediaPlayerEventEnum.ON_READY, ((mediaView) -> {
-            Media video = mediaView.getMediaPlayer().getMedia();
-            mediaView.setPreserveRatio(false);
-            int minVideoWidth = configuration.getMinimumVideoWidth().orElse(DEFAULT_MINIMUM_VIDEO_WIDTH_IN_PIXELS);
-            int minVideoHeight = configuration.getMinimumVideoHeight().orElse(DEFAULT_MINIMUM_VIDEO_HEIGHT_IN_PIXELS);
-            double windowWidth = mainDisplayPane.getWidth();
-            double windowHeight = mainDisplayPane.getHeight();
-            mediaView.setFitWidth(calculateVideoDimension(minVideoWidth, video.getWidth(), windowWidth));
-            mediaView.setFitHeight(calculateVideoDimension(minVideoHeight, video.getHeight(), windowHeight));
+            latencyRecorder.mark(PlaybackStage.READY);
+            // Scans imported with metadata were sized before they were loaded
+            if (!listenableMediaPlayer.getScanMetadata().isPresent()) {
+                Media video = mediaView.getMediaPlayer().getMedia();
+                sizeVideo(mediaView, video.getWidth(), video.getHeight());
+            }
             listenableMediaPlayer.getMediaPlayer().ifPresent(MediaPlayer::play);
         }));
 
-        listenableMediaPlayer.registerListener(ListenableMediaPlayer.ListenableMediaPlayerEventEnum.ON_END_OF_MEDIA, (mp) -> currentLocationPlaying = null);
+        listenableMediaPlayer.registerListener(ListenableMediaPlayer.ListenableMediaPlayerEventEnum.ON_PLAYING, (mp) -> {
+            videoView.showLoaded();
+            latencyRecorder.mark(PlaybackStage.PLAYING);
+        });
+        listenableMediaPlayer.registerListener(ListenableMediaPlayer.ListenableMediaPlayerEventEnum.ON_END_OF_MEDIA, (mp) -> currentScanPlaying = null);
+        listenableMediaPlayer.registerListener(ListenableMediaPlayer.ListenableMediaPlayerEventEnum.ON_PAUSED, (mp) -> loopStallMonitor.restart());
+        listenableMediaPlayer.registerListener(ListenableMediaPlayer.ListenableMediaPlayerEventEnum.ON_STOPPED, (mp) -> loopStallMonitor.restart());
+    }
+
+    private void sizeVideo(MediaView mediaView, int videoWidth, int videoHeight) {
+        mediaView.setPreserveRatio(false);
+        int minVideoWidth = configuration.getMinimumVideoWidth().orElse(DEFAULT_MINIMUM_VIDEO_WIDTH_IN_PIXELS);
+        int minVideoHeight = configuration.getMinimumVideoHeight().orElse(DEFAULT_MINIMUM_VIDEO_HEIGHT_IN_PIXELS);
+        double windowWidth = mainDisplayPane.getWidth();
+        double windowHeight = mainDisplayPane.getHeight();
+        mediaView.setFitWidth(calculateVideoDimension(minVideoWidth, videoWidth, windowWidth));
+        mediaView.setFitHeight(calculateVideoDimension(minVideoHeight, videoHeight, windowHeight));
     }
 
     private double calculateVideoDimension(int minimumSize, int videoSize, double screenSize) {
@@ -1,18 +1,30 @@
 package edus2.adapter.ui.handler.frontpage;
 
+import edus2.application.diagnostics.PlaybackLatencyRecorder;
 import javafx.scene.layout.BorderPane;
 import javafx.stage.Stage;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 
 public class ShutdownHandler extends FrontpageHandler {
+    private static final String DIAGNOSTICS_DIRECTORY_NAME = "edus2j";
+    private static final DateTimeFormatter REPORT_TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
     private final Stage stage;
     private final ExecutorService threadPool;
+    private final PlaybackLatencyRecorder latencyRecorder;
 
-    public ShutdownHandler(BorderPane mainDisplayPane, Stage stage, ExecutorService threadPool) {
+    public ShutdownHandler(BorderPane mainDisplayPane, Stage stage, ExecutorService threadPool, PlaybackLatencyRecorder latencyRecorder) {
         super(mainDisplayPane);
         this.stage = stage;
         this.threadPool = threadPool;
+        this.latencyRecorder = latencyRecorder;
     }
 
     @Override
@@ -24,5 +36,16 @@ public class ShutdownHandler extends FrontpageHandler {
 
     private void handleShutdown() {
         threadPool.shutdownNow();
+        dumpLatencyReport();
+    }
+
+    private void dumpLatencyReport() {
+        String directory = Optional.ofNullable(System.getenv("APPDATA")).orElse(System.getProperty("user.home"));
+        Path reportFile = Paths.get(directory, DIAGNOSTICS_DIRECTORY_NAME, String.format("latency-%s.txt", LocalDateTime.now().format(REPORT_TIMESTAMP_FORMAT)));
+        try {
+            latencyRecorder.dumpReport(reportFile);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
     }
 }
@@ -1,25 +1,30 @@
 package edus2.adapter.ui.handler.settings;
 
+import edus2.adapter.ui.ScanInspectionDialog;
 import edus2.application.ScanFacade;
 import edus2.domain.EDUS2Configuration;
 import edus2.domain.ManikinScanEnum;
 import edus2.domain.Scan;
+import edus2.domain.ScanMetadata;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 
 import javax.inject.Inject;
 import java.io.File;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 public class AddScanHandler extends ScanHandler {
 
     protected final EDUS2Configuration configuration;
+    protected final ScanInspectionDialog inspectionDialog;
 
     @Inject
-    public AddScanHandler(ScanFacade scanFacade, EDUS2Configuration configuration) {
+    public AddScanHandler(ScanFacade scanFacade, EDUS2Configuration configuration, ScanInspectionDialog inspectionDialog) {
         super(scanFacade);
         this.configuration = configuration;
+        this.inspectionDialog = inspectionDialog;
     }
 
     @Override
@@ -33,7 +38,8 @@ public class AddScanHandler extends ScanHandler {
     public void process(List<Scan> selectedScans, Stage stage) {
         File selected = promptForScanFile(stage);
         if (selected != null) {
-            promptForScanIdAndSaveScan(selected);
+            ScanMetadata metadata = requirePlayable(inspectionDialog.inspect(Collections.singletonList(selected), stage).get(0));
+            promptForScanIdAndSaveScan(selected, metadata);
         }
     }
 
@@ -44,7 +50,7 @@ public class AddScanHandler extends ScanHandler {
         return browser.showOpenDialog(stage);
     }
 
-    protected void promptForScanIdAndSaveScan(File file) {
+    protected void promptForScanIdAndSaveScan(File file, ScanMetadata metadata) {
         boolean added = false;
         while (!added) {
             String convertedFilePath = convertFilePath(file.getPath());
@@ -53,7 +59,7 @@ public class AddScanHandler extends ScanHandler {
                 break;
             }
 
-            added = addScan(scanLocationOptional.get(), convertedFilePath);
+            added = addScan(scanLocationOptional.get(), convertedFilePath, metadata);
         }
     }
 
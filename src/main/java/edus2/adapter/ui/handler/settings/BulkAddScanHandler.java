@@ -1,15 +1,25 @@
 package edus2.adapter.ui.handler.settings;
 
 import com.google.inject.Inject;
+import edus2.adapter.media.ScanInspection;
+import edus2.adapter.ui.ScanInspectionDialog;
+import edus2.adapter.ui.ScanLocationReviewDialog;
 import edus2.application.ScanFacade;
+import edus2.application.ScanFileNameMatcher;
 import edus2.domain.EDUS2Configuration;
 import edus2.domain.ManikinScanEnum;
 import edus2.domain.Scan;
+import edus2.domain.ScanMetadata;
+import javafx.scene.control.Alert;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -17,8 +27,8 @@ import java.util.stream.Collectors;
 public class BulkAddScanHandler extends AddScanHandler {
 
     @Inject
-    public BulkAddScanHandler(ScanFacade scanFacade, EDUS2Configuration configuration) {
-        super(scanFacade, configuration);
+    public BulkAddScanHandler(ScanFacade scanFacade, EDUS2Configuration configuration, ScanInspectionDialog inspectionDialog) {
+        super(scanFacade, configuration, inspectionDialog);
     }
 
 
@@ -45,9 +55,66 @@ public class BulkAddScanHandler extends AddScanHandler {
             throw new RuntimeException(String.format("You've selected too many videos: you can only link videos to the following locations: %s", unusedLocations));
         }
 
-        for (File current : selected) {
-            promptForScanIdAndSaveScan(current);
+        List<ScanInspection> inspections = inspectionDialog.inspect(selected, stage);
+        reportUnplayableVideos(inspections);
+
+        Map<File, ScanMetadata> playableVideos = new LinkedHashMap<>();
+        inspections.stream()
+                .filter(ScanInspection::isPlayable)
+                .forEach(inspection -> playableVideos.put(inspection.getVideo(), inspection.getMetadata().get()));
+        List<File> videos = new ArrayList<>(playableVideos.keySet());
+        Set<ManikinScanEnum> availableLocations = scanFacade.getUnusedScanEnums();
+        Map<File, ManikinScanEnum> suggestedLocations = createFileNameMatcher().assign(videos, availableLocations);
+
+        // Every location is chosen before any is committed, so the whole batch is saved with a single write
+        Optional<Map<File, ManikinScanEnum>> chosenLocations = reviewScanLocations(videos, availableLocations, suggestedLocations);
+        if (!chosenLocations.isPresent() || chosenLocations.get().isEmpty()) {
+            return;
+        }
+
+        List<Scan> scansToAdd = new ArrayList<>();
+        chosenLocations.get().forEach((video, scanLocation) ->
+                scansToAdd.add(new Scan(scanLocation, convertFilePath(video.getPath()), playableVideos.get(video))));
+        addScans(scansToAdd);
+    }
+
+    /**
+     * Aliases that cannot be read are not saved by the configuration window, but the file may have been edited by
+     * hand; in that case only location names are matched.
+     */
+    private ScanFileNameMatcher createFileNameMatcher() {
+        Map<String, ManikinScanEnum> aliases;
+        try {
+            aliases = ScanFileNameMatcher.parseAliases(configuration.getScanFileNameAliases().orElse(""));
+        } catch (IllegalArgumentException e) {
+            aliases = Collections.emptyMap();
+        }
+        return new ScanFileNameMatcher(aliases);
+    }
+
+    protected Optional<Map<File, ManikinScanEnum>> reviewScanLocations(List<File> videos, Set<ManikinScanEnum> availableLocations, Map<File, ManikinScanEnum> suggestedLocations) {
+        return new ScanLocationReviewDialog(videos, availableLocations, suggestedLocations).showAndWait();
+    }
+
+    /**
+     * Lets the user know which videos will be left out because they cannot be played.
+     */
+    private void reportUnplayableVideos(List<ScanInspection> inspections) {
+        List<String> problems = inspections.stream()
+                .filter(inspection -> !inspection.isPlayable())
+                .map(inspection -> String.format("%s: %s", inspection.getVideo().getName(), inspection.getProblem().orElse("unknown problem")))
+                .collect(Collectors.toList());
+        if (problems.isEmpty()) {
+            return;
+        }
+
+        if (problems.size() == inspections.size()) {
+            throw new RuntimeException("None of the selected videos can be played.\n" + String.join("\n", problems));
         }
+
+        Alert alert = new Alert(Alert.AlertType.WARNING, "These videos cannot be played and will not be added:\n" + String.join("\n", problems));
+        alert.setHeaderText("Some Videos Cannot Be Played");
+        alert.showAndWait();
     }
 
     protected List<File> promptForScanFiles(Stage stage) {
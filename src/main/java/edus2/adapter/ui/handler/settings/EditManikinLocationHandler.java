@@ -46,7 +46,7 @@ public class EditManikinLocationHandler extends ScanHandler {
             }
 
             scanFacade.removeScan(scan);
-            added = addScan(scanLocationOptional.get(), scan.getPath());
+            added = addScan(scanLocationOptional.get(), scan.getPath(), scan.getMetadata().orElse(null));
         }
     }
 }
@@ -1,19 +1,24 @@
 package edus2.adapter.ui.handler.settings;
 
 import com.google.inject.Inject;
+import edus2.adapter.ui.ScanInspectionDialog;
 import edus2.application.ScanFacade;
 import edus2.domain.Scan;
+import edus2.domain.ScanMetadata;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 
 import java.io.File;
+import java.util.Collections;
 import java.util.List;
 
 public class EditScanFileHandler extends ScanHandler {
+    private final ScanInspectionDialog inspectionDialog;
 
     @Inject
-    public EditScanFileHandler(ScanFacade scanFacade) {
+    public EditScanFileHandler(ScanFacade scanFacade, ScanInspectionDialog inspectionDialog) {
         super(scanFacade);
+        this.inspectionDialog = inspectionDialog;
     }
 
     @Override
@@ -34,9 +39,10 @@ public class EditScanFileHandler extends ScanHandler {
         FileChooser browser = new FileChooser();
         File selected = browser.showOpenDialog(stage);
         if (selected != null) {
+            ScanMetadata metadata = requirePlayable(inspectionDialog.inspect(Collections.singletonList(selected), stage).get(0));
             String convertedFilePath = convertFilePath(selected.getPath());
             scanFacade.removeScan(selectedScan);
-            addScan(selectedScan.getScanEnum(), convertedFilePath);
+            addScan(selectedScan.getScanEnum(), convertedFilePath, metadata);
         }
     }
 }
@@ -1,26 +1,39 @@
 package edus2.adapter.ui.handler.settings;
 
 import com.google.inject.Inject;
-import edus2.adapter.repository.file.FileScanImportExportRepository;
+import edus2.adapter.media.ScanMediaWarmer;
+import edus2.adapter.media.ScenarioTimelineScheduler;
+import edus2.adapter.repository.file.ScenarioLibrary;
 import edus2.application.ScanFacade;
 import edus2.domain.EDUS2Configuration;
 import edus2.domain.Scan;
+import javafx.scene.control.ChoiceDialog;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public class LoadScenarioHandler extends ScanHandler {
+    private static final String BROWSE = "Browse...";
+
     private final EDUS2Configuration configuration;
-    private final FileScanImportExportRepository importExportRepository;
+    private final ScenarioLibrary scenarioLibrary;
+    private final ScanMediaWarmer mediaWarmer;
+    private final ScenarioTimelineScheduler timelineScheduler;
 
     @Inject
-    public LoadScenarioHandler(ScanFacade scanFacade, EDUS2Configuration configuration, FileScanImportExportRepository importExportRepository) {
+    public LoadScenarioHandler(ScanFacade scanFacade, EDUS2Configuration configuration, ScenarioLibrary scenarioLibrary, ScanMediaWarmer mediaWarmer,
+                               ScenarioTimelineScheduler timelineScheduler) {
         super(scanFacade);
         this.configuration = configuration;
-        this.importExportRepository = importExportRepository;
+        this.scenarioLibrary = scenarioLibrary;
+        this.mediaWarmer = mediaWarmer;
+        this.timelineScheduler = timelineScheduler;
     }
 
     @Override
@@ -30,17 +43,61 @@ public class LoadScenarioHandler extends ScanHandler {
 
     @Override
     protected void process(List<Scan> selectedScans, Stage stage) {
-        FileChooser browser = new FileChooser();
-        browser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Scenario file format (*.scn)", "*.scn"));
-        Optional<File> defaultScenarioDirectory = configuration.getDefaultScenarioDirectory();
-        defaultScenarioDirectory.filter(File::exists).ifPresent(browser::setInitialDirectory);
-        File scanFile = browser.showOpenDialog(stage);
+        Map<String, File> scenariosByName = new LinkedHashMap<>();
+        scenarioLibrary.getScenarioFiles().forEach(file -> scenariosByName.put(file.getName(), file));
+
+        File scanFile;
+        if (scenariosByName.isEmpty()) {
+            scanFile = promptForScenarioFile(stage);
+        } else {
+            Optional<String> choice = promptForLibraryScenario(scenariosByName);
+            if (!choice.isPresent()) {
+                return;
+            }
+            scanFile = BROWSE.equals(choice.get()) ? promptForScenarioFile(stage) : scenariosByName.get(choice.get());
+        }
+
         if (scanFile != null) {
             try {
-                importExportRepository.importScansFromFile(scanFile);
+                timelineScheduler.start(scenarioLibrary.activate(scanFile).getTimeline());
             } catch (Exception e) {
                 throw new RuntimeException(String.format("Encountered error while loading scenario: %s", e.getMessage()));
+            } finally {
+                scenarioLibrary.refresh();
             }
         }
     }
+
+    /**
+     * Offers the scenarios in the default scenario directory, warming each one's videos as it is picked so that they
+     * are ready by the time it is loaded.
+     */
+    private Optional<String> promptForLibraryScenario(Map<String, File> scenariosByName) {
+        List<String> choices = new ArrayList<>(scenariosByName.keySet());
+        choices.add(BROWSE);
+        ChoiceDialog<String> scenarioDialog = new ChoiceDialog<>(choices.get(0), choices);
+        scenarioDialog.setHeaderText("Choose Scenario");
+        scenarioDialog.setContentText("Which scenario would you like to load?");
+        scenarioDialog.selectedItemProperty().addListener((observable, oldValue, newValue) -> warmAhead(scenariosByName.get(newValue)));
+        warmAhead(scenariosByName.get(choices.get(0)));
+        return scenarioDialog.showAndWait();
+    }
+
+    /**
+     * The scenario is read on the library's thread, so that picking one that is not in memory does not hold up the
+     * dialog. Problems with the scenario are reported if it is loaded.
+     */
+    private void warmAhead(File scenarioFile) {
+        if (scenarioFile != null) {
+            scenarioLibrary.readAhead(scenarioFile).thenAccept(mediaWarmer::warmAhead);
+        }
+    }
+
+    protected File promptForScenarioFile(Stage stage) {
+        FileChooser browser = new FileChooser();
+        browser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Scenario file format (*.scn)", "*.scn"));
+        Optional<File> defaultScenarioDirectory = configuration.getDefaultScenarioDirectory();
+        defaultScenarioDirectory.filter(File::exists).ifPresent(browser::setInitialDirectory);
+        return browser.showOpenDialog(stage);
+    }
 }
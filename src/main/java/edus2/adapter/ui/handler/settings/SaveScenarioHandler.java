@@ -2,6 +2,7 @@ package edus2.adapter.ui.handler.settings;
 
 import com.google.inject.Inject;
 import edus2.adapter.repository.file.FileScanImportExportRepository;
+import edus2.adapter.repository.file.ScenarioLibrary;
 import edus2.application.ScanFacade;
 import edus2.domain.EDUS2Configuration;
 import edus2.domain.Scan;
@@ -16,12 +17,14 @@ import java.util.Optional;
 public class SaveScenarioHandler extends ScanHandler {
     private final EDUS2Configuration configuration;
     private final FileScanImportExportRepository importExportRepository;
+    private final ScenarioLibrary scenarioLibrary;
 
     @Inject
-    public SaveScenarioHandler(ScanFacade scanFacade, EDUS2Configuration configuration, FileScanImportExportRepository importExportRepository) {
+    public SaveScenarioHandler(ScanFacade scanFacade, EDUS2Configuration configuration, FileScanImportExportRepository importExportRepository, ScenarioLibrary scenarioLibrary) {
         super(scanFacade);
         this.configuration = configuration;
         this.importExportRepository = importExportRepository;
+        this.scenarioLibrary = scenarioLibrary;
     }
 
     @Override
@@ -39,6 +42,7 @@ public class SaveScenarioHandler extends ScanHandler {
         if (selected != null) {
             try {
                 importExportRepository.exportScansToFile(selected);
+                scenarioLibrary.refresh();
                 Alert alert = new Alert(Alert.AlertType.INFORMATION, "Scenario saved successfully!");
                 alert.showAndWait();
             } catch (Exception e) {
@@ -1,13 +1,16 @@
 package edus2.adapter.ui.handler.settings;
 
+import edus2.adapter.media.ScanInspection;
 import edus2.application.ScanFacade;
 import edus2.application.exception.EmptyScanIdException;
 import edus2.application.exception.ScanAlreadyExistsException;
 import edus2.domain.ManikinScanEnum;
 import edus2.domain.Scan;
+import edus2.domain.ScanMetadata;
 import javafx.scene.control.Alert;
 import javafx.scene.control.ChoiceDialog;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -20,8 +23,8 @@ public abstract class ScanHandler extends SettingsHandler {
         this.scanFacade = scanFacade;
     }
 
-    protected boolean addScan(ManikinScanEnum scanEnum, String path) {
-        Scan toAdd = new Scan(scanEnum, path);
+    protected boolean addScan(ManikinScanEnum scanEnum, String path, ScanMetadata metadata) {
+        Scan toAdd = new Scan(scanEnum, path, metadata);
         try {
             scanFacade.addScan(toAdd);
             return true;
@@ -32,6 +35,17 @@ public abstract class ScanHandler extends SettingsHandler {
         }
     }
 
+    protected boolean addScans(List<Scan> scans) {
+        try {
+            scanFacade.addScans(scans);
+            return true;
+        } catch (EmptyScanIdException | ScanAlreadyExistsException e) {
+            Alert alert = new Alert(Alert.AlertType.ERROR, e.getMessage());
+            alert.showAndWait();
+            return false;
+        }
+    }
+
     protected Optional<ManikinScanEnum> promptForScanLocation(String prompt) {
         Set<ManikinScanEnum> availableValues = scanFacade.getUnusedScanEnums();
         ChoiceDialog<String> scanLocationDialog = new ChoiceDialog<>(availableValues.iterator().next().getName(), availableValues.stream().map(ManikinScanEnum::getName).collect(Collectors.toSet()));
@@ -40,6 +54,14 @@ public abstract class ScanHandler extends SettingsHandler {
         return scanLocationDialog.showAndWait().map(ManikinScanEnum::findByName);
     }
 
+    /**
+     * Returns the metadata of a video that can be played, or otherwise fails with the reason it cannot.
+     */
+    protected static ScanMetadata requirePlayable(ScanInspection inspection) {
+        return inspection.getMetadata().orElseThrow(() -> new RuntimeException(String.format("%s cannot be played: %s",
+                inspection.getVideo().getName(), inspection.getProblem().orElse("unknown problem"))));
+    }
+
     protected static String convertFilePath(String originalPath) {
         return "file:///" + originalPath.replaceAll("\\\\", "/").replaceAll(" ", "%20");
     }
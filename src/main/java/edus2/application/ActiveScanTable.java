@@ -0,0 +1,58 @@
+package edus2.application;
+
+import edus2.domain.ManikinScanEnum;
+import edus2.domain.Scan;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Immutable table of the active scan for each location, indexed by the location's ordinal so that resolving a
+ * location is a single array load. Tagged with the repository revision it was built from.
+ */
+class ActiveScanTable {
+    private static final ManikinScanEnum[] LOCATIONS = ManikinScanEnum.values();
+
+    private final Scan[] scansByLocation;
+    private final long revision;
+
+    private ActiveScanTable(Scan[] scansByLocation, long revision) {
+        this.scansByLocation = scansByLocation;
+        this.revision = revision;
+    }
+
+    static ActiveScanTable of(Collection<Scan> scans, long revision) {
+        Scan[] scansByLocation = new Scan[LOCATIONS.length];
+        for (Scan scan : scans) {
+            ManikinScanEnum location = scan.getScanEnum();
+            if (location != null && scansByLocation[location.ordinal()] == null) {
+                scansByLocation[location.ordinal()] = scan;
+            }
+        }
+        return new ActiveScanTable(scansByLocation, revision);
+    }
+
+    Optional<Scan> get(ManikinScanEnum location) {
+        return Optional.ofNullable(scansByLocation[location.ordinal()]);
+    }
+
+    boolean contains(ManikinScanEnum location) {
+        return scansByLocation[location.ordinal()] != null;
+    }
+
+    Set<ManikinScanEnum> getUnusedLocations() {
+        Set<ManikinScanEnum> unusedLocations = EnumSet.noneOf(ManikinScanEnum.class);
+        for (ManikinScanEnum location : LOCATIONS) {
+            if (scansByLocation[location.ordinal()] == null) {
+                unusedLocations.add(location);
+            }
+        }
+        return unusedLocations;
+    }
+
+    long getRevision() {
+        return revision;
+    }
+}
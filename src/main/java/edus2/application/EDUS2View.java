@@ -18,8 +18,12 @@ package edus2.application;/*
 import com.google.inject.Guice;
 import com.google.inject.Injector;
 import edus2.adapter.guice.EDUS2JModule;
+import edus2.adapter.media.LocalMediaCache;
+import edus2.adapter.media.ScanMediaWarmer;
+import edus2.adapter.repository.file.ScenarioLibrary;
 import edus2.adapter.ui.ListenableMediaPlayer;
 import edus2.adapter.ui.MainControlsPane;
+import edus2.adapter.ui.Toast;
 import edus2.adapter.ui.builder.SceneBuilder;
 import edus2.adapter.ui.handler.frontpage.ScanPlaybackHandler;
 import edus2.adapter.ui.usagereporting.ReportStartupTask;
@@ -71,7 +75,7 @@ public class EDUS2View extends Application {
 
         BorderPane bottomControlsPane = injector.getInstance(MainControlsPane.class);
         StackPane controlOverlayPane = new StackPane();
-        controlOverlayPane.getChildren().addAll(main, bottomControlsPane);
+        controlOverlayPane.getChildren().addAll(main, bottomControlsPane, injector.getInstance(Toast.class));
 
         Scene scene = sceneBuilder.build(controlOverlayPane);
         stage.setHeight(720);
@@ -86,6 +90,9 @@ public class EDUS2View extends Application {
         main.requestFocus();
 
         scene.setOnKeyPressed(scanPlaybackHandler::handle);
+        injector.getInstance(ScanMediaWarmer.class).warmAll();
+        injector.getInstance(LocalMediaCache.class).cacheAll();
+        injector.getInstance(ScenarioLibrary.class).refresh();
         ensurePhoneHomeWarningAccepted(stage, injector.getInstance(ScheduledExecutorService.class));
         reportStartupToServer(injector.getInstance(ScheduledExecutorService.class));
     }
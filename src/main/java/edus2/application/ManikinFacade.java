@@ -1,15 +1,17 @@
 package edus2.application;
 
+import edus2.application.ManikinScanTagIndex.ManikinScanTagIdentifier;
+import edus2.application.exception.InvalidManikinsException;
 import edus2.domain.*;
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
 
 import javax.inject.Inject;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 public class ManikinFacade {
     private ManikinRepository manikinRepository;
+    private ManikinScanTagIndex scanTagIndex;
+    private long indexedRevision;
 
     @Inject
     public ManikinFacade(ManikinRepository manikinRepository) {
@@ -24,10 +26,55 @@ public class ManikinFacade {
         return manikinRepository.retrieveAll();
     }
 
-    public void create(Manikin manikin) {
+    public synchronized void create(Manikin manikin) {
         validateUniqueScanTags(manikin);
         validateUniqueName(manikin);
         manikinRepository.save(manikin);
+        updateScanTagIndex(index -> index.put(manikin));
+    }
+
+    /**
+     * Creates all of the given manikins with a single write. Nothing is created if any of them is invalid; the
+     * exception lists every problem found.
+     */
+    public synchronized void createAll(Collection<Manikin> manikins) {
+        List<String> problems = findCreationProblems(manikins);
+        if (!problems.isEmpty()) {
+            throw new InvalidManikinsException(problems);
+        }
+
+        manikinRepository.saveAll(manikins);
+        updateScanTagIndex(index -> manikins.forEach(index::put));
+    }
+
+    /**
+     * Checks in a single pass that the given manikins could all be created together: that no name or scan tag is
+     * already used by a stored manikin or by another manikin in the batch.
+     */
+    public synchronized List<String> findCreationProblems(Collection<Manikin> manikins) {
+        ManikinScanTagIndex index = getScanTagIndex();
+        List<String> problems = new ArrayList<>();
+        Set<String> batchNames = new HashSet<>();
+        Map<String, String> batchManikinNamesByTag = new HashMap<>();
+        for (Manikin manikin : manikins) {
+            if (index.containsManikin(manikin.getName()) || !batchNames.add(manikin.getName())) {
+                problems.add(String.format("A manikin named %s already exists!", manikin.getName()));
+            }
+
+            List<String> duplicateScanTags = new ArrayList<>();
+            for (String scanTag : manikin.getTagMap().values()) {
+                Optional<String> existingManikinName = index.find(scanTag).map(ManikinScanTagIdentifier::getManikinName);
+                if (!existingManikinName.isPresent()) {
+                    existingManikinName = Optional.ofNullable(batchManikinNamesByTag.putIfAbsent(scanTag, manikin.getName()));
+                }
+                existingManikinName.ifPresent(existing -> duplicateScanTags.add(String.format("'%s' (on manikin '%s')", scanTag, existing)));
+            }
+
+            if (!duplicateScanTags.isEmpty()) {
+                problems.add(String.format("Manikin '%s' uses scan tags that already exist: %s", manikin.getName(), String.join(", ", duplicateScanTags)));
+            }
+        }
+        return problems;
     }
 
     private void validateUniqueName(Manikin manikin) {
@@ -36,10 +83,11 @@ public class ManikinFacade {
         }
     }
 
-    public void update(Manikin manikin) {
+    public synchronized void update(Manikin manikin) {
         validateManikinExists(manikin);
         validateUniqueScanTags(manikin);
         manikinRepository.save(manikin);
+        updateScanTagIndex(index -> index.put(manikin));
     }
 
     private void validateManikinExists(Manikin manikin) {
@@ -49,10 +97,10 @@ public class ManikinFacade {
     }
 
     private boolean nameExists(String name) {
-        return getAllManikins().stream().anyMatch(m -> m.getName().equals(name));
+        return getScanTagIndex().containsManikin(name);
     }
 
-    public void rename(String currentName, String newName) {
+    public synchronized void rename(String currentName, String newName) {
         Optional<Manikin> currentManikin = manikinRepository.retrieve(currentName);
         Optional<Manikin> destinationManikinName = manikinRepository.retrieve(newName);
         if (!currentManikin.isPresent()) {
@@ -64,43 +112,55 @@ public class ManikinFacade {
         }
 
         Manikin newManikin = new Manikin(currentManikin.get().getTagMap(), newName);
+        refreshScanTagIndex();
         manikinRepository.remove(currentName);
         manikinRepository.save(newManikin);
+        updateScanTagIndex(index -> {
+            index.remove(currentName);
+            index.put(newManikin);
+        });
     }
 
-    public void remove(Manikin manikin) {
+    public synchronized void remove(Manikin manikin) {
+        refreshScanTagIndex();
         manikinRepository.remove(manikin.getName());
+        updateScanTagIndex(index -> index.remove(manikin.getName()));
     }
 
-    public Optional<ManikinScanEnum> getScanTagLocation(String scan) {
-        return getAllScanTags()
-                .stream()
-                .filter(st -> st.getScanTag().equals(scan))
-                .map(ManikinScanTagIdentifier::getScanLocation)
-                .findFirst();
+    public synchronized Optional<ManikinScanEnum> getScanTagLocation(String scan) {
+        return getScanTagIndex()
+                .find(scan)
+                .map(ManikinScanTagIdentifier::getScanLocation);
     }
 
-    private Set<ManikinScanTagIdentifier> getAllScanTags() {
-        Set<ManikinScanTagIdentifier> scanTagIdentifiers = new HashSet<>();
-        for (Manikin manikin : getAllManikins()) {
-            for (Map.Entry<ManikinScanEnum, String> scan : manikin.getTagMap().entrySet()) {
-                scanTagIdentifiers.add(new ManikinScanTagIdentifier(manikin.getName(), scan.getValue(), scan.getKey()));
-            }
+    private ManikinScanTagIndex getScanTagIndex() {
+        refreshScanTagIndex();
+        return scanTagIndex;
+    }
+
+    private void refreshScanTagIndex() {
+        long revision = manikinRepository.getRevision();
+        if (scanTagIndex == null || revision != indexedRevision) {
+            scanTagIndex = ManikinScanTagIndex.of(manikinRepository.retrieveAll());
+            indexedRevision = revision;
         }
+    }
 
-        return scanTagIdentifiers;
+    /**
+     * Applies a change this facade just made to the repository to the index, instead of rebuilding it. Callers must
+     * have brought the index up to date before changing the repository.
+     */
+    private void updateScanTagIndex(Consumer<ManikinScanTagIndex> change) {
+        change.accept(scanTagIndex);
+        indexedRevision = manikinRepository.getRevision();
     }
 
     private void validateUniqueScanTags(Manikin manikin) {
-        Set<ManikinScanTagIdentifier> otherManikinScanTags = getAllScanTags()
-                .stream()
-                .filter(st -> !st.getManikinName().equals(manikin.getName()))
-                .collect(Collectors.toSet());
+        ManikinScanTagIndex index = getScanTagIndex();
         for (String scanTag : manikin.getTagMap().values()) {
-            Optional<ManikinScanTagIdentifier> existingIdentifierOptional = otherManikinScanTags
-                    .stream()
-                    .filter(ms -> ms.getScanTag().equals(scanTag))
-                    .findFirst();
+            Optional<ManikinScanTagIdentifier> existingIdentifierOptional = index
+                    .find(scanTag)
+                    .filter(st -> !st.getManikinName().equals(manikin.getName()));
             if (existingIdentifierOptional.isPresent()) {
                 ManikinScanTagIdentifier identifier = existingIdentifierOptional.get();
                 throw new DuplicateScanTagException(String.format("Scan tag '%s' already exists on manikin '%s'",
@@ -108,50 +168,4 @@ public class ManikinFacade {
             }
         }
     }
-
-    private static class ManikinScanTagIdentifier {
-        private final String manikinName;
-        private final String scanTag;
-        private final ManikinScanEnum scanLocation;
-
-        ManikinScanTagIdentifier(String manikinName, String scanTag, ManikinScanEnum scanLocation) {
-            this.manikinName = manikinName;
-            this.scanTag = scanTag;
-            this.scanLocation = scanLocation;
-        }
-
-        String getManikinName() {
-            return manikinName;
-        }
-
-        String getScanTag() {
-            return scanTag;
-        }
-
-        ManikinScanEnum getScanLocation() {
-            return scanLocation;
-        }
-
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-
-            if (o == null || getClass() != o.getClass()) return false;
-
-            ManikinScanTagIdentifier that = (ManikinScanTagIdentifier) o;
-
-            return new EqualsBuilder()
-                    .append(manikinName, that.manikinName)
-                    .append(scanTag, that.scanTag)
-                    .isEquals();
-        }
-
-        @Override
-        public int hashCode() {
-            return new HashCodeBuilder(17, 37)
-                    .append(manikinName)
-                    .append(scanTag)
-                    .toHashCode();
-        }
-    }
 }
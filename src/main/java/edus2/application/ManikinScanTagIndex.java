@@ -0,0 +1,79 @@
+package edus2.application;
+
+import edus2.domain.Manikin;
+import edus2.domain.ManikinScanEnum;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Maps every scan tag to the manikin and location it belongs to, so resolving a tag is a single hash lookup.
+ */
+class ManikinScanTagIndex {
+    private final Map<String, ManikinScanTagIdentifier> identifiersByTag;
+    private final Map<String, Manikin> manikinsByName;
+
+    private ManikinScanTagIndex() {
+        this.identifiersByTag = new HashMap<>();
+        this.manikinsByName = new HashMap<>();
+    }
+
+    static ManikinScanTagIndex of(Collection<Manikin> manikins) {
+        ManikinScanTagIndex index = new ManikinScanTagIndex();
+        manikins.forEach(index::put);
+        return index;
+    }
+
+    Optional<ManikinScanTagIdentifier> find(String scanTag) {
+        return Optional.ofNullable(identifiersByTag.get(scanTag));
+    }
+
+    boolean containsManikin(String name) {
+        return manikinsByName.containsKey(name);
+    }
+
+    void put(Manikin manikin) {
+        remove(manikin.getName());
+        manikinsByName.put(manikin.getName(), manikin);
+        for (Map.Entry<ManikinScanEnum, String> scan : manikin.getTagMap().entrySet()) {
+            identifiersByTag.put(scan.getValue(), new ManikinScanTagIdentifier(manikin.getName(), scan.getValue(), scan.getKey()));
+        }
+    }
+
+    void remove(String name) {
+        Manikin removed = manikinsByName.remove(name);
+        if (removed == null) {
+            return;
+        }
+
+        for (String scanTag : removed.getTagMap().values()) {
+            identifiersByTag.computeIfPresent(scanTag, (tag, identifier) -> identifier.getManikinName().equals(name) ? null : identifier);
+        }
+    }
+
+    static class ManikinScanTagIdentifier {
+        private final String manikinName;
+        private final String scanTag;
+        private final ManikinScanEnum scanLocation;
+
+        ManikinScanTagIdentifier(String manikinName, String scanTag, ManikinScanEnum scanLocation) {
+            this.manikinName = manikinName;
+            this.scanTag = scanTag;
+            this.scanLocation = scanLocation;
+        }
+
+        String getManikinName() {
+            return manikinName;
+        }
+
+        String getScanTag() {
+            return scanTag;
+        }
+
+        ManikinScanEnum getScanLocation() {
+            return scanLocation;
+        }
+    }
+}
@@ -20,21 +20,62 @@ import edus2.application.exception.ScanAlreadyExistsException;
 import edus2.domain.ManikinScanEnum;
 import edus2.domain.Scan;
 import edus2.domain.ScanRepository;
+import edus2.domain.property.PropertyObserver;
 
 import javax.inject.Inject;
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
 
 public class ScanFacade {
     private ScanRepository scanRepository;
+    private volatile ActiveScanTable activeScanTable;
+    private final List<PropertyObserver<List<Scan>>> scanListeners;
+    private final List<Runnable> scansEditedListeners;
+    private volatile Map<ManikinScanEnum, Scan> scanOverrides;
 
     @Inject
     public ScanFacade(ScanRepository scanRepository) {
         this.scanRepository = scanRepository;
+        this.scanListeners = new CopyOnWriteArrayList<>();
+        this.scansEditedListeners = new CopyOnWriteArrayList<>();
+        this.scanOverrides = Collections.emptyMap();
     }
 
+    /**
+     * Registers a listener that is given the active scans whenever scans are added, removed or overridden through
+     * this facade.
+     */
+    public void registerScansListener(PropertyObserver<List<Scan>> listener) {
+        scanListeners.add(listener);
+    }
+
+    /**
+     * Registers a listener that is told whenever the saved scans are changed through this facade, which also drops
+     * every override.
+     */
+    public void registerScansEditedListener(Runnable listener) {
+        scansEditedListeners.add(listener);
+    }
+
+    public void removeScansListener(PropertyObserver<List<Scan>> listener) {
+        scanListeners.remove(listener);
+    }
+
+    /**
+     * Returns the scan played for the location: its override if it has one, otherwise its saved scan.
+     */
     public Optional<Scan> getScan(ManikinScanEnum scanEnum) {
-        return getAllScans().stream().filter(s -> s.getScanEnum().equals(scanEnum)).findFirst();
+        Scan override = scanOverrides.get(scanEnum);
+        return override != null ? Optional.of(override) : getActiveScanTable().get(scanEnum);
     }
 
     public void addScan(Scan scan) {
@@ -47,32 +88,138 @@ public class ScanFacade {
         }
 
         scanRepository.save(scan);
+        scansEdited();
+        notifyScanListeners();
     }
 
     private boolean containsScanEnum(ManikinScanEnum scanEnum) {
-        return getAllScans().stream().map(Scan::getScanEnum).anyMatch(e -> e.equals(scanEnum));
+        return getActiveScanTable().contains(scanEnum);
     }
 
+    /**
+     * Adds all of the given scans with a single write. Nothing is added if any of them is invalid.
+     */
     public void addScans(Collection<Scan> scans) {
-        scans.forEach(this::addScan);
+        ActiveScanTable table = getActiveScanTable();
+        validateScans(scans, table::contains);
+        scanRepository.saveAll(scans);
+        scansEdited();
+        notifyScanListeners();
+    }
+
+    /**
+     * Replaces every scan with the given scans in a single write. Nothing is replaced if any of them is invalid.
+     */
+    public void replaceAllScans(Collection<Scan> scans) {
+        validateScans(scans, scanEnum -> false);
+        scanRepository.replaceAll(scans);
+        scansEdited();
+        notifyScanListeners();
+    }
+
+    /**
+     * Plays the scan at its location in place of the saved scan, until the saved scans are next changed. Overrides
+     * are kept in memory only, so they are gone when the application is restarted.
+     */
+    public void overrideScan(Scan scan) {
+        if (scan.getScanEnum() == null) {
+            throw new EmptyScanIdException();
+        }
+
+        synchronized (this) {
+            Map<ManikinScanEnum, Scan> overrides = new EnumMap<>(ManikinScanEnum.class);
+            overrides.putAll(scanOverrides);
+            overrides.put(scan.getScanEnum(), scan);
+            scanOverrides = Collections.unmodifiableMap(overrides);
+        }
+        notifyScanListeners();
+    }
+
+    private void validateScans(Collection<Scan> scans, Predicate<ManikinScanEnum> isTaken) {
+        Set<ManikinScanEnum> batchScanEnums = EnumSet.noneOf(ManikinScanEnum.class);
+        for (Scan scan : scans) {
+            if (scan.getScanEnum() == null) {
+                throw new EmptyScanIdException();
+            }
+
+            if (isTaken.test(scan.getScanEnum()) || !batchScanEnums.add(scan.getScanEnum())) {
+                throw new ScanAlreadyExistsException(scan.getScanEnum());
+            }
+        }
     }
 
     public void removeScan(Scan scan) {
         scanRepository.remove(scan);
+        scansEdited();
+        notifyScanListeners();
     }
 
     public void removeAllScans() {
         scanRepository.removeAll();
+        scansEdited();
+        notifyScanListeners();
+    }
+
+    private void scansEdited() {
+        synchronized (this) {
+            scanOverrides = Collections.emptyMap();
+        }
+        for (Runnable listener : scansEditedListeners) {
+            listener.run();
+        }
     }
 
+    private void notifyScanListeners() {
+        if (scanListeners.isEmpty()) {
+            return;
+        }
+
+        List<Scan> scans = getActiveScans();
+        for (PropertyObserver<List<Scan>> listener : scanListeners) {
+            listener.valueChanged(scans);
+        }
+    }
+
+    /**
+     * Returns the saved scans, without any overrides.
+     */
     public List<Scan> getAllScans() {
         return scanRepository.retrieveAll();
     }
 
+    /**
+     * Returns the scans being played: the saved scans, with each override in place of its location's saved scan.
+     */
+    public List<Scan> getActiveScans() {
+        Map<ManikinScanEnum, Scan> overrides = scanOverrides;
+        List<Scan> scans = getAllScans();
+        if (overrides.isEmpty()) {
+            return scans;
+        }
+
+        List<Scan> activeScans = new ArrayList<>();
+        scans.stream()
+                .filter(scan -> !overrides.containsKey(scan.getScanEnum()))
+                .forEach(activeScans::add);
+        activeScans.addAll(overrides.values());
+        return activeScans;
+    }
+
     public Set<ManikinScanEnum> getUnusedScanEnums() {
-        Set<ManikinScanEnum> unusedScanEnums = new HashSet<>(Arrays.asList(ManikinScanEnum.values()));
-        Set<ManikinScanEnum> usedScanEnums = getAllScans().stream().map(Scan::getScanEnum).collect(Collectors.toSet());
-        unusedScanEnums.removeAll(usedScanEnums);
-        return unusedScanEnums;
+        return getActiveScanTable().getUnusedLocations();
+    }
+
+    /**
+     * Returns the table of active scans, rebuilding it only when the repository has changed since it was built. The
+     * revision is read before the scans, so a change that races with the rebuild just causes another rebuild.
+     */
+    private ActiveScanTable getActiveScanTable() {
+        ActiveScanTable table = activeScanTable;
+        long revision = scanRepository.getRevision();
+        if (table == null || table.getRevision() != revision) {
+            table = ActiveScanTable.of(scanRepository.retrieveAll(), revision);
+            activeScanTable = table;
+        }
+        return table;
     }
 }
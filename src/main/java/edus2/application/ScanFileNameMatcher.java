@@ -0,0 +1,128 @@
+package edus2.application;
+
+import edus2.domain.ManikinScanEnum;
+
+import java.io.File;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Works out which location a video is for from its file name. Aliases, file name patterns such as
+ * {@code *_ruq*.mp4} where {@code *} matches anything, are tried first, in order. Otherwise the file name is searched
+ * for a location's name, either as shown (right upper quadrant) or as stored (ruq), with any punctuation between
+ * words; the longest name found wins, and a tie between locations matches neither.
+ */
+public class ScanFileNameMatcher {
+    private static final String ALIAS_SEPARATOR = ";";
+    private static final String ALIAS_ASSIGNMENT = "=";
+
+    private final Map<Pattern, ManikinScanEnum> aliases;
+    private final Map<String, ManikinScanEnum> locationsByName;
+
+    public ScanFileNameMatcher(Map<String, ManikinScanEnum> aliases) {
+        this.aliases = new LinkedHashMap<>();
+        aliases.forEach((pattern, location) -> this.aliases.put(toRegex(pattern), location));
+        this.locationsByName = new HashMap<>();
+        for (ManikinScanEnum location : ManikinScanEnum.values()) {
+            locationsByName.put(normalize(location.name()), location);
+            locationsByName.put(normalize(location.getName()), location);
+        }
+    }
+
+    /**
+     * Reads aliases written as {@code pattern=Location}, separated by semicolons. Locations may be given by their
+     * name as shown or as stored.
+     *
+     * @throws IllegalArgumentException when an alias cannot be read
+     */
+    public static Map<String, ManikinScanEnum> parseAliases(String text) {
+        Map<String, ManikinScanEnum> aliases = new LinkedHashMap<>();
+        for (String alias : text.split(ALIAS_SEPARATOR)) {
+            if (alias.trim().isEmpty()) {
+                continue;
+            }
+
+            String[] parts = alias.split(ALIAS_ASSIGNMENT, 2);
+            if (parts.length != 2 || parts[0].trim().isEmpty()) {
+                throw new IllegalArgumentException(String.format("'%s' is not of the form pattern=Location", alias.trim()));
+            }
+            aliases.put(parts[0].trim(), findLocation(parts[1].trim()));
+        }
+        return aliases;
+    }
+
+    public Optional<ManikinScanEnum> match(String fileName) {
+        for (Map.Entry<Pattern, ManikinScanEnum> alias : aliases.entrySet()) {
+            if (alias.getKey().matcher(fileName).matches()) {
+                return Optional.of(alias.getValue());
+            }
+        }
+
+        String normalizedFileName = normalize(removeExtension(fileName));
+        ManikinScanEnum bestMatch = null;
+        int bestLength = 0;
+        boolean tied = false;
+        for (Map.Entry<String, ManikinScanEnum> location : locationsByName.entrySet()) {
+            String name = location.getKey();
+            if (!normalizedFileName.contains(name) || name.length() < bestLength) {
+                continue;
+            }
+
+            if (name.length() > bestLength) {
+                bestMatch = location.getValue();
+                bestLength = name.length();
+                tied = false;
+            } else if (location.getValue() != bestMatch) {
+                tied = true;
+            }
+        }
+        return tied ? Optional.empty() : Optional.ofNullable(bestMatch);
+    }
+
+    /**
+     * Matches each video to one of the available locations. No location is given to more than one video; the first
+     * video for a location gets it, and the videos left without one are not in the result.
+     */
+    public Map<File, ManikinScanEnum> assign(List<File> videos, Collection<ManikinScanEnum> availableLocations) {
+        Set<ManikinScanEnum> remainingLocations = EnumSet.noneOf(ManikinScanEnum.class);
+        remainingLocations.addAll(availableLocations);
+        Map<File, ManikinScanEnum> assignments = new LinkedHashMap<>();
+        for (File video : videos) {
+            match(video.getName())
+                    .filter(remainingLocations::remove)
+                    .ifPresent(location -> assignments.put(video, location));
+        }
+        return assignments;
+    }
+
+    private static ManikinScanEnum findLocation(String name) {
+        for (ManikinScanEnum location : ManikinScanEnum.values()) {
+            if (location.name().equalsIgnoreCase(name) || location.getName().equalsIgnoreCase(name)) {
+                return location;
+            }
+        }
+        throw new IllegalArgumentException(String.format("There is no location named '%s'", name));
+    }
+
+    /**
+     * Lower cases the text and reduces everything between words to a single space, with a space at either end, so
+     * that searching for a name only finds whole words.
+     */
+    private static String normalize(String text) {
+        return " " + text.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", " ").trim() + " ";
+    }
+
+    private static String removeExtension(String fileName) {
+        int extensionStart = fileName.lastIndexOf('.');
+        return extensionStart > 0 ? fileName.substring(0, extensionStart) : fileName;
+    }
+
+    private static Pattern toRegex(String pattern) {
+        String[] literals = pattern.split("\\*", -1);
+        StringBuilder regex = new StringBuilder(Pattern.quote(literals[0]));
+        for (int i = 1; i < literals.length; i++) {
+            regex.append(".*").append(Pattern.quote(literals[i]));
+        }
+        return Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE);
+    }
+}
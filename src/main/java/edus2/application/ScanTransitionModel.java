@@ -0,0 +1,57 @@
+package edus2.application;
+
+import edus2.domain.ManikinScanEnum;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Learns how often each scan location is followed by each other location, so that the scans most likely to be played
+ * next can be loaded ahead of time. Counts are indexed by location ordinal.
+ */
+public class ScanTransitionModel {
+    private static final ManikinScanEnum[] LOCATIONS = ManikinScanEnum.values();
+
+    private final int[][] transitionCounts;
+    private final int[] playCounts;
+    private ManikinScanEnum lastLocation;
+
+    public ScanTransitionModel() {
+        this.transitionCounts = new int[LOCATIONS.length][LOCATIONS.length];
+        this.playCounts = new int[LOCATIONS.length];
+    }
+
+    /**
+     * Records that the scan at the given location was played. Playing the same location again is not a transition.
+     */
+    public synchronized void record(ManikinScanEnum location) {
+        if (lastLocation != null && lastLocation != location) {
+            transitionCounts[lastLocation.ordinal()][location.ordinal()]++;
+        }
+        playCounts[location.ordinal()]++;
+        lastLocation = location;
+    }
+
+    public synchronized ManikinScanEnum getLastLocation() {
+        return lastLocation;
+    }
+
+    /**
+     * Ranks every other location by how likely it is to follow the given one: first by how often it has followed it,
+     * then by how often it has been played at all. With no location given, locations are ranked by play count alone.
+     */
+    public synchronized List<ManikinScanEnum> rankNext(ManikinScanEnum from) {
+        List<ManikinScanEnum> ranking = new ArrayList<>();
+        for (ManikinScanEnum location : LOCATIONS) {
+            if (location != from) {
+                ranking.add(location);
+            }
+        }
+
+        Comparator<ManikinScanEnum> byTransitions = Comparator.comparingInt(location -> from == null ? 0 : transitionCounts[from.ordinal()][location.ordinal()]);
+        Comparator<ManikinScanEnum> byPlays = Comparator.comparingInt(location -> playCounts[location.ordinal()]);
+        ranking.sort(byTransitions.thenComparing(byPlays).reversed());
+        return ranking;
+    }
+}
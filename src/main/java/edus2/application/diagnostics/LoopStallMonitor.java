@@ -0,0 +1,65 @@
+package edus2.application.diagnostics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Measures how long a looping scan stalls each time it wraps back to its start. Between two position updates either
+ * side of the loop point, the clip should have played on for as long as the wall clock moved; any wall clock time not
+ * covered by the clip is the stall, and it is added to a histogram.
+ */
+public class LoopStallMonitor {
+    private final LongSupplier clock;
+    private final LatencyHistogram stalls;
+    private long lastPositionMicros;
+    private long lastUpdateTime;
+    private boolean sampled;
+
+    public LoopStallMonitor() {
+        this(System::nanoTime);
+    }
+
+    LoopStallMonitor(LongSupplier clock) {
+        this.clock = clock;
+        this.stalls = new LatencyHistogram();
+    }
+
+    /**
+     * Reports the playing scan's position. A position before the last one reported is taken as a wrap.
+     */
+    public synchronized void positionChanged(long positionMicros, long durationMicros) {
+        long now = clock.getAsLong();
+        if (sampled && positionMicros < lastPositionMicros) {
+            long playedMicros = Math.max(0, durationMicros - lastPositionMicros) + positionMicros;
+            long elapsedMicros = TimeUnit.NANOSECONDS.toMicros(now - lastUpdateTime);
+            stalls.record(Math.max(0, elapsedMicros - playedMicros));
+        }
+        lastPositionMicros = positionMicros;
+        lastUpdateTime = now;
+        sampled = true;
+    }
+
+    /**
+     * Forgets the last position, such as when playback pauses or another scan starts, so that the time in between is
+     * not mistaken for a stall.
+     */
+    public synchronized void restart() {
+        sampled = false;
+    }
+
+    public LatencyHistogram getStalls() {
+        return stalls;
+    }
+
+    public void reset() {
+        stalls.reset();
+    }
+
+    public String formatReport() {
+        return String.format("Loop wraps: %d, stall in ms: p50 %.1f, p99 %.1f, max %.1f%n",
+                stalls.getTotalCount(),
+                stalls.getValueAtPercentile(50) / 1000.0,
+                stalls.getValueAtPercentile(99) / 1000.0,
+                stalls.getMax() / 1000.0);
+    }
+}
@@ -0,0 +1,126 @@
+package edus2.application.diagnostics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Times each scan from the reader's ENTER keystroke to its first frame playing. Every stage is timestamped with the
+ * monotonic clock, and once the scan is playing the time from the keystroke to each stage is added to that stage's
+ * histogram. A scan that never reaches playing, such as an unknown tag, is not recorded.
+ */
+public class PlaybackLatencyRecorder {
+    private static final PlaybackStage[] STAGES = PlaybackStage.values();
+    private static final long NOT_REACHED = Long.MIN_VALUE;
+
+    private final LongSupplier clock;
+    private final Map<PlaybackStage, LatencyHistogram> histograms;
+    private final long[] stageTimes;
+    private boolean measuring;
+
+    public PlaybackLatencyRecorder() {
+        this(System::nanoTime);
+    }
+
+    PlaybackLatencyRecorder(LongSupplier clock) {
+        this.clock = clock;
+        this.histograms = new EnumMap<>(PlaybackStage.class);
+        for (PlaybackStage stage : STAGES) {
+            if (stage != PlaybackStage.KEY_RECEIVED) {
+                histograms.put(stage, new LatencyHistogram());
+            }
+        }
+        this.stageTimes = new long[STAGES.length];
+    }
+
+    /**
+     * Starts timing a new scan, abandoning any scan that has not started playing yet.
+     */
+    public synchronized void keyReceived() {
+        Arrays.fill(stageTimes, NOT_REACHED);
+        stageTimes[PlaybackStage.KEY_RECEIVED.ordinal()] = clock.getAsLong();
+        measuring = true;
+    }
+
+    /**
+     * Timestamps a stage of the scan being timed. Only the first time each stage is reached counts.
+     */
+    public synchronized void mark(PlaybackStage stage) {
+        if (!measuring || stageTimes[stage.ordinal()] != NOT_REACHED) {
+            return;
+        }
+
+        stageTimes[stage.ordinal()] = clock.getAsLong();
+        if (stage == PlaybackStage.PLAYING) {
+            recordStageTimes();
+            measuring = false;
+        }
+    }
+
+    /**
+     * Stops timing the current scan without recording it.
+     */
+    public synchronized void abandon() {
+        measuring = false;
+    }
+
+    public LatencyHistogram getHistogram(PlaybackStage stage) {
+        return histograms.get(stage);
+    }
+
+    public void reset() {
+        histograms.values().forEach(LatencyHistogram::reset);
+    }
+
+    public String formatReport() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("Time from ENTER to each stage in ms, over %d scans%n", histograms.get(PlaybackStage.PLAYING).getTotalCount()));
+        report.append(String.format("%-14s %7s %8s %8s %8s %8s %8s %8s %8s%n", "Stage", "Count", "Min", "Mean", "p50", "p90", "p99", "p99.9", "Max"));
+        for (Map.Entry<PlaybackStage, LatencyHistogram> entry : histograms.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            report.append(String.format("%-14s %7d %8.1f %8.1f %8.1f %8.1f %8.1f %8.1f %8.1f%n",
+                    entry.getKey().getName(),
+                    histogram.getTotalCount(),
+                    toMillis(histogram.getMin()),
+                    histogram.getMean() / 1000.0,
+                    toMillis(histogram.getValueAtPercentile(50)),
+                    toMillis(histogram.getValueAtPercentile(90)),
+                    toMillis(histogram.getValueAtPercentile(99)),
+                    toMillis(histogram.getValueAtPercentile(99.9)),
+                    toMillis(histogram.getMax())));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Writes the report to the given file, unless nothing has been recorded.
+     */
+    public void dumpReport(Path file) throws IOException {
+        if (histograms.get(PlaybackStage.PLAYING).getTotalCount() == 0) {
+            return;
+        }
+
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Files.write(file, formatReport().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void recordStageTimes() {
+        long keyReceived = stageTimes[PlaybackStage.KEY_RECEIVED.ordinal()];
+        for (Map.Entry<PlaybackStage, LatencyHistogram> entry : histograms.entrySet()) {
+            long stageTime = stageTimes[entry.getKey().ordinal()];
+            if (stageTime != NOT_REACHED) {
+                entry.getValue().record(TimeUnit.NANOSECONDS.toMicros(stageTime - keyReceived));
+            }
+        }
+    }
+
+    private static double toMillis(long micros) {
+        return micros / 1000.0;
+    }
+}
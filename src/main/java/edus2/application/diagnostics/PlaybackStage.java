@@ -0,0 +1,23 @@
+package edus2.application.diagnostics;
+
+/**
+ * The stages a scan goes through from the reader's ENTER keystroke to its first frame playing, in order.
+ */
+public enum PlaybackStage {
+    KEY_RECEIVED("Key received"),
+    TAG_RESOLVED("Tag resolved"),
+    SCAN_RESOLVED("Scan resolved"),
+    MEDIA_CREATED("Media created"),
+    READY("Ready"),
+    PLAYING("Playing");
+
+    private final String name;
+
+    PlaybackStage(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
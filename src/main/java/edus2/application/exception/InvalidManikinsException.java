@@ -0,0 +1,28 @@
+package edus2.application.exception;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class InvalidManikinsException extends RuntimeException {
+    private static final int MAX_PROBLEMS_IN_MESSAGE = 10;
+
+    private final List<String> problems;
+
+    public InvalidManikinsException(List<String> problems) {
+        super(buildMessage(problems));
+        this.problems = new ArrayList<>(problems);
+    }
+
+    public List<String> getProblems() {
+        return problems;
+    }
+
+    private static String buildMessage(List<String> problems) {
+        StringBuilder message = new StringBuilder(String.format("Found %d problem(s), no manikins were saved:", problems.size()));
+        problems.stream().limit(MAX_PROBLEMS_IN_MESSAGE).forEach(problem -> message.append("\n").append(problem));
+        if (problems.size() > MAX_PROBLEMS_IN_MESSAGE) {
+            message.append(String.format("\n...and %d more", problems.size() - MAX_PROBLEMS_IN_MESSAGE));
+        }
+        return message.toString();
+    }
+}
@@ -10,6 +10,33 @@ public interface EDUS2Configuration {
 
     Optional<Integer> getMinimumVideoWidth();
 
+    /**
+     * The memory, in megabytes, that may be spent keeping upcoming scans loaded ahead of time.
+     */
+    Optional<Integer> getPrefetchMemoryBudget();
+
+    /**
+     * The disk space, in megabytes, that local copies of remote scan videos may take up.
+     */
+    Optional<Integer> getMediaCacheSizeLimit();
+
+    /**
+     * How long, in milliseconds, repeated reads of the same scan tag are ignored for.
+     */
+    Optional<Integer> getRepeatReadWindow();
+
+    /**
+     * File name patterns that link videos to locations when they are bulk added, written as {@code pattern=Location}
+     * and separated by semicolons.
+     */
+    Optional<String> getScanFileNameAliases();
+
+    /**
+     * Drives or folders, separated by semicolons, whose videos are always copied to the local media cache. This is for
+     * drives that are not recognised as network or removable drives, such as mapped network drives.
+     */
+    Optional<String> getCachedMediaLocations();
+
     Optional<String> getHashedPassword();
 
     Optional<String> getSaveFileLocation();
@@ -22,12 +49,27 @@ public interface EDUS2Configuration {
 
     boolean acceptedPhoneHomeWarning();
 
+    /**
+     * Whether scans loop until another scan is played, rather than stopping at the end of the clip.
+     */
+    boolean isScanLoopingEnabled();
+
     ReadableObserableProperty<Boolean> darkModeEnabledProperty();
 
     void setMinimumVideoHeight(int minimumVideoHeight);
 
     void setMinimumVideoWidth(int minimumVideoWidth);
 
+    void setPrefetchMemoryBudget(int prefetchMemoryBudget);
+
+    void setMediaCacheSizeLimit(int mediaCacheSizeLimit);
+
+    void setRepeatReadWindow(int repeatReadWindow);
+
+    void setScanFileNameAliases(String scanFileNameAliases);
+
+    void setCachedMediaLocations(String cachedMediaLocations);
+
     void setHashedPassword(String hashedPassword);
 
     void setSaveFileLocation(String saveFileLocation);
@@ -39,4 +81,6 @@ public interface EDUS2Configuration {
     void acceptPhoneHomeWarning();
 
     void setDarkModeEnabled(boolean enabled);
+
+    void setScanLoopingEnabled(boolean enabled);
 }
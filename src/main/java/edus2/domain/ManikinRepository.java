@@ -1,5 +1,6 @@
 package edus2.domain;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,5 +11,21 @@ public interface ManikinRepository {
 
     void save(Manikin manikin);
 
+    /**
+     * Saves all of the given manikins with a single write, replacing any stored manikins with the same names.
+     */
+    void saveAll(Collection<Manikin> manikins);
+
+    /**
+     * Replaces every stored manikin with the given manikins in a single write.
+     */
+    void replaceAll(Collection<Manikin> manikins);
+
     void remove(String name);
+
+    /**
+     * Returns a number that changes whenever the stored manikins change, so callers can tell when anything derived
+     * from them needs to be rebuilt.
+     */
+    long getRevision();
 }
@@ -19,17 +19,25 @@ import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 
 import java.io.Serializable;
+import java.util.Optional;
 
 
 public class Scan implements Serializable
 {
     private ManikinScanEnum scanEnum;
     private String path;
+    private ScanMetadata metadata;
 
     public Scan(ManikinScanEnum scanEnum, String path)
+    {
+        this(scanEnum, path, null);
+    }
+
+    public Scan(ManikinScanEnum scanEnum, String path, ScanMetadata metadata)
     {
         this.scanEnum = scanEnum;
         this.path = path;
+        this.metadata = metadata;
     }
 
     public ManikinScanEnum getScanEnum()
@@ -42,6 +50,15 @@ public class Scan implements Serializable
         return path;
     }
 
+    /**
+     * Only present for scans imported since metadata was recorded. Metadata plays no part in equality, as it is
+     * derived from the video the path points to.
+     */
+    public Optional<ScanMetadata> getMetadata()
+    {
+        return Optional.ofNullable(metadata);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,50 @@
+package edus2.domain;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+
+import java.io.Serializable;
+
+/**
+ * A scan that replaces the scan of its location a set time after a scenario is loaded, such as a clip showing free
+ * fluid once the patient has deteriorated.
+ */
+public class ScanChange implements Serializable {
+    private final long afterMillis;
+    private final Scan scan;
+
+    public ScanChange(long afterMillis, Scan scan) {
+        this.afterMillis = afterMillis;
+        this.scan = scan;
+    }
+
+    public long getAfterMillis() {
+        return afterMillis;
+    }
+
+    public Scan getScan() {
+        return scan;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+
+        if (o == null || getClass() != o.getClass()) return false;
+
+        ScanChange that = (ScanChange) o;
+
+        return new EqualsBuilder()
+                .append(afterMillis, that.afterMillis)
+                .append(scan, that.scan)
+                .isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder(17, 37)
+                .append(afterMillis)
+                .append(scan)
+                .toHashCode();
+    }
+}
@@ -0,0 +1,85 @@
+package edus2.domain;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+
+import java.io.Serializable;
+
+/**
+ * What was learned about a scan's video when it was imported, so that playback does not have to wait on the player
+ * to find out.
+ */
+public class ScanMetadata implements Serializable {
+    public static final long UNKNOWN_DURATION = -1;
+
+    private final long durationMillis;
+    private final int width;
+    private final int height;
+    private final String contentHash;
+    private final long sizeInBytes;
+
+    public ScanMetadata(long durationMillis, int width, int height, String contentHash, long sizeInBytes) {
+        this.durationMillis = durationMillis;
+        this.width = width;
+        this.height = height;
+        this.contentHash = contentHash;
+        this.sizeInBytes = sizeInBytes;
+    }
+
+    /**
+     * The length of the video, or {@link #UNKNOWN_DURATION} when it did not report a finite length.
+     */
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * The SHA-256 of the video file, in hex.
+     */
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    /**
+     * The size of the video file, which stands in for the memory its player uses.
+     */
+    public long getSizeInBytes() {
+        return sizeInBytes;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+
+        if (o == null || getClass() != o.getClass()) return false;
+
+        ScanMetadata that = (ScanMetadata) o;
+
+        return new EqualsBuilder()
+                .append(durationMillis, that.durationMillis)
+                .append(width, that.width)
+                .append(height, that.height)
+                .append(contentHash, that.contentHash)
+                .append(sizeInBytes, that.sizeInBytes)
+                .isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder(17, 37)
+                .append(durationMillis)
+                .append(width)
+                .append(height)
+                .append(contentHash)
+                .append(sizeInBytes)
+                .toHashCode();
+    }
+}
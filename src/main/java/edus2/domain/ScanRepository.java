@@ -1,5 +1,6 @@
 package edus2.domain;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ScanRepository {
@@ -7,7 +8,23 @@ public interface ScanRepository {
 
     void save(Scan scan);
 
+    /**
+     * Saves all of the given scans with a single write.
+     */
+    void saveAll(Collection<Scan> scans);
+
+    /**
+     * Replaces every stored scan with the given scans in a single write.
+     */
+    void replaceAll(Collection<Scan> scans);
+
     void remove(Scan scan);
 
     void removeAll();
+
+    /**
+     * Returns a number that changes whenever the stored scans change, so callers can tell when anything derived
+     * from them needs to be rebuilt.
+     */
+    long getRevision();
 }
@@ -0,0 +1,29 @@
+package edus2.domain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The scans a scenario starts with, and the changes to them that are made as it runs, in the order they are made.
+ */
+public class Scenario {
+    private final List<Scan> scans;
+    private final List<ScanChange> timeline;
+
+    public Scenario(List<Scan> scans, List<ScanChange> timeline) {
+        this.scans = Collections.unmodifiableList(new ArrayList<>(scans));
+        List<ScanChange> sortedTimeline = new ArrayList<>(timeline);
+        sortedTimeline.sort(Comparator.comparingLong(ScanChange::getAfterMillis));
+        this.timeline = Collections.unmodifiableList(sortedTimeline);
+    }
+
+    public List<Scan> getScans() {
+        return scans;
+    }
+
+    public List<ScanChange> getTimeline() {
+        return timeline;
+    }
+}
@@ -10,6 +10,7 @@ import edus2.domain.Scan;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -22,6 +23,7 @@ import static org.junit.Assert.*;
 public class ScanFacadeTest {
 
     private ScanFacade scanFacade;
+    private FileScanRepository scanRepository;
     private Scan scan;
     private Scan scanTwo;
 
@@ -29,7 +31,8 @@ public class ScanFacadeTest {
     public void setup() {
         InMemoryEDUS2Configuration configuration = new InMemoryEDUS2Configuration();
         configuration.setSaveFileLocation(randomTempFile());
-        scanFacade = new ScanFacade(new FileScanRepository(configuration));
+        scanRepository = new FileScanRepository(configuration);
+        scanFacade = new ScanFacade(scanRepository);
         scan = new Scan(ManikinScanEnum.RIGHT_LUNG, randomAlphanumericString());
         scanTwo = new Scan(ManikinScanEnum.LEFT_LUNG, randomAlphanumericString());
     }
@@ -52,6 +55,18 @@ public class ScanFacadeTest {
         assertEquals(scan, actual.get());
     }
 
+    @Test
+    public void getScan_shouldReturnScan_whenScanSavedDirectlyToRepository() {
+        // Arrange
+        scanFacade.getScan(scan.getScanEnum());
+
+        // Act
+        scanRepository.save(scan);
+
+        // Assert
+        assertEquals(Optional.of(scan), scanFacade.getScan(scan.getScanEnum()));
+    }
+
     @Test
     public void addScan_shouldSaveScan() {
         /// Act
@@ -173,4 +188,136 @@ public class ScanFacadeTest {
         assertFalse(actual.contains(ManikinScanEnum.RIGHT_LUNG));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void getUnusedScanEnums_shouldReturnAllEnums_whenAllScansRemoved() {
+        // Arrange
+        scanFacade.addScans(Lst(scan, scanTwo));
+        scanFacade.getUnusedScanEnums();
+
+        // Act
+        scanFacade.removeAllScans();
+
+        // Assert
+        assertEquals(ManikinScanEnum.values().length, scanFacade.getUnusedScanEnums().size());
+    }
+
+    @Test
+    public void addScans_shouldNotAddAnyScans_whenOneScanAlreadyExists() {
+        // Arrange
+        scanFacade.addScan(scanTwo);
+        Scan duplicate = new Scan(scanTwo.getScanEnum(), randomAlphanumericString());
+
+        // Act
+        try {
+            scanFacade.addScans(Lst(scan, duplicate));
+            fail("Expected ScanAlreadyExistsException");
+        } catch (ScanAlreadyExistsException e) {
+            // Expected
+        }
+
+        // Assert
+        assertEquals(Lst(scanTwo), scanFacade.getAllScans());
+    }
+
+    @Test(expected = ScanAlreadyExistsException.class)
+    public void addScans_shouldThrowScanAlreadyExistsException_whenBatchContainsLocationTwice() {
+        // Act
+        scanFacade.addScans(Lst(scan, new Scan(scan.getScanEnum(), randomAlphanumericString())));
+    }
+
+    @Test
+    public void replaceAllScans_shouldReplaceExistingScans() {
+        // Arrange
+        scanFacade.addScans(Lst(scan, scanTwo));
+        Scan replacement = new Scan(scan.getScanEnum(), randomAlphanumericString());
+
+        // Act
+        scanFacade.replaceAllScans(Lst(replacement));
+
+        // Assert
+        assertEquals(Lst(replacement), scanFacade.getAllScans());
+    }
+
+    @Test(expected = EmptyScanIdException.class)
+    public void replaceAllScans_shouldThrowEmptyScanIdException_whenScanHasNoLocation() {
+        // Act
+        scanFacade.replaceAllScans(Lst(scan, new Scan(null, randomAlphanumericString())));
+    }
+
+    @Test
+    public void overrideScan_shouldPlayOverrideWithoutSavingIt() {
+        // Arrange
+        scanFacade.addScans(Lst(scan, scanTwo));
+        Scan override = new Scan(scan.getScanEnum(), randomAlphanumericString());
+
+        // Act
+        scanFacade.overrideScan(override);
+
+        // Assert
+        assertEquals(Optional.of(override), scanFacade.getScan(scan.getScanEnum()));
+        assertEquals(Optional.of(scanTwo), scanFacade.getScan(scanTwo.getScanEnum()));
+        assertEquals(Lst(scan, scanTwo), scanFacade.getAllScans());
+        assertEquals(Lst(scanTwo, override), scanFacade.getActiveScans());
+    }
+
+    @Test
+    public void addScan_shouldDropOverridesAndNotifyScansEditedListeners() {
+        // Arrange
+        scanFacade.addScan(scan);
+        scanFacade.overrideScan(new Scan(scan.getScanEnum(), randomAlphanumericString()));
+        List<String> edits = new ArrayList<>();
+        scanFacade.registerScansEditedListener(() -> edits.add("edited"));
+
+        // Act
+        scanFacade.addScan(scanTwo);
+
+        // Assert
+        assertEquals(Optional.of(scan), scanFacade.getScan(scan.getScanEnum()));
+        assertEquals(Lst("edited"), edits);
+    }
+
+    @Test
+    public void addScan_shouldNotifyScansListeners() {
+        // Arrange
+        List<List<Scan>> notifications = new ArrayList<>();
+        scanFacade.registerScansListener(notifications::add);
+
+        // Act
+        scanFacade.addScan(scan);
+
+        // Assert
+        assertEquals(Lst(Lst(scan)), notifications);
+    }
+
+    @Test
+    public void removeScan_shouldNotifyScansListeners() {
+        // Arrange
+        scanFacade.addScans(Lst(scan, scanTwo));
+        List<List<Scan>> notifications = new ArrayList<>();
+        scanFacade.registerScansListener(notifications::add);
+
+        // Act
+        scanFacade.removeScan(scan);
+
+        // Assert
+        assertEquals(Lst(Lst(scanTwo)), notifications);
+    }
+
+    @Test
+    public void addScan_shouldNotNotifyScansListeners_whenScanIsRejected() {
+        // Arrange
+        scanFacade.addScan(scan);
+        List<List<Scan>> notifications = new ArrayList<>();
+        scanFacade.registerScansListener(notifications::add);
+
+        // Act
+        try {
+            scanFacade.addScan(scan);
+        } catch (ScanAlreadyExistsException e) {
+            // Expected
+        }
+
+        // Assert
+        assertTrue(notifications.isEmpty());
+    }
+}
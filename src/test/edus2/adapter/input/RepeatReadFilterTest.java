@@ -0,0 +1,104 @@
+package edus2.adapter.input;
+
+import edus2.adapter.repository.memory.InMemoryEDUS2Configuration;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RepeatReadFilterTest {
+    private long now;
+    private InMemoryEDUS2Configuration configuration;
+    private RepeatReadFilter filter;
+
+    @Before
+    public void setup() {
+        now = 0;
+        configuration = new InMemoryEDUS2Configuration();
+        configuration.setRepeatReadWindow(1000);
+        filter = new RepeatReadFilter(configuration, () -> now);
+    }
+
+    @Test
+    public void accept_shouldSuppressRepeat_whenWithinWindow() {
+        // Arrange
+        filter.accept("tag");
+        advanceMillis(500);
+
+        // Act
+        boolean actual = filter.accept("tag");
+
+        // Assert
+        assertFalse(actual);
+        assertEquals(1, filter.getSuppressedReads());
+    }
+
+    @Test
+    public void accept_shouldAcceptRepeat_whenWindowHasPassed() {
+        // Arrange
+        filter.accept("tag");
+        advanceMillis(1500);
+
+        // Act
+        boolean actual = filter.accept("tag");
+
+        // Assert
+        assertTrue(actual);
+        assertEquals(1, filter.getLateRepeatReads());
+    }
+
+    @Test
+    public void accept_shouldSuppressRepeats_whileTagKeepsBeingRead() {
+        // Arrange
+        filter.accept("tag");
+        int accepted = 0;
+
+        // Act
+        for (int read = 0; read < 25; read++) {
+            advanceMillis(200);
+            if (filter.accept("tag")) {
+                accepted++;
+            }
+        }
+
+        // Assert
+        assertEquals(0, accepted);
+        assertEquals(25, filter.getSuppressedReads());
+    }
+
+    @Test
+    public void accept_shouldAcceptDifferentTag_whenWithinWindow() {
+        // Arrange
+        filter.accept("tag");
+
+        // Act
+        boolean actual = filter.accept("other tag");
+
+        // Assert
+        assertTrue(actual);
+        assertEquals(2, filter.getAcceptedReads());
+        assertEquals(0, filter.getSuppressedReads());
+    }
+
+    @Test
+    public void accept_shouldUseDefaultWindow_whenWindowNotConfigured() {
+        // Arrange
+        filter = new RepeatReadFilter(new InMemoryEDUS2Configuration(), () -> now);
+        filter.accept("tag");
+        advanceMillis(RepeatReadFilter.DEFAULT_REPEAT_READ_WINDOW_MILLIS - 1);
+
+        // Act
+        boolean actual = filter.accept("tag");
+
+        // Assert
+        assertFalse(actual);
+    }
+
+    private void advanceMillis(long millis) {
+        now += TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
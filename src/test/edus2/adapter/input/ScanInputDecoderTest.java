@@ -0,0 +1,163 @@
+package edus2.adapter.input;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ScanInputDecoderTest {
+    private long now;
+    private List<String> scannedTags;
+    private ScanInputDecoder decoder;
+
+    @Before
+    public void setup() {
+        now = 0;
+        scannedTags = new ArrayList<>();
+        decoder = new ScanInputDecoder(() -> now, 40, 2000, "0a1b2c3d"::equals);
+        decoder.registerTagListener(scannedTags::add);
+    }
+
+    @Test
+    public void terminatorTyped_shouldPassTagToListeners_whenTagIsReadInBurst() {
+        // Arrange
+        typeBurst("0a1b2c3d");
+
+        // Act
+        decoder.terminatorTyped();
+
+        // Assert
+        assertEquals(Collections.singletonList("0a1b2c3d"), scannedTags);
+    }
+
+    @Test
+    public void terminatorTyped_shouldDropStrayKeys_whenTheyComeBeforeBurst() {
+        // Arrange
+        decoder.keyTyped('x');
+        advanceMillis(500);
+        typeBurst("0a1b2c3d");
+
+        // Act
+        decoder.terminatorTyped();
+
+        // Assert
+        assertEquals(Collections.singletonList("0a1b2c3d"), scannedTags);
+    }
+
+    @Test
+    public void terminatorTyped_shouldPassWholeInput_whenReaderPausesPartWayThroughKnownTag() {
+        // Arrange
+        typeBurst("0a1b");
+        advanceMillis(100);
+        typeBurst("2c3d");
+
+        // Act
+        decoder.terminatorTyped();
+
+        // Assert
+        assertEquals(Collections.singletonList("0a1b2c3d"), scannedTags);
+    }
+
+    @Test
+    public void terminatorTyped_shouldPassWholeInput_whenTagIsTypedByHand() {
+        // Arrange
+        for (char character : "tag1".toCharArray()) {
+            advanceMillis(200);
+            decoder.keyTyped(character);
+        }
+
+        // Act
+        advanceMillis(200);
+        decoder.terminatorTyped();
+
+        // Assert
+        assertEquals(Collections.singletonList("tag1"), scannedTags);
+    }
+
+    @Test
+    public void keyTyped_shouldDiscardPartialInput_whenInputTimesOut() {
+        // Arrange
+        typeBurst("0a1b");
+        advanceMillis(2500);
+
+        // Act
+        decoder.keyTyped('z');
+        decoder.terminatorTyped();
+
+        // Assert
+        assertEquals(Collections.singletonList("z"), scannedTags);
+    }
+
+    @Test
+    public void terminatorTyped_shouldNotPassTag_whenInputHasTimedOut() {
+        // Arrange
+        typeBurst("0a1b2c3d");
+        advanceMillis(2500);
+
+        // Act
+        decoder.terminatorTyped();
+
+        // Assert
+        assertTrue(scannedTags.isEmpty());
+        assertFalse(decoder.hasPartialInput());
+    }
+
+    @Test
+    public void terminatorTyped_shouldNotPassTag_whenNothingWasTyped() {
+        // Act
+        decoder.terminatorTyped();
+
+        // Assert
+        assertTrue(scannedTags.isEmpty());
+    }
+
+    @Test
+    public void terminatorTyped_shouldDiscardInput_whenInputIsLongerThanAnyTag() {
+        // Arrange
+        char[] tooLong = new char[ScanInputDecoder.MAXIMUM_TAG_LENGTH + 1];
+        Arrays.fill(tooLong, 'a');
+        typeBurst(new String(tooLong));
+        decoder.terminatorTyped();
+
+        // Act
+        typeBurst("0a1b2c3d");
+        decoder.terminatorTyped();
+
+        // Assert
+        assertEquals(Collections.singletonList("0a1b2c3d"), scannedTags);
+    }
+
+    @Test
+    public void hasPartialInput_shouldReturnTrue_whileTagIsBeingRead() {
+        // Arrange
+        typeBurst("0a1b");
+
+        // Act
+        boolean actual = decoder.hasPartialInput();
+
+        // Assert
+        assertTrue(actual);
+        typeBurst("2c3d");
+        decoder.terminatorTyped();
+        assertFalse(decoder.hasPartialInput());
+    }
+
+    private void typeBurst(String input) {
+        for (char character : input.toCharArray()) {
+            advanceMillis(5);
+            decoder.keyTyped(character);
+        }
+    }
+
+    private void advanceMillis(long millis) {
+        now += TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
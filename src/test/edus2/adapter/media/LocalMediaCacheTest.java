@@ -0,0 +1,247 @@
+package edus2.adapter.media;
+
+import edus2.adapter.repository.memory.InMemoryEDUS2Configuration;
+import edus2.adapter.repository.memory.InMemoryScanRepository;
+import edus2.application.ScanFacade;
+import edus2.domain.ManikinScanEnum;
+import edus2.domain.Scan;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class LocalMediaCacheTest {
+
+    private ScanFacade scanFacade;
+    private InMemoryEDUS2Configuration configuration;
+    private Path cacheDirectory;
+    private LocalMediaCache cache;
+
+    @Before
+    public void setup() throws IOException {
+        scanFacade = new ScanFacade(new InMemoryScanRepository());
+        configuration = new InMemoryEDUS2Configuration();
+        cacheDirectory = Files.createTempDirectory("media-cache");
+        cacheDirectory.toFile().deleteOnExit();
+        cache = new LocalMediaCache(scanFacade, configuration, cacheDirectory, file -> true);
+    }
+
+    @Test
+    public void resolve_shouldReturnScanPath_whenScanNotCached() throws IOException {
+        // Arrange
+        Scan scan = new Scan(ManikinScanEnum.RIGHT_LUNG, createVideo(100).toURI().toString());
+
+        // Act
+        String actual = cache.resolve(scan);
+
+        // Assert
+        assertEquals(scan.getPath(), actual);
+    }
+
+    @Test
+    public void resolve_shouldReturnLocalCopy_whenScanCached() throws Exception {
+        // Arrange
+        File video = createVideo(1000);
+        Scan scan = addScan(ManikinScanEnum.RIGHT_LUNG, video);
+
+        // Act
+        cache.cacheAll().get();
+
+        // Assert
+        File copy = new File(URI.create(cache.resolve(scan)));
+        assertTrue(copy.toPath().startsWith(cacheDirectory));
+        assertArrayEquals(Files.readAllBytes(video.toPath()), Files.readAllBytes(copy.toPath()));
+        assertTrue(copy.getName().endsWith(".mp4"));
+    }
+
+    @Test
+    public void resolve_shouldReturnLocalCopy_whenSourceUnavailableInLaterSession() throws Exception {
+        // Arrange
+        File video = createVideo(1000);
+        Scan scan = addScan(ManikinScanEnum.RIGHT_LUNG, video);
+        cache.cacheAll().get();
+        assertTrue(video.delete());
+        LocalMediaCache nextSession = new LocalMediaCache(scanFacade, configuration, cacheDirectory, file -> true);
+
+        // Act
+        nextSession.cacheAll().get();
+
+        // Assert
+        assertNotEquals(scan.getPath(), nextSession.resolve(scan));
+    }
+
+    @Test
+    public void findPlaybackFile_shouldReturnLocalCopy_whenScanCached() throws Exception {
+        // Arrange
+        Scan scan = addScan(ManikinScanEnum.RIGHT_LUNG, createVideo(1000));
+        cache.cacheAll().get();
+
+        // Act
+        Optional<File> actual = cache.findPlaybackFile(scan);
+
+        // Assert
+        assertEquals(Optional.of(new File(URI.create(cache.resolve(scan)))), actual);
+    }
+
+    @Test
+    public void findPlaybackFile_shouldReturnNothing_whenCopyNotYetMade() throws IOException {
+        // Arrange
+        Scan scan = new Scan(ManikinScanEnum.RIGHT_LUNG, createVideo(100).toURI().toString());
+
+        // Act
+        Optional<File> actual = cache.findPlaybackFile(scan);
+
+        // Assert
+        assertFalse(actual.isPresent());
+    }
+
+    @Test
+    public void findPlaybackFile_shouldReturnScanFile_whenNotRemote() throws Exception {
+        // Arrange
+        cache = new LocalMediaCache(scanFacade, configuration, Files.createTempDirectory("media-cache"), file -> false);
+        File video = createVideo(100);
+
+        // Act
+        Optional<File> actual = cache.findPlaybackFile(new Scan(ManikinScanEnum.RIGHT_LUNG, video.toURI().toString()));
+
+        // Assert
+        assertEquals(Optional.of(video), actual);
+    }
+
+    @Test
+    public void cacheAll_shouldReplaceLocalCopy_whenCopyDamaged() throws Exception {
+        // Arrange
+        File video = createVideo(1000);
+        Scan scan = addScan(ManikinScanEnum.RIGHT_LUNG, video);
+        cache.cacheAll().get();
+        Files.write(new File(URI.create(cache.resolve(scan))).toPath(), new byte[]{1, 2, 3});
+        LocalMediaCache nextSession = new LocalMediaCache(scanFacade, configuration, cacheDirectory, file -> true);
+
+        // Act
+        nextSession.cacheAll().get();
+
+        // Assert
+        File copy = new File(URI.create(nextSession.resolve(scan)));
+        assertArrayEquals(Files.readAllBytes(video.toPath()), Files.readAllBytes(copy.toPath()));
+    }
+
+    @Test
+    public void cacheAll_shouldEvictLeastRecentlyUsedCopy_whenScanWithoutCopyIsPlayed() throws Exception {
+        // Arrange
+        configuration.setMediaCacheSizeLimit(1);
+        Scan first = addScan(ManikinScanEnum.RIGHT_LUNG, createVideo(400 * 1024));
+        Scan second = addScan(ManikinScanEnum.LEFT_LUNG, createVideo(400 * 1024));
+        cache.cacheAll().get();
+        cache.resolve(first);
+        Scan third = addScan(ManikinScanEnum.CARDIAC_SC, createVideo(400 * 1024));
+        cache.cacheAll().get();
+
+        // Act
+        String thirdBeforeCaching = cache.resolve(third);
+        cache.cacheAll().get();
+
+        // Assert
+        assertEquals(third.getPath(), thirdBeforeCaching);
+        assertNotEquals(third.getPath(), cache.resolve(third));
+        assertNotEquals(first.getPath(), cache.resolve(first));
+        assertEquals(second.getPath(), cache.resolve(second));
+    }
+
+    @Test
+    public void getPlaybackSource_shouldNotCountAsUse() throws Exception {
+        // Arrange
+        configuration.setMediaCacheSizeLimit(1);
+        Scan first = addScan(ManikinScanEnum.RIGHT_LUNG, createVideo(400 * 1024));
+        Scan second = addScan(ManikinScanEnum.LEFT_LUNG, createVideo(400 * 1024));
+        cache.cacheAll().get();
+        cache.resolve(first);
+        String secondSource = cache.getPlaybackSource(second);
+        Scan third = addScan(ManikinScanEnum.CARDIAC_SC, createVideo(400 * 1024));
+        cache.cacheAll().get();
+
+        // Act
+        cache.resolve(third);
+        cache.cacheAll().get();
+
+        // Assert
+        assertNotEquals(second.getPath(), secondSource);
+        assertNotEquals(first.getPath(), cache.getPlaybackSource(first));
+        assertEquals(second.getPath(), cache.getPlaybackSource(second));
+    }
+
+    @Test
+    public void getPlaybackSource_shouldNotAskForCopy_whenScanNotCached() throws Exception {
+        // Arrange
+        Scan scan = new Scan(ManikinScanEnum.RIGHT_LUNG, createVideo(100).toURI().toString());
+
+        // Act
+        String actual = cache.getPlaybackSource(scan);
+        cache.cacheAll().get();
+
+        // Assert
+        assertEquals(scan.getPath(), actual);
+        assertEquals(scan.getPath(), cache.getPlaybackSource(scan));
+    }
+
+    @Test
+    public void isInLocations_shouldReturnTrue_whenFileInConfiguredFolder() throws IOException {
+        // Arrange
+        File video = createVideo(100);
+        String locations = "  ; " + new File("elsewhere").getAbsolutePath() + "; " + video.getParent();
+
+        // Act
+        boolean actual = LocalMediaCache.isInLocations(video, locations);
+
+        // Assert
+        assertTrue(actual);
+    }
+
+    @Test
+    public void isInLocations_shouldReturnFalse_whenFileOutsideConfiguredFolders() throws IOException {
+        // Arrange
+        File video = createVideo(100);
+
+        // Act
+        boolean actual = LocalMediaCache.isInLocations(video, new File("elsewhere").getAbsolutePath());
+
+        // Assert
+        assertFalse(actual);
+        assertFalse(LocalMediaCache.isInLocations(video, ""));
+    }
+
+    @Test
+    public void cacheAll_shouldNotCacheScans_whenNotRemote() throws Exception {
+        // Arrange
+        cache = new LocalMediaCache(scanFacade, configuration, Files.createTempDirectory("media-cache"), file -> false);
+        Scan scan = addScan(ManikinScanEnum.RIGHT_LUNG, createVideo(100));
+
+        // Act
+        cache.cacheAll().get();
+
+        // Assert
+        assertEquals(scan.getPath(), cache.resolve(scan));
+    }
+
+    private Scan addScan(ManikinScanEnum location, File video) {
+        Scan scan = new Scan(location, video.toURI().toString());
+        scanFacade.addScan(scan);
+        return scan;
+    }
+
+    private File createVideo(int size) throws IOException {
+        File video = File.createTempFile("scan", ".mp4");
+        video.deleteOnExit();
+        byte[] contents = new byte[size];
+        new Random().nextBytes(contents);
+        Files.write(video.toPath(), contents);
+        return video;
+    }
+}
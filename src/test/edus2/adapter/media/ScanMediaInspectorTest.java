@@ -0,0 +1,106 @@
+package edus2.adapter.media;
+
+import edus2.domain.ScanMetadata;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ScanMediaInspectorTest {
+
+    @Test
+    public void inspect_shouldReturnMetadata_whenVideoDecodes() throws Exception {
+        // Arrange
+        File video = createVideo("video");
+        ScanMediaInspector inspector = new ScanMediaInspector(v -> new VideoFormat(4000, 1920, 1080));
+
+        // Act
+        List<ScanInspection> actual = inspector.inspect(Arrays.asList(video), inspected -> {}).get();
+
+        // Assert
+        ScanMetadata expected = new ScanMetadata(4000, 1920, 1080, DigestUtils.sha256Hex("video"), "video".length());
+        assertEquals(Optional.of(expected), actual.get(0).getMetadata());
+    }
+
+    @Test
+    public void inspect_shouldReportProblem_whenVideoDoesNotDecode() throws Exception {
+        // Arrange
+        File video = createVideo("video");
+        ScanMediaInspector inspector = new ScanMediaInspector(v -> {
+            throw new IOException("Unrecognized file signature!");
+        });
+
+        // Act
+        List<ScanInspection> actual = inspector.inspect(Arrays.asList(video), inspected -> {}).get();
+
+        // Assert
+        assertFalse(actual.get(0).isPlayable());
+        assertEquals(Optional.of("Unrecognized file signature!"), actual.get(0).getProblem());
+    }
+
+    @Test
+    public void inspect_shouldReportProblem_whenVideoHasNoPicture() throws Exception {
+        // Arrange
+        File video = createVideo("audio");
+        ScanMediaInspector inspector = new ScanMediaInspector(v -> new VideoFormat(4000, 0, 0));
+
+        // Act
+        List<ScanInspection> actual = inspector.inspect(Arrays.asList(video), inspected -> {}).get();
+
+        // Assert
+        assertFalse(actual.get(0).isPlayable());
+    }
+
+    @Test
+    public void inspect_shouldReportProblem_whenVideoDoesNotExist() throws Exception {
+        // Arrange
+        File video = new File(Files.createTempDirectory("videos").toFile(), "missing.mp4");
+        ScanMediaInspector inspector = new ScanMediaInspector(v -> new VideoFormat(4000, 1920, 1080));
+
+        // Act
+        List<ScanInspection> actual = inspector.inspect(Arrays.asList(video), inspected -> {}).get();
+
+        // Assert
+        assertFalse(actual.get(0).isPlayable());
+    }
+
+    @Test
+    public void inspect_shouldReturnResultsInOrder_andReportProgress() throws Exception {
+        // Arrange
+        List<File> videos = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            videos.add(createVideo("video " + i));
+        }
+        ScanMediaInspector inspector = new ScanMediaInspector(v -> new VideoFormat(v.length(), 1280, 720));
+        List<Integer> progress = new CopyOnWriteArrayList<>();
+
+        // Act
+        List<ScanInspection> actual = inspector.inspect(videos, progress::add).get();
+
+        // Assert
+        for (int i = 0; i < videos.size(); i++) {
+            assertEquals(videos.get(i), actual.get(i).getVideo());
+            assertTrue(actual.get(i).isPlayable());
+        }
+        assertEquals(videos.size(), progress.size());
+        assertTrue(progress.contains(videos.size()));
+    }
+
+    private File createVideo(String contents) throws IOException {
+        File video = File.createTempFile("scan", ".mp4");
+        video.deleteOnExit();
+        Files.write(video.toPath(), contents.getBytes("UTF-8"));
+        return video;
+    }
+}
@@ -0,0 +1,97 @@
+package edus2.adapter.media;
+
+import edus2.adapter.repository.memory.InMemoryScanRepository;
+import edus2.application.ScanFacade;
+import edus2.domain.ManikinScanEnum;
+import edus2.domain.Scan;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ScanMediaWarmerTest {
+
+    private ScanFacade scanFacade;
+    private ScanMediaWarmer warmer;
+    private BlockingQueue<ScanWarmupProgress> progress;
+
+    @Before
+    public void setup() {
+        scanFacade = new ScanFacade(new InMemoryScanRepository());
+        warmer = new ScanMediaWarmer(scanFacade, ScanMediaFiles::localFile);
+        progress = new LinkedBlockingQueue<>();
+        warmer.registerProgressListener(progress::add);
+    }
+
+    @Test
+    public void warmAll_shouldReadEveryScanFile() throws Exception {
+        // Arrange
+        File first = createScanFile(ManikinScanEnum.RIGHT_LUNG, 3000);
+        File second = createScanFile(ManikinScanEnum.LEFT_LUNG, 5000);
+
+        // Act
+        warmer.warmAll();
+
+        // Assert
+        ScanWarmupProgress finalProgress = awaitFinished();
+        assertEquals(2, finalProgress.getTotalFiles());
+        assertEquals(first.length() + second.length(), finalProgress.getBytesRead());
+    }
+
+    @Test
+    public void addScan_shouldWarmScanFiles() throws Exception {
+        // Arrange
+        File file = File.createTempFile("scan", ".mp4");
+        file.deleteOnExit();
+        Files.write(file.toPath(), new byte[1000]);
+
+        // Act
+        scanFacade.addScan(new Scan(ManikinScanEnum.RIGHT_LUNG, file.toURI().toString()));
+
+        // Assert
+        ScanWarmupProgress finalProgress = awaitFinished();
+        assertEquals(1, finalProgress.getTotalFiles());
+        assertEquals(1000, finalProgress.getBytesRead());
+    }
+
+    @Test
+    public void warmAll_shouldSkipScansThatAreNotLocalFiles() throws Exception {
+        // Arrange
+        createScanFile(ManikinScanEnum.RIGHT_LUNG, 100);
+        scanFacade.addScan(new Scan(ManikinScanEnum.LEFT_LUNG, "http://example.com/scan.mp4"));
+        progress.clear();
+
+        // Act
+        warmer.warmAll();
+
+        // Assert
+        assertEquals(1, awaitFinished().getTotalFiles());
+    }
+
+    private File createScanFile(ManikinScanEnum location, int size) throws IOException, InterruptedException {
+        File file = File.createTempFile("scan", ".mp4");
+        file.deleteOnExit();
+        Files.write(file.toPath(), new byte[size]);
+        scanFacade.addScan(new Scan(location, file.toURI().toString()));
+        awaitFinished();
+        return file;
+    }
+
+    private ScanWarmupProgress awaitFinished() throws InterruptedException {
+        while (true) {
+            ScanWarmupProgress next = progress.poll(5, TimeUnit.SECONDS);
+            assertTrue("Warm-up did not finish", next != null);
+            if (next.isFinished() && progress.isEmpty()) {
+                return next;
+            }
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package edus2.adapter.media;
+
+import edus2.adapter.repository.memory.InMemoryScanRepository;
+import edus2.application.ScanFacade;
+import edus2.domain.ManikinScanEnum;
+import edus2.domain.Scan;
+import edus2.domain.ScanChange;
+import edus2.domain.ScanMetadata;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.*;
+
+import static edus2.TestUtil.Lst;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ScenarioTimelineSchedulerTest {
+    private static final long WARM_UP_LEAD_MILLIS = 100;
+
+    private ScanFacade scanFacade;
+    private ManualScheduledExecutor executor;
+    private List<Scan> warmedScans;
+    private ScenarioTimelineScheduler scheduler;
+
+    @Before
+    public void setup() {
+        scanFacade = new ScanFacade(new InMemoryScanRepository());
+        executor = new ManualScheduledExecutor();
+        warmedScans = new ArrayList<>();
+        scheduler = new ScenarioTimelineScheduler(scanFacade, executor, scan -> {
+            warmedScans.add(scan);
+            return scan;
+        }, WARM_UP_LEAD_MILLIS);
+    }
+
+    @Test
+    public void start_shouldReplaceScanWhenChangeIsDue() {
+        // Arrange
+        Scan unchanged = new Scan(ManikinScanEnum.IVC, "file:///ivc.mp4");
+        scanFacade.addScans(Lst(unchanged, new Scan(ManikinScanEnum.RUQ, "file:///ruq-normal.mp4")));
+        Scan expected = new Scan(ManikinScanEnum.RUQ, "file:///ruq-free-fluid.mp4");
+        scheduler.start(Lst(new ScanChange(500, expected)));
+
+        // Act
+        executor.advanceMillis(500);
+
+        // Assert
+        assertEquals(Optional.of(expected), scanFacade.getScan(ManikinScanEnum.RUQ));
+        assertEquals(Optional.of(unchanged), scanFacade.getScan(ManikinScanEnum.IVC));
+    }
+
+    @Test
+    public void start_shouldNotReplaceScanBeforeChangeIsDue() {
+        // Arrange
+        Scan expected = new Scan(ManikinScanEnum.RUQ, "file:///ruq-normal.mp4");
+        scanFacade.addScan(expected);
+        scheduler.start(Lst(new ScanChange(500, new Scan(ManikinScanEnum.RUQ, "file:///ruq-free-fluid.mp4"))));
+
+        // Act
+        executor.advanceMillis(499);
+
+        // Assert
+        assertEquals(Optional.of(expected), scanFacade.getScan(ManikinScanEnum.RUQ));
+    }
+
+    @Test
+    public void start_shouldWarmScanAheadOfChange() {
+        // Arrange
+        Scan expected = new Scan(ManikinScanEnum.RUQ, "file:///ruq-free-fluid.mp4");
+        scheduler.start(Lst(new ScanChange(500, expected)));
+
+        // Act
+        executor.advanceMillis(500 - WARM_UP_LEAD_MILLIS);
+
+        // Assert
+        assertEquals(Lst(expected), warmedScans);
+        assertFalse(scanFacade.getScan(ManikinScanEnum.RUQ).isPresent());
+    }
+
+    @Test
+    public void start_shouldNotSaveChanges() {
+        // Arrange
+        Scan expected = new Scan(ManikinScanEnum.RUQ, "file:///ruq-normal.mp4");
+        scanFacade.addScan(expected);
+        scheduler.start(Lst(new ScanChange(500, new Scan(ManikinScanEnum.RUQ, "file:///ruq-free-fluid.mp4"))));
+
+        // Act
+        executor.advanceMillis(500);
+
+        // Assert
+        assertEquals(Lst(expected), scanFacade.getAllScans());
+    }
+
+    @Test
+    public void start_shouldPlayScanReturnedByWarmUp() {
+        // Arrange
+        Scan expected = new Scan(ManikinScanEnum.RUQ, "file:///ruq-free-fluid.mp4", new ScanMetadata(4000, 640, 480, "hash", 1024));
+        scheduler = new ScenarioTimelineScheduler(scanFacade, executor, scan -> expected, WARM_UP_LEAD_MILLIS);
+        scheduler.start(Lst(new ScanChange(500, new Scan(ManikinScanEnum.RUQ, "file:///ruq-free-fluid.mp4"))));
+
+        // Act
+        executor.advanceMillis(500);
+
+        // Assert
+        assertEquals(Optional.of(expected.getMetadata().get()), scanFacade.getScan(ManikinScanEnum.RUQ).flatMap(Scan::getMetadata));
+    }
+
+    @Test
+    public void start_shouldStopTimelineAlreadyRunning() {
+        // Arrange
+        scheduler.start(Lst(new ScanChange(200, new Scan(ManikinScanEnum.RUQ, "file:///old.mp4"))));
+        Scan expected = new Scan(ManikinScanEnum.PELVIS, "file:///pelvis.mp4");
+
+        // Act
+        scheduler.start(Lst(new ScanChange(50, expected)));
+        executor.advanceMillis(300);
+
+        // Assert
+        assertEquals(Optional.of(expected), scanFacade.getScan(ManikinScanEnum.PELVIS));
+        assertFalse(scanFacade.getScan(ManikinScanEnum.RUQ).isPresent());
+    }
+
+    @Test
+    public void stop_shouldCancelChangesNotYetMade() {
+        // Arrange
+        Scan expected = new Scan(ManikinScanEnum.RUQ, "file:///ruq-normal.mp4");
+        scanFacade.addScan(expected);
+        scheduler.start(Lst(new ScanChange(500, new Scan(ManikinScanEnum.RUQ, "file:///ruq-free-fluid.mp4"))));
+
+        // Act
+        scheduler.stop();
+        executor.advanceMillis(500);
+
+        // Assert
+        assertEquals(Optional.of(expected), scanFacade.getScan(ManikinScanEnum.RUQ));
+        assertTrue(warmedScans.isEmpty());
+    }
+
+    @Test
+    public void addScan_shouldStopTimeline() {
+        // Arrange
+        scheduler.start(Lst(new ScanChange(500, new Scan(ManikinScanEnum.RUQ, "file:///ruq-free-fluid.mp4"))));
+        Scan expected = new Scan(ManikinScanEnum.RUQ, "file:///ruq-normal.mp4");
+
+        // Act
+        scanFacade.addScan(expected);
+        executor.advanceMillis(500);
+
+        // Assert
+        assertEquals(Optional.of(expected), scanFacade.getScan(ManikinScanEnum.RUQ));
+    }
+
+    /**
+     * Runs scheduled tasks on the calling thread when time is moved on, so no test waits on the wall clock.
+     */
+    private static class ManualScheduledExecutor extends AbstractExecutorService implements ScheduledExecutorService {
+        private final PriorityQueue<ManualTask<?>> tasks = new PriorityQueue<>();
+        private long nowMillis;
+        private long sequence;
+
+        void advanceMillis(long millis) {
+            long until = nowMillis + millis;
+            while (!tasks.isEmpty() && tasks.peek().dueMillis <= until) {
+                ManualTask<?> task = tasks.poll();
+                nowMillis = task.dueMillis;
+                task.run();
+            }
+            nowMillis = until;
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            return schedule(Executors.callable(command), delay, unit);
+        }
+
+        @Override
+        public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+            ManualTask<V> task = new ManualTask<>(callable, nowMillis + unit.toMillis(delay), sequence++);
+            tasks.add(task);
+            return task;
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            schedule(command, 0, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void shutdown() {
+            tasks.clear();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            tasks.clear();
+            return Collections.emptyList();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return false;
+        }
+
+        private class ManualTask<V> extends FutureTask<V> implements ScheduledFuture<V> {
+            private final long dueMillis;
+            private final long order;
+
+            ManualTask(Callable<V> callable, long dueMillis, long order) {
+                super(callable);
+                this.dueMillis = dueMillis;
+                this.order = order;
+            }
+
+            @Override
+            public long getDelay(TimeUnit unit) {
+                return unit.convert(dueMillis - nowMillis, TimeUnit.MILLISECONDS);
+            }
+
+            @Override
+            public int compareTo(Delayed other) {
+                ManualTask<?> otherTask = (ManualTask<?>) other;
+                return dueMillis != otherTask.dueMillis ? Long.compare(dueMillis, otherTask.dueMillis) : Long.compare(order, otherTask.order);
+            }
+        }
+    }
+}
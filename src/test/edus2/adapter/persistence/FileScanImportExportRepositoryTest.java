@@ -5,6 +5,9 @@ import edus2.adapter.repository.memory.InMemoryScanRepository;
 import edus2.application.ScanFacade;
 import edus2.domain.ManikinScanEnum;
 import edus2.domain.Scan;
+import edus2.domain.ScanChange;
+import edus2.domain.ScanMetadata;
+import edus2.domain.Scenario;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -13,6 +16,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.Optional;
 
 import static edus2.TestUtil.Lst;
 import static edus2.TestUtil.randomTempFile;
@@ -45,6 +49,21 @@ public class FileScanImportExportRepositoryTest {
         assertTrue(scans.contains(new Scan(ManikinScanEnum.LEFT_LUNG, "/path/to/second/scan")));
     }
 
+    @Test
+    public void readScenarioFromFile_shouldReadTimeline() throws IOException {
+        // Arrange
+        String fileName = randomTempFile();
+        Files.write(Paths.get(fileName), ("[{\"scanEnum\": \"RUQ\", \"path\": \"/normal\", \"changes\": [{\"afterSeconds\": 240, \"path\": \"/fluid\"}, {\"afterSeconds\": 60, \"path\": \"/trace\"}]}, "
+                + "{\"scanEnum\": \"IVC\", \"path\": \"/ivc\"}]").getBytes());
+
+        // Act
+        Scenario actual = repository.readScenarioFromFile(new File(fileName));
+
+        // Assert
+        assertEquals(Lst(new Scan(ManikinScanEnum.RUQ, "/normal"), new Scan(ManikinScanEnum.IVC, "/ivc")), actual.getScans());
+        assertEquals(Lst(new ScanChange(60000, new Scan(ManikinScanEnum.RUQ, "/trace")), new ScanChange(240000, new Scan(ManikinScanEnum.RUQ, "/fluid"))), actual.getTimeline());
+    }
+
     @Test
     public void importScans_shouldClearExistingScans() throws IOException {
         // Arrange
@@ -92,4 +111,21 @@ public class FileScanImportExportRepositoryTest {
         List<Scan> actual = scanFacade.getAllScans();
         assertEquals(scans, actual);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void exportImport_shouldKeepScanMetadata() throws IOException {
+        // Arrange
+        String fileName = randomTempFile();
+        ScanMetadata metadata = new ScanMetadata(12000, 640, 480, "5d41402abc4b2a76b9719d911017c592", 4096);
+        scanFacade.addScan(new Scan(ManikinScanEnum.RIGHT_LUNG, "/scan/path", metadata));
+        repository.exportScansToFile(new File(fileName));
+        scanFacade.removeAllScans();
+
+        // Act
+        repository.importScansFromFile(new File(fileName));
+
+        // Assert
+        Scan actual = scanFacade.getAllScans().get(0);
+        assertEquals(Optional.of(metadata), actual.getMetadata());
+    }
+}
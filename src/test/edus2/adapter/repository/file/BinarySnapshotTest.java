@@ -0,0 +1,164 @@
+package edus2.adapter.repository.file;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.reflect.TypeToken;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static edus2.TestUtil.randomAlphanumericString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BinarySnapshotTest {
+
+    private File file;
+    private BinarySnapshot snapshot;
+
+    @Before
+    public void setup() {
+        file = new File(randomAlphanumericString());
+        file.deleteOnExit();
+    }
+
+    @After
+    public void tearDown() {
+        if (snapshot != null) {
+            snapshot.release();
+        }
+    }
+
+    @Test
+    public void readSection_shouldReturnArraySection() throws IOException {
+        // Arrange
+        JsonArray expected = new JsonArray();
+        expected.add("first");
+        expected.add(new JsonParser().parse("{\"key\": \"\\u00e9\"}"));
+        Files.write(file.toPath(), new BinarySnapshot.Builder().addSection("section", expected).build());
+        snapshot = BinarySnapshot.map(file);
+
+        // Act
+        Optional<JsonElement> actual = snapshot.readSection("section");
+
+        // Assert
+        assertEquals(Optional.of(expected), actual);
+    }
+
+    @Test
+    public void readSection_shouldReturnValueSection() throws IOException {
+        // Arrange
+        JsonElement expected = new JsonParser().parse("{\"key\": 1}");
+        Files.write(file.toPath(), new BinarySnapshot.Builder().addSection("section", expected).build());
+        snapshot = BinarySnapshot.map(file);
+
+        // Act
+        Optional<JsonElement> actual = snapshot.readSection("section");
+
+        // Assert
+        assertEquals(Optional.of(expected), actual);
+    }
+
+    @Test
+    public void readSection_shouldDecodeSectionIntoType() throws IOException {
+        // Arrange
+        JsonElement section = new JsonParser().parse(
+                "[{\"name\": \"first\", \"count\": 3, \"ratio\": 0.5, \"tags\": {\"key\": \"value\"}, "
+                        + "\"unknown\": [1, {\"nested\": null}]}]");
+        Files.write(file.toPath(), new BinarySnapshot.Builder().addSection("section", section).build());
+        snapshot = BinarySnapshot.map(file);
+        Type type = new TypeToken<List<Record>>(){}.getType();
+
+        // Act
+        Optional<List<Record>> actual = snapshot.readSection("section", type);
+
+        // Assert
+        assertTrue(actual.isPresent());
+        assertEquals(1, actual.get().size());
+        Record record = actual.get().get(0);
+        assertEquals("first", record.name);
+        assertEquals(3, record.count);
+        assertEquals(0.5, record.ratio, 0);
+        assertEquals(Collections.singletonMap("key", "value"), record.tags);
+    }
+
+    @Test
+    public void readSection_shouldKeepNumbersExactly() throws IOException {
+        // Arrange
+        JsonElement expected = new JsonParser().parse("[-7, 2.25, 1.50, 12345678901234567890]");
+        Files.write(file.toPath(), new BinarySnapshot.Builder().addSection("section", expected).build());
+        snapshot = BinarySnapshot.map(file);
+
+        // Act
+        Optional<JsonElement> actual = snapshot.readSection("section");
+
+        // Assert
+        assertTrue(actual.isPresent());
+        assertEquals(expected.toString(), actual.get().toString());
+    }
+
+    @Test
+    public void readSection_shouldReturnEmpty_whenSectionDoesNotExist() throws IOException {
+        // Arrange
+        Files.write(file.toPath(), new BinarySnapshot.Builder().addSection("section", new JsonArray()).build());
+        snapshot = BinarySnapshot.map(file);
+
+        // Act
+        Optional<JsonElement> actual = snapshot.readSection("missing");
+
+        // Assert
+        assertFalse(actual.isPresent());
+    }
+
+    @Test
+    public void copySection_shouldCopySectionUnchanged() throws IOException {
+        // Arrange
+        JsonArray expected = new JsonArray();
+        expected.add("copied");
+        Files.write(file.toPath(), new BinarySnapshot.Builder().addSection("section", expected).build());
+        snapshot = BinarySnapshot.map(file);
+
+        // Act
+        byte[] copy = new BinarySnapshot.Builder().copySection(snapshot, "section").build();
+
+        // Assert
+        snapshot.release();
+        Files.write(file.toPath(), copy);
+        snapshot = BinarySnapshot.map(file);
+        assertEquals(Optional.of(expected), snapshot.readSection("section"));
+    }
+
+    @Test
+    public void isValid_shouldReturnFalse_whenTruncated() {
+        // Arrange
+        JsonArray section = new JsonArray();
+        section.add("value");
+        byte[] contents = new BinarySnapshot.Builder().addSection("section", section).build();
+
+        // Act
+        boolean actual = BinarySnapshot.isValid(Arrays.copyOf(contents, contents.length - 1));
+
+        // Assert
+        assertFalse(actual);
+        assertTrue(BinarySnapshot.isValid(contents));
+    }
+
+    private static class Record {
+        String name;
+        int count;
+        double ratio;
+        Map<String, String> tags;
+    }
+}
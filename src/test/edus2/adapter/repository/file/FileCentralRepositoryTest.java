@@ -2,6 +2,9 @@ package edus2.adapter.repository.file;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
 import com.google.gson.reflect.TypeToken;
 import edus2.adapter.repository.memory.InMemoryEDUS2Configuration;
 import edus2.domain.EDUS2Configuration;
@@ -10,26 +13,33 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import static edus2.TestUtil.randomAlphanumericString;
 import static edus2.TestUtil.randomManikinScanEnum;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class FileCentralRepositoryTest {
 
     private FileCentralRepository repository;
     private String sectionName;
+    private File file;
+    private long now;
 
     @Before
     public void setup() {
         String fileName = randomAlphanumericString();
-        File file = new File(fileName);
+        file = new File(fileName);
         file.deleteOnExit();
+        new File(fileName + ".bak").deleteOnExit();
         EDUS2Configuration configuration = new InMemoryEDUS2Configuration();
         configuration.setSaveFileLocation(file.getAbsolutePath());
         this.sectionName = "hello";
@@ -44,7 +54,7 @@ public class FileCentralRepositoryTest {
     @Test
     public void retrieveSection_shouldReturnEmpty_whenFileDoesNotContainSection() {
         // Act
-        Optional<String> actual = repository.retrieveSection();
+        Optional<JsonElement> actual = repository.retrieveSection();
 
         // Assert
         assertFalse(actual.isPresent());
@@ -53,25 +63,25 @@ public class FileCentralRepositoryTest {
     @Test
     public void saveSection_shouldSaveSection_whenSectionDoesNotExist() {
         // Act
-        String expected = "world";
+        JsonElement expected = section("world");
         repository.saveSection(expected);
 
         // Assert
-        Optional<String> actual = repository.retrieveSection();
+        Optional<JsonElement> actual = repository.retrieveSection();
         assertEquals(Optional.of(expected), actual);
     }
 
     @Test
     public void saveSection_shouldOverwriteSection_whenSectionExists() {
         // Arrange
-        String expected = "updated";
-        repository.saveSection("world");
+        JsonElement expected = section("updated");
+        repository.saveSection(section("world"));
 
         // Act
         repository.saveSection(expected);
 
         // Assert
-        Optional<String> actual = repository.retrieveSection();
+        Optional<JsonElement> actual = repository.retrieveSection();
         assertEquals(Optional.of(expected), actual);
     }
 
@@ -85,10 +95,162 @@ public class FileCentralRepositoryTest {
         scans.add(new Scan(randomManikinScanEnum(), "path2"));
 
         // Act
-        repository.saveSection(gson.toJson(scans));
+        repository.saveSection(gson.toJsonTree(scans));
 
         // Assert
-        Optional<List<Scan>> actual = repository.retrieveSection().map(j -> gson.fromJson(j, type));
+        Optional<List<Scan>> actual = repository.retrieveSection(type);
         assertEquals(Optional.of(scans), actual);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void saveSection_shouldStoreSectionAsNestedJson() throws IOException {
+        // Act
+        repository.saveSection(section("world"));
+
+        // Assert
+        JsonElement savedSection = new JsonParser().parse(new String(Files.readAllBytes(file.toPath()))).getAsJsonObject().get(sectionName);
+        assertTrue(savedSection.isJsonArray());
+    }
+
+    @Test
+    public void retrieveSection_shouldReturnUpdatedSection_whenFileChangedExternally() throws IOException {
+        // Arrange
+        FileDocumentCache.forFile(file.getAbsolutePath(), () -> now);
+        repository.saveSection(section("world"));
+        Files.write(file.toPath(), "{\"hello\": [\"updated externally\"]}".getBytes());
+        now += TimeUnit.MILLISECONDS.toNanos(600);
+
+        // Act
+        Optional<JsonElement> actual = repository.retrieveSection();
+
+        // Assert
+        assertEquals(Optional.of(section("updated externally")), actual);
+    }
+
+    @Test
+    public void retrieveSection_shouldDecodeSection_whenSectionStoredAsEscapedString() throws IOException {
+        // Arrange
+        Files.write(file.toPath(), "{\"hello\": \"[\\\"legacy\\\"]\"}".getBytes());
+
+        // Act
+        Optional<JsonElement> actual = repository.retrieveSection();
+
+        // Assert
+        assertEquals(Optional.of(section("legacy")), actual);
+    }
+
+    @Test
+    public void saveSection_shouldMigrateOtherSections_whenStoredAsEscapedStrings() throws IOException {
+        // Arrange
+        Files.write(file.toPath(), "{\"other\": \"[\\\"legacy\\\"]\"}".getBytes());
+
+        // Act
+        repository.saveSection(section("world"));
+
+        // Assert
+        JsonElement otherSection = new JsonParser().parse(new String(Files.readAllBytes(file.toPath()))).getAsJsonObject().get("other");
+        assertEquals(section("legacy"), otherSection);
+    }
+
+    @Test
+    public void saveSection_shouldPreserveOtherSections() {
+        // Arrange
+        EDUS2Configuration configuration = new InMemoryEDUS2Configuration();
+        configuration.setSaveFileLocation(file.getAbsolutePath());
+        FileCentralRepository otherRepository = new FileCentralRepository(configuration) {
+            @Override
+            protected String getSectionName() {
+                return "other";
+            }
+        };
+        otherRepository.saveSection(section("other contents"));
+
+        // Act
+        repository.saveSection(section("world"));
+
+        // Assert
+        assertEquals(Optional.of(section("other contents")), otherRepository.retrieveSection());
+        assertEquals(Optional.of(section("world")), repository.retrieveSection());
+    }
+
+    @Test
+    public void retrieveSection_shouldReadSection_whenFileIsBinary() throws IOException {
+        // Arrange
+        Files.write(file.toPath(), new BinarySnapshot.Builder().addSection(sectionName, section("binary")).build());
+
+        // Act
+        Optional<JsonElement> actual = repository.retrieveSection();
+
+        // Assert
+        assertEquals(Optional.of(section("binary")), actual);
+    }
+
+    @Test
+    public void saveSection_shouldKeepBinaryFormatAndOtherSections_whenFileIsBinary() throws IOException {
+        // Arrange
+        Files.write(file.toPath(), new BinarySnapshot.Builder().addSection("other", section("other contents")).build());
+
+        // Act
+        repository.saveSection(section("world"));
+
+        // Assert
+        byte[] savedContents = Files.readAllBytes(file.toPath());
+        assertTrue(BinarySnapshot.hasMagic(savedContents));
+        assertEquals(Optional.of(section("world")), repository.retrieveSection());
+        assertEquals(Optional.of(section("other contents")), FileDocumentCache.forFile(file.getPath()).getSection("other"));
+    }
+
+    @Test
+    public void convertToBinary_shouldKeepAllSections() throws IOException {
+        // Arrange
+        Files.write(file.toPath(), "{\"hello\": [\"world\"], \"other\": {\"key\": 1}}".getBytes());
+        FileDocumentCache documentCache = FileDocumentCache.forFile(file.getPath());
+
+        // Act
+        documentCache.convertToBinary();
+
+        // Assert
+        assertTrue(BinarySnapshot.hasMagic(Files.readAllBytes(file.toPath())));
+        assertEquals(Optional.of(section("world")), repository.retrieveSection());
+        assertEquals(Optional.of(new JsonParser().parse("{\"key\": 1}")), documentCache.getSection("other"));
+    }
+
+    @Test
+    public void convertToJson_shouldKeepAllSections() throws IOException {
+        // Arrange
+        repository.saveSection(section("world"));
+        FileDocumentCache documentCache = FileDocumentCache.forFile(file.getPath());
+        documentCache.convertToBinary();
+
+        // Act
+        documentCache.convertToJson();
+
+        // Assert
+        JsonElement savedSection = new JsonParser().parse(new String(Files.readAllBytes(file.toPath()))).getAsJsonObject().get(sectionName);
+        assertEquals(section("world"), savedSection);
+    }
+
+    @Test
+    public void forFile_shouldConvertExistingFile_whenOtherFormatPreferred() throws IOException {
+        // Arrange
+        Files.write(file.toPath(), "{\"hello\": [\"world\"]}".getBytes());
+        System.setProperty("edus2j.dataFormat", "binary");
+
+        // Act
+        try {
+            FileDocumentCache.forFile(file.getPath());
+        } finally {
+            System.clearProperty("edus2j.dataFormat");
+        }
+
+        // Assert
+        assertTrue(BinarySnapshot.hasMagic(Files.readAllBytes(file.toPath())));
+        assertEquals(Optional.of(section("world")), repository.retrieveSection());
+    }
+
+    private JsonElement section(String value) {
+        JsonArray section = new JsonArray();
+        section.add(value);
+        return section;
+    }
+}
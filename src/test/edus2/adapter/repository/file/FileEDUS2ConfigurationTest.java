@@ -2,10 +2,15 @@ package edus2.adapter.repository.file;
 
 import edus2.domain.EDUS2Configuration;
 import edus2.domain.EDUS2ConfigurationTest;
+import org.junit.Test;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Optional;
+
+import static edus2.TestUtil.randomInt;
+import static org.junit.Assert.assertEquals;
 
 public class FileEDUS2ConfigurationTest extends EDUS2ConfigurationTest {
 
@@ -18,4 +23,37 @@ public class FileEDUS2ConfigurationTest extends EDUS2ConfigurationTest {
             throw new RuntimeException(e);
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void flush_shouldWritePendingChanges() throws IOException {
+        // Arrange
+        Path path = Files.createTempFile("file", "edus2configurationtest");
+        FileEDUS2Configuration configuration = new FileEDUS2Configuration(path.toString());
+        int expected = randomInt();
+        configuration.setMinimumVideoHeight(expected);
+
+        // Act
+        configuration.flush();
+
+        // Assert
+        Optional<Integer> actual = new FileEDUS2Configuration(path.toString()).getMinimumVideoHeight();
+        assertEquals(Optional.of(expected), actual);
+    }
+
+    @Test
+    public void setMinimumVideoWidth_shouldEventuallyWriteChange_whenNotFlushed() throws Exception {
+        // Arrange
+        Path path = Files.createTempFile("file", "edus2configurationtest");
+        FileEDUS2Configuration configuration = new FileEDUS2Configuration(path.toString());
+        int expected = randomInt();
+
+        // Act
+        configuration.setMinimumVideoWidth(randomInt());
+        configuration.setMinimumVideoWidth(expected);
+        Thread.sleep(1500);
+
+        // Assert
+        Optional<Integer> actual = new FileEDUS2Configuration(path.toString()).getMinimumVideoWidth();
+        assertEquals(Optional.of(expected), actual);
+    }
+}
@@ -2,6 +2,7 @@ package edus2.adapter.repository.file;
 
 import edus2.adapter.repository.memory.InMemoryManikinRepository;
 import edus2.application.ManikinFacade;
+import edus2.application.exception.InvalidManikinsException;
 import edus2.domain.Manikin;
 import edus2.domain.ManikinTestBase;
 import org.junit.Before;
@@ -9,10 +10,14 @@ import org.junit.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 
 import static edus2.TestUtil.*;
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 
 public class FileManikinImportExportRepositoryTest extends ManikinTestBase {
 
@@ -41,4 +46,49 @@ public class FileManikinImportExportRepositoryTest extends ManikinTestBase {
         List<Manikin> actual = manikinFacade.getAllManikins();
         assertEquals(Lst(manikin), actual);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void importManikinsFromFile_shouldImportAllManikins() throws IOException {
+        // Arrange
+        List<Manikin> manikins = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            manikins.add(new Manikin(generateTagMap(), "manikin" + i));
+        }
+        String fileName = randomTempFile();
+        manikinFacade.createAll(manikins);
+        repository.exportManikinsToFile(new File(fileName));
+        manikins.forEach(manikinFacade::remove);
+
+        // Act
+        repository.importManikinsFromFile(new File(fileName));
+
+        // Assert
+        assertEquals(new HashSet<>(manikins), new HashSet<>(manikinFacade.getAllManikins()));
+    }
+
+    @Test
+    public void importManikinsFromFile_shouldReportEveryInvalidRecordAndImportNothing() throws IOException {
+        // Arrange
+        Manikin manikin = new Manikin(generateTagMap(), "valid");
+        String fileName = randomTempFile();
+        manikinFacade.create(manikin);
+        repository.exportManikinsToFile(new File(fileName));
+        manikinFacade.remove(manikin);
+        String exported = new String(Files.readAllBytes(Paths.get(fileName)));
+        String records = exported.substring(1, exported.length() - 1);
+        Files.write(Paths.get(fileName), ("[" + records + ", {\"name\": \"noTags\"}, " + records + "]").getBytes());
+
+        // Act
+        try {
+            repository.importManikinsFromFile(new File(fileName));
+            fail("Expected InvalidManikinsException");
+        } catch (InvalidManikinsException e) {
+            // Assert
+            assertEquals(3, e.getProblems().size());
+            assertTrue(e.getProblems().get(0).startsWith("Record 2"));
+        }
+
+        // Assert
+        assertTrue(manikinFacade.getAllManikins().isEmpty());
+    }
+}
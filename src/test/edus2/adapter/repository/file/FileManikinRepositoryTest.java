@@ -16,6 +16,7 @@ public class FileManikinRepositoryTest extends ManikinRepositoryTest {
         String fileName = randomAlphanumericString();
         File file = new File(fileName);
         file.deleteOnExit();
+        new File(fileName + ".bak").deleteOnExit();
         EDUS2Configuration configuration = new InMemoryEDUS2Configuration();
         configuration.setSaveFileLocation(file.getAbsolutePath());
         return new FileManikinRepository(configuration);
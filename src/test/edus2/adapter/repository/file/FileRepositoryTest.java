@@ -0,0 +1,123 @@
+package edus2.adapter.repository.file;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static edus2.TestUtil.randomAlphanumericString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class FileRepositoryTest {
+
+    private FileRepository repository;
+    private Path file;
+    private Path backupFile;
+    private Path temporaryFile;
+
+    @Before
+    public void setup() throws IOException {
+        Path directory = Files.createTempDirectory("filerepositorytest");
+        file = directory.resolve("data.json");
+        backupFile = directory.resolve("data.json.bak");
+        temporaryFile = directory.resolve("data.json.tmp");
+        directory.toFile().deleteOnExit();
+        file.toFile().deleteOnExit();
+        backupFile.toFile().deleteOnExit();
+        temporaryFile.toFile().deleteOnExit();
+        repository = new FileRepository() {
+            @Override
+            protected boolean isValidContent(String contents) {
+                return contents.startsWith("{") && contents.endsWith("}");
+            }
+        };
+    }
+
+    @Test
+    public void readFileContents_shouldReturnEmpty_whenFileDoesNotExist() {
+        // Act
+        Optional<String> actual = repository.readFileContents(file.toString());
+
+        // Assert
+        assertFalse(actual.isPresent());
+    }
+
+    @Test
+    public void readFileContents_shouldReturnSavedContents() {
+        // Arrange
+        String expected = "{" + randomAlphanumericString() + "}";
+        repository.saveToFile(expected, file.toString());
+
+        // Act
+        Optional<String> actual = repository.readFileContents(file.toString());
+
+        // Assert
+        assertEquals(Optional.of(expected), actual);
+    }
+
+    @Test
+    public void saveToFile_shouldKeepPreviousContentsAsBackup() throws IOException {
+        // Arrange
+        String previous = "{" + randomAlphanumericString() + "}";
+        repository.saveToFile(previous, file.toString());
+
+        // Act
+        repository.saveToFile("{" + randomAlphanumericString() + "}", file.toString());
+
+        // Assert
+        assertEquals(previous, new String(Files.readAllBytes(backupFile)));
+        assertFalse(Files.exists(temporaryFile));
+    }
+
+    @Test
+    public void readFileContents_shouldRecoverFromBackup_whenFileTruncated() throws IOException {
+        // Arrange
+        String expected = "{" + randomAlphanumericString() + "}";
+        repository.saveToFile(expected, file.toString());
+        repository.saveToFile("{" + randomAlphanumericString() + "}", file.toString());
+        Files.write(file, "{trunc".getBytes());
+
+        // Act
+        Optional<String> actual = repository.readFileContents(file.toString());
+
+        // Assert
+        assertEquals(Optional.of(expected), actual);
+        assertEquals(expected, new String(Files.readAllBytes(file)));
+    }
+
+    @Test
+    public void readFileContents_shouldRecoverFromTemporaryFile_whenFileEmptyAndTemporaryFileNewer() throws IOException {
+        // Arrange
+        String expected = "{" + randomAlphanumericString() + "}";
+        Files.write(backupFile, ("{" + randomAlphanumericString() + "}").getBytes());
+        Files.write(temporaryFile, expected.getBytes());
+        backupFile.toFile().setLastModified(temporaryFile.toFile().lastModified() - 10000);
+        Files.write(file, new byte[0]);
+
+        // Act
+        Optional<String> actual = repository.readFileContents(file.toString());
+
+        // Assert
+        assertEquals(Optional.of(expected), actual);
+    }
+
+    @Test
+    public void readFileContents_shouldIgnoreInvalidTemporaryFile_whenRecovering() throws IOException {
+        // Arrange
+        String expected = "{" + randomAlphanumericString() + "}";
+        Files.write(backupFile, expected.getBytes());
+        Files.write(temporaryFile, "{partial".getBytes());
+        backupFile.toFile().setLastModified(temporaryFile.toFile().lastModified() - 10000);
+
+        // Act
+        Optional<String> actual = repository.readFileContents(file.toString());
+
+        // Assert
+        assertEquals(Optional.of(expected), actual);
+    }
+}
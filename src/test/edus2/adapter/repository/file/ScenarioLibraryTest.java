@@ -0,0 +1,135 @@
+package edus2.adapter.repository.file;
+
+import edus2.adapter.repository.memory.InMemoryEDUS2Configuration;
+import edus2.adapter.repository.memory.InMemoryScanRepository;
+import edus2.application.ScanFacade;
+import edus2.domain.ManikinScanEnum;
+import edus2.domain.Scan;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import static edus2.TestUtil.Lst;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class ScenarioLibraryTest {
+
+    private ScanFacade scanFacade;
+    private ScenarioLibrary library;
+    private File scenarioDirectory;
+
+    @Before
+    public void setup() throws IOException {
+        scenarioDirectory = Files.createTempDirectory("scenarios").toFile();
+        scenarioDirectory.deleteOnExit();
+        InMemoryEDUS2Configuration configuration = new InMemoryEDUS2Configuration();
+        configuration.setDefaultScenarioDirectory(scenarioDirectory);
+        scanFacade = new ScanFacade(new InMemoryScanRepository());
+        FileScanImportExportRepository importExportRepository = new FileScanImportExportRepository(scanFacade);
+        library = new ScenarioLibrary(configuration, importExportRepository, scanFacade);
+    }
+
+    @Test
+    public void refresh_shouldIndexScenarioFilesByName() throws Exception {
+        // Arrange
+        File second = saveScenario("b.scn", new Scan(ManikinScanEnum.IVC, "file:///ivc.mp4"));
+        File first = saveScenario("A.scn", new Scan(ManikinScanEnum.IVC, "file:///ivc.mp4"));
+        saveScenario("notes.txt", new Scan(ManikinScanEnum.IVC, "file:///ivc.mp4"));
+
+        // Act
+        List<File> actual = library.refresh().get();
+
+        // Assert
+        assertEquals(Lst(first, second), actual);
+        assertEquals(Lst(first, second), library.getScenarioFiles());
+    }
+
+    @Test
+    public void getScans_shouldKeepScansInMemory_whenFileUnchanged() throws Exception {
+        // Arrange
+        File scenario = saveScenario("case.scn", new Scan(ManikinScanEnum.IVC, "file:///ivc.mp4"));
+        library.refresh().get();
+
+        // Act
+        List<Scan> actual = library.getScans(scenario);
+
+        // Assert
+        assertSame(library.getScans(scenario), actual);
+    }
+
+    @Test
+    public void refresh_shouldKeepScenariosInUse_whenDirectoryHasMoreScenariosThanFitInMemory() throws Exception {
+        // Arrange
+        for (char name = 'a'; name <= 'h'; name++) {
+            saveScenario(name + ".scn", new Scan(ManikinScanEnum.IVC, "file:///ivc.mp4"));
+        }
+        File ninth = saveScenario("i.scn", new Scan(ManikinScanEnum.IVC, "file:///ivc.mp4"));
+        library.refresh().get();
+        List<Scan> expected = library.activate(ninth).getScans();
+
+        // Act
+        library.refresh().get();
+
+        // Assert
+        assertSame(expected, library.getScans(ninth));
+    }
+
+    @Test
+    public void getScans_shouldReadScansAgain_whenFileChanged() throws Exception {
+        // Arrange
+        File scenario = saveScenario("case.scn", new Scan(ManikinScanEnum.IVC, "file:///ivc.mp4"));
+        library.getScans(scenario);
+        Scan expected = new Scan(ManikinScanEnum.PELVIS, "file:///pelvis.mp4");
+        saveScenario("case.scn", expected, new Scan(ManikinScanEnum.RUQ, "file:///ruq.mp4"));
+        scenario.setLastModified(scenario.lastModified() + 2000);
+
+        // Act
+        List<Scan> actual = library.getScans(scenario);
+
+        // Assert
+        assertEquals(expected, actual.get(0));
+        assertEquals(2, actual.size());
+    }
+
+    @Test
+    public void readAhead_shouldReadScansInBackground() throws Exception {
+        // Arrange
+        Scan expected = new Scan(ManikinScanEnum.IVC, "file:///ivc.mp4");
+        File scenario = saveScenario("case.scn", expected);
+
+        // Act
+        List<Scan> actual = library.readAhead(scenario).get();
+
+        // Assert
+        assertEquals(Lst(expected), actual);
+        assertSame(library.getScans(scenario), actual);
+    }
+
+    @Test
+    public void activate_shouldReplaceAllScans() throws Exception {
+        // Arrange
+        scanFacade.addScan(new Scan(ManikinScanEnum.RIGHT_LUNG, "file:///lung.mp4"));
+        Scan expected = new Scan(ManikinScanEnum.IVC, "file:///ivc.mp4");
+        File scenario = saveScenario("case.scn", expected);
+
+        // Act
+        library.activate(scenario);
+
+        // Assert
+        assertEquals(Lst(expected), scanFacade.getAllScans());
+    }
+
+    private File saveScenario(String name, Scan... scans) throws IOException {
+        File file = new File(scenarioDirectory, name);
+        file.deleteOnExit();
+        ScanFacade scenarioScans = new ScanFacade(new InMemoryScanRepository());
+        scenarioScans.addScans(Lst(scans));
+        new FileScanImportExportRepository(scenarioScans).exportScansToFile(file);
+        return file;
+    }
+}
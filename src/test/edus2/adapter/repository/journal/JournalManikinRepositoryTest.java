@@ -0,0 +1,26 @@
+package edus2.adapter.repository.journal;
+
+import edus2.adapter.repository.memory.InMemoryEDUS2Configuration;
+import edus2.domain.EDUS2Configuration;
+import edus2.domain.ManikinRepository;
+import edus2.domain.ManikinRepositoryTest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+
+public class JournalManikinRepositoryTest extends ManikinRepositoryTest {
+
+    @Override
+    public ManikinRepository getManikinRepository() {
+        try {
+            Path directory = Files.createTempDirectory("journalmanikinrepositorytest");
+            EDUS2Configuration configuration = new InMemoryEDUS2Configuration();
+            configuration.setSaveFileLocation(directory.resolve("data.json").toString());
+            return new JournalManikinRepository(configuration, Executors.newSingleThreadScheduledExecutor());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package edus2.adapter.repository.journal;
+
+import edus2.adapter.repository.memory.InMemoryEDUS2Configuration;
+import edus2.domain.EDUS2Configuration;
+import edus2.domain.ScanRepository;
+import edus2.domain.ScanRepositoryTest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+
+public class JournalScanRepositoryTest extends ScanRepositoryTest {
+
+    @Override
+    protected ScanRepository getScanRepository() {
+        try {
+            Path directory = Files.createTempDirectory("journalscanrepositorytest");
+            EDUS2Configuration configuration = new InMemoryEDUS2Configuration();
+            configuration.setSaveFileLocation(directory.resolve("data.json").toString());
+            return new JournalScanRepository(configuration, Executors.newSingleThreadScheduledExecutor());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package edus2.adapter.repository.journal;
+
+import edus2.domain.ManikinScanEnum;
+import edus2.domain.Scan;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static edus2.TestUtil.randomAlphanumericString;
+import static edus2.TestUtil.randomScan;
+import static org.junit.Assert.*;
+
+public class JournalStoreTest {
+
+    private Path snapshotFile;
+    private Path journalFile;
+    private ExecutorService executor;
+
+    @Before
+    public void setup() throws IOException {
+        Path directory = Files.createTempDirectory("journalstoretest");
+        snapshotFile = directory.resolve("scans.snapshot");
+        journalFile = directory.resolve("scans.journal");
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @Test
+    public void retrieveAll_shouldReturnInitialValues_whenNoFilesExist() {
+        // Arrange
+        Scan scan = randomScan();
+
+        // Act
+        List<Scan> actual = openStore(Long.MAX_VALUE, Collections.singletonList(scan)).retrieveAll();
+
+        // Assert
+        assertEquals(Collections.singletonList(scan), actual);
+    }
+
+    @Test
+    public void retrieveAll_shouldReplayJournal_whenReopened() {
+        // Arrange
+        Scan kept = randomScan();
+        Scan removed = randomScan();
+        JournalStore<Scan> store = openStore(Long.MAX_VALUE, Collections.emptyList());
+        store.put(kept);
+        store.put(removed);
+        store.remove(removed.getPath());
+
+        // Act
+        List<Scan> actual = openStore(Long.MAX_VALUE, Collections.emptyList()).retrieveAll();
+
+        // Assert
+        assertEquals(Collections.singletonList(kept), actual);
+    }
+
+    @Test
+    public void retrieveAll_shouldIgnoreTornRecord_whenJournalEndsMidRecord() throws IOException {
+        // Arrange
+        Scan scan = randomScan();
+        JournalStore<Scan> store = openStore(Long.MAX_VALUE, Collections.emptyList());
+        store.put(scan);
+        Files.write(journalFile, "{\"operation\":\"PUT\",\"key\":\"to".getBytes(), StandardOpenOption.APPEND);
+
+        // Act
+        JournalStore<Scan> reopenedStore = openStore(Long.MAX_VALUE, Collections.emptyList());
+        Scan newScan = randomScan();
+        reopenedStore.put(newScan);
+
+        // Assert
+        assertEquals(Arrays.asList(scan, newScan), openStore(Long.MAX_VALUE, Collections.emptyList()).retrieveAll());
+    }
+
+    @Test
+    public void retrieveAll_shouldReplayBatches_whenReopened() {
+        // Arrange
+        Scan first = randomScan();
+        Scan second = randomScan();
+        Scan replacement = randomScan();
+        JournalStore<Scan> store = openStore(Long.MAX_VALUE, Collections.emptyList());
+        store.putAll(Arrays.asList(first, second));
+        store.replaceAll(Collections.singletonList(replacement));
+        store.putAll(Collections.singletonList(first));
+
+        // Act
+        List<Scan> actual = openStore(Long.MAX_VALUE, Collections.emptyList()).retrieveAll();
+
+        // Assert
+        assertEquals(Arrays.asList(replacement, first), actual);
+    }
+
+    @Test
+    public void compact_shouldEmptyJournalAndKeepValues() throws IOException {
+        // Arrange
+        Scan scan = randomScan();
+        JournalStore<Scan> store = openStore(Long.MAX_VALUE, Collections.emptyList());
+        store.put(scan);
+        store.put(randomScan());
+        store.removeAll();
+        store.put(scan);
+
+        // Act
+        store.compact();
+
+        // Assert
+        assertEquals(0, Files.size(journalFile));
+        assertEquals(Collections.singletonList(scan), openStore(Long.MAX_VALUE, Collections.emptyList()).retrieveAll());
+    }
+
+    @Test
+    public void retrieveAll_shouldReplayBothJournals_whenCompactionWasInterrupted() throws IOException {
+        // Arrange
+        Scan first = randomScan();
+        Scan second = randomScan();
+        JournalStore<Scan> store = openStore(Long.MAX_VALUE, Collections.emptyList());
+        store.put(first);
+        Path rotatedJournalFile = journalFile.resolveSibling(journalFile.getFileName() + ".1");
+        Files.move(journalFile, rotatedJournalFile);
+        store.put(second);
+
+        // Act
+        List<Scan> actual = openStore(Long.MAX_VALUE, Collections.emptyList()).retrieveAll();
+
+        // Assert
+        assertEquals(Arrays.asList(first, second), actual);
+        assertFalse(Files.exists(rotatedJournalFile));
+    }
+
+    @Test
+    public void put_shouldCompactInBackground_whenJournalPassesThreshold() throws Exception {
+        // Arrange
+        JournalStore<Scan> store = openStore(1, Collections.emptyList());
+        Scan scan = new Scan(ManikinScanEnum.IVC, randomAlphanumericString());
+
+        // Act
+        store.put(scan);
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(0, Files.size(journalFile));
+        assertTrue(Files.size(snapshotFile) > 0);
+        assertEquals(Collections.singletonList(scan), openStore(Long.MAX_VALUE, Collections.emptyList()).retrieveAll());
+    }
+
+    @Test
+    public void getRevision_shouldChange_whenValueSaved() {
+        // Arrange
+        JournalStore<Scan> store = openStore(Long.MAX_VALUE, Collections.emptyList());
+        long initialRevision = store.getRevision();
+
+        // Act
+        store.put(randomScan());
+
+        // Assert
+        assertNotEquals(initialRevision, store.getRevision());
+    }
+
+    private JournalStore<Scan> openStore(long compactionThresholdBytes, List<Scan> initialValues) {
+        return new JournalStore<>(snapshotFile, journalFile, Scan.class, Scan::getPath, executor,
+                compactionThresholdBytes, () -> initialValues);
+    }
+}
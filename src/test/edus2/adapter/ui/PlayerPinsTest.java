@@ -0,0 +1,59 @@
+package edus2.adapter.ui;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static edus2.TestUtil.Lst;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PlayerPinsTest {
+
+    private List<String> disposedPlayers;
+    private PlayerPins<String> pins;
+
+    @Before
+    public void setup() {
+        disposedPlayers = new ArrayList<>();
+        pins = new PlayerPins<>(disposedPlayers::add);
+    }
+
+    @Test
+    public void dispose_shouldKeepFrontPlayer_untilLoadedPlayerIsShown() {
+        // Arrange
+        pins.pin("a");
+        pins.pin("b");
+
+        // Act
+        pins.dispose("a");
+
+        // Assert
+        assertTrue(disposedPlayers.isEmpty());
+        pins.unpin("a");
+        assertEquals(Lst("a"), disposedPlayers);
+    }
+
+    @Test
+    public void dispose_shouldDisposeOfPlayer_whenNotPinned() {
+        // Act
+        pins.dispose("a");
+
+        // Assert
+        assertEquals(Lst("a"), disposedPlayers);
+    }
+
+    @Test
+    public void unpin_shouldNotDisposeOfPlayer_whenPlayerStillWanted() {
+        // Arrange
+        pins.pin("a");
+
+        // Act
+        pins.unpin("a");
+
+        // Assert
+        assertTrue(disposedPlayers.isEmpty());
+    }
+}
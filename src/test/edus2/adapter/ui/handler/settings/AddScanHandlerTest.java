@@ -1,11 +1,14 @@
 package edus2.adapter.ui.handler.settings;
 
+import edus2.adapter.media.ScanInspection;
 import edus2.adapter.repository.memory.InMemoryEDUS2Configuration;
 import edus2.adapter.repository.memory.InMemoryScanRepository;
 import edus2.adapter.stagebuilder.StageBuilderTest;
+import edus2.adapter.ui.ScanInspectionDialog;
 import edus2.application.ScanFacade;
 import edus2.domain.ManikinScanEnum;
 import edus2.domain.Scan;
+import edus2.domain.ScanMetadata;
 import javafx.application.Platform;
 import javafx.collections.ObservableList;
 import javafx.scene.Scene;
@@ -22,6 +25,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 
 public class AddScanHandlerTest extends StageBuilderTest {
@@ -32,8 +36,11 @@ public class AddScanHandlerTest extends StageBuilderTest {
     @Override
     public void start(Stage stage) {
         scanFacade = new ScanFacade(new InMemoryScanRepository());
-        handler = spy(new AddScanHandler(scanFacade, new InMemoryEDUS2Configuration()));
-        doReturn(new File("C:/scan")).when(handler).promptForScanFile(any());
+        ScanInspectionDialog inspectionDialog = mock(ScanInspectionDialog.class);
+        handler = spy(new AddScanHandler(scanFacade, new InMemoryEDUS2Configuration(), inspectionDialog));
+        File video = new File("C:/scan");
+        doReturn(video).when(handler).promptForScanFile(any());
+        doReturn(Lst(ScanInspection.playable(video, new ScanMetadata(5000, 1280, 720, "hash", 1024)))).when(inspectionDialog).inspect(any(), any());
         stage.setScene(new Scene(new VBox()));
         stage.show();
     }
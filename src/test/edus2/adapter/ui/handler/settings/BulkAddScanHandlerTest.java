@@ -1,10 +1,13 @@
 package edus2.adapter.ui.handler.settings;
 
+import edus2.adapter.media.ScanInspection;
 import edus2.adapter.repository.memory.InMemoryEDUS2Configuration;
 import edus2.adapter.repository.memory.InMemoryScanRepository;
 import edus2.adapter.stagebuilder.StageBuilderTest;
+import edus2.adapter.ui.ScanInspectionDialog;
 import edus2.application.ScanFacade;
 import edus2.domain.ManikinScanEnum;
+import edus2.domain.ScanMetadata;
 import javafx.application.Platform;
 import javafx.scene.Scene;
 import javafx.scene.control.ComboBox;
@@ -20,17 +23,25 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 
 public class BulkAddScanHandlerTest extends StageBuilderTest {
     private ScanFacade scanFacade;
+    private InMemoryEDUS2Configuration configuration;
     private BulkAddScanHandler handler;
 
     @Override
     public void start(Stage stage) {
         scanFacade = new ScanFacade(new InMemoryScanRepository());
-        handler = spy(new BulkAddScanHandler(scanFacade, new InMemoryEDUS2Configuration()));
-        doReturn(Lst(new File("C:/scan"), new File("C:/scan2"))).when(handler).promptForScanFiles(any());
+        configuration = new InMemoryEDUS2Configuration();
+        ScanInspectionDialog inspectionDialog = mock(ScanInspectionDialog.class);
+        handler = spy(new BulkAddScanHandler(scanFacade, configuration, inspectionDialog));
+        File video = new File("C:/scan");
+        File otherVideo = new File("C:/scan2");
+        doReturn(Lst(video, otherVideo)).when(handler).promptForScanFiles(any());
+        ScanMetadata metadata = new ScanMetadata(5000, 1280, 720, "hash", 1024);
+        doReturn(Lst(ScanInspection.playable(video, metadata), ScanInspection.playable(otherVideo, metadata))).when(inspectionDialog).inspect(any(), any());
         stage.setScene(new Scene(new VBox()));
         stage.show();
     }
@@ -41,8 +52,9 @@ public class BulkAddScanHandlerTest extends StageBuilderTest {
         Thread.sleep(250);
 
         // Act
-        chooseScanLocation("Right Lung");
-        chooseScanLocation("Left Lung");
+        chooseScanLocation(0, "Right Lung");
+        chooseScanLocation(1, "Left Lung");
+        clickOn("OK");
 
         // Assert
         assertEquals("file:///C:/scan", scanFacade.getScan(ManikinScanEnum.RIGHT_LUNG).get().getPath());
@@ -62,9 +74,24 @@ public class BulkAddScanHandlerTest extends StageBuilderTest {
         assertTrue(scanFacade.getAllScans().isEmpty());
     }
 
-    private void chooseScanLocation(String scanLocation) {
+    @Test
+    public void handle_shouldSuggestScanLocations_whenFileNamesMatchAliases() throws InterruptedException {
+        // Arrange
+        configuration.setScanFileNameAliases("*scan2=Pelvis");
+        Platform.runLater(() -> handler.handle(Lst(), null));
+        Thread.sleep(250);
+
+        // Act
+        clickOn("OK");
+
+        // Assert
+        assertEquals("file:///C:/scan2", scanFacade.getScan(ManikinScanEnum.PELVIS).get().getPath());
+        assertEquals(1, scanFacade.getAllScans().size());
+    }
+
+    private void chooseScanLocation(int row, String scanLocation) {
         DialogPane popupDialogPane = getPopupDialogPane();
-        ComboBox<String> scanLocationBox = from(popupDialogPane).lookup(".combo-box").query();
-        clickOn(scanLocationBox).clickOn(point(scanLocation)).clickOn("OK");
+        ComboBox<String> scanLocationBox = from(popupDialogPane).lookup(".combo-box").nth(row).query();
+        clickOn(scanLocationBox).clickOn(point(scanLocation));
     }
 }
\ No newline at end of file
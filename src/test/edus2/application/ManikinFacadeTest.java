@@ -1,23 +1,27 @@
 package edus2.application;
 
 import edus2.adapter.repository.memory.InMemoryManikinRepository;
+import edus2.application.exception.InvalidManikinsException;
 import edus2.domain.*;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 
+import static edus2.TestUtil.Lst;
 import static org.junit.Assert.*;
 
 public class ManikinFacadeTest extends ManikinTestBase {
 
     private ManikinFacade facade;
+    private InMemoryManikinRepository manikinRepository;
 
     @Before
     public void setup() {
-        InMemoryManikinRepository manikinRepository = new InMemoryManikinRepository();
+        manikinRepository = new InMemoryManikinRepository();
         this.facade = new ManikinFacade(manikinRepository);
     }
 
@@ -114,4 +118,129 @@ public class ManikinFacadeTest extends ManikinTestBase {
         // Act
         facade.create(secondManikin);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void getScanTagLocation_shouldReturnEmpty_whenTagDoesNotExist() {
+        // Arrange
+        facade.create(new Manikin(generateTagMap(), "manikin"));
+
+        // Act
+        Optional<ManikinScanEnum> actual = facade.getScanTagLocation("unknown");
+
+        // Assert
+        assertFalse(actual.isPresent());
+    }
+
+    @Test
+    public void getScanTagLocation_shouldReturnLocation_whenTagExists() {
+        // Arrange
+        Map<ManikinScanEnum, String> tagMap = generateTagMap();
+        facade.create(new Manikin(generateTagMap(), "first"));
+        facade.create(new Manikin(tagMap, "second"));
+
+        // Act
+        Optional<ManikinScanEnum> actual = facade.getScanTagLocation(tagMap.get(ManikinScanEnum.IVC));
+
+        // Assert
+        assertEquals(Optional.of(ManikinScanEnum.IVC), actual);
+    }
+
+    @Test
+    public void getScanTagLocation_shouldReturnEmpty_whenTagReplacedByUpdate() {
+        // Arrange
+        Map<ManikinScanEnum, String> tagMap = generateTagMap();
+        String originalTag = tagMap.get(ManikinScanEnum.RUQ);
+        facade.create(new Manikin(new HashMap<>(tagMap), "manikin"));
+        tagMap.put(ManikinScanEnum.RUQ, originalTag + "-new");
+
+        // Act
+        facade.update(new Manikin(tagMap, "manikin"));
+
+        // Assert
+        assertFalse(facade.getScanTagLocation(originalTag).isPresent());
+        assertEquals(Optional.of(ManikinScanEnum.RUQ), facade.getScanTagLocation(originalTag + "-new"));
+    }
+
+    @Test
+    public void getScanTagLocation_shouldReturnLocation_whenManikinRenamed() {
+        // Arrange
+        Map<ManikinScanEnum, String> tagMap = generateTagMap();
+        facade.create(new Manikin(tagMap, "manikin"));
+
+        // Act
+        facade.rename("manikin", "renamed");
+
+        // Assert
+        assertEquals(Optional.of(ManikinScanEnum.PELVIS), facade.getScanTagLocation(tagMap.get(ManikinScanEnum.PELVIS)));
+    }
+
+    @Test
+    public void getScanTagLocation_shouldReturnEmpty_whenManikinRemoved() {
+        // Arrange
+        Map<ManikinScanEnum, String> tagMap = generateTagMap();
+        Manikin manikin = new Manikin(tagMap, "manikin");
+        facade.create(manikin);
+
+        // Act
+        facade.remove(manikin);
+
+        // Assert
+        assertFalse(facade.getScanTagLocation(tagMap.get(ManikinScanEnum.LUQ)).isPresent());
+    }
+
+    @Test
+    public void getScanTagLocation_shouldReturnLocation_whenManikinSavedDirectlyToRepository() {
+        // Arrange
+        Map<ManikinScanEnum, String> tagMap = generateTagMap();
+        facade.getScanTagLocation(tagMap.get(ManikinScanEnum.IVC));
+
+        // Act
+        manikinRepository.save(new Manikin(tagMap, "manikin"));
+
+        // Assert
+        assertEquals(Optional.of(ManikinScanEnum.IVC), facade.getScanTagLocation(tagMap.get(ManikinScanEnum.IVC)));
+    }
+
+    @Test
+    public void createAll_shouldCreateAllManikins() {
+        // Arrange
+        Manikin first = new Manikin(generateTagMap(), "first");
+        Manikin second = new Manikin(generateTagMap(), "second");
+
+        // Act
+        facade.createAll(Arrays.asList(first, second));
+
+        // Assert
+        assertEquals(Optional.of(first), facade.getManikin("first"));
+        assertEquals(Optional.of(second), facade.getManikin("second"));
+        assertEquals(Optional.of(ManikinScanEnum.IVC), facade.getScanTagLocation(second.getTagMap().get(ManikinScanEnum.IVC)));
+    }
+
+    @Test
+    public void createAll_shouldReportEveryProblemAndCreateNothing_whenManikinsInvalid() {
+        // Arrange
+        Manikin existing = new Manikin(generateTagMap(), "existing");
+        facade.create(existing);
+        Map<ManikinScanEnum, String> reusedTagMap = generateTagMap();
+        reusedTagMap.put(ManikinScanEnum.RUQ, existing.getTagMap().get(ManikinScanEnum.RUQ));
+        Manikin first = new Manikin(generateTagMap(), "first");
+        Map<ManikinScanEnum, String> batchTagMap = generateTagMap();
+        batchTagMap.put(ManikinScanEnum.LUQ, first.getTagMap().get(ManikinScanEnum.LUQ));
+
+        // Act
+        try {
+            facade.createAll(Arrays.asList(
+                    new Manikin(generateTagMap(), "existing"),
+                    new Manikin(reusedTagMap, "reusesStoredTag"),
+                    first,
+                    new Manikin(batchTagMap, "reusesBatchTag")));
+            fail("Expected InvalidManikinsException");
+        } catch (InvalidManikinsException e) {
+            // Assert
+            assertEquals(3, e.getProblems().size());
+        }
+
+        // Assert
+        assertEquals(Lst(existing), facade.getAllManikins());
+    }
+}
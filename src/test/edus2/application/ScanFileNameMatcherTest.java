@@ -0,0 +1,122 @@
+package edus2.application;
+
+import edus2.domain.ManikinScanEnum;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Optional;
+
+import static edus2.domain.ManikinScanEnum.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class ScanFileNameMatcherTest {
+
+    private ScanFileNameMatcher matcher;
+
+    @Before
+    public void setup() {
+        matcher = new ScanFileNameMatcher(Collections.emptyMap());
+    }
+
+    @Test
+    public void match_shouldMatchLocationName_whenWordsSeparatedByPunctuation() {
+        // Act
+        Optional<ManikinScanEnum> actual = matcher.match("Right_Upper-Quadrant 01.mp4");
+
+        // Assert
+        assertEquals(Optional.of(RUQ), actual);
+    }
+
+    @Test
+    public void match_shouldMatchStoredLocationName() {
+        // Act
+        Optional<ManikinScanEnum> actual = matcher.match("case3_ruq.mp4");
+
+        // Assert
+        assertEquals(Optional.of(RUQ), actual);
+    }
+
+    @Test
+    public void match_shouldNotMatchPartOfWord() {
+        // Act
+        Optional<ManikinScanEnum> actual = matcher.match("pelvisection.mp4");
+
+        // Assert
+        assertFalse(actual.isPresent());
+    }
+
+    @Test
+    public void match_shouldNotMatch_whenTwoLocationsNamed() {
+        // Act
+        Optional<ManikinScanEnum> actual = matcher.match("ivc_luq.mp4");
+
+        // Assert
+        assertFalse(actual.isPresent());
+    }
+
+    @Test
+    public void match_shouldPreferAliases_whenAliasMatches() {
+        // Arrange
+        matcher = new ScanFileNameMatcher(ScanFileNameMatcher.parseAliases("*_LUNG*.mp4=Left Lung"));
+
+        // Act
+        Optional<ManikinScanEnum> actual = matcher.match("right_lung.mp4");
+
+        // Assert
+        assertEquals(Optional.of(LEFT_LUNG), actual);
+    }
+
+    @Test
+    public void parseAliases_shouldReadLocationsByEitherName() {
+        // Act
+        Map<String, ManikinScanEnum> actual = ScanFileNameMatcher.parseAliases("*_liver*=ruq; *spleen*=Left Upper Quadrant;");
+
+        // Assert
+        assertEquals(RUQ, actual.get("*_liver*"));
+        assertEquals(LUQ, actual.get("*spleen*"));
+        assertEquals(2, actual.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseAliases_shouldThrowException_whenLocationUnknown() {
+        // Act
+        ScanFileNameMatcher.parseAliases("*liver*=Liver");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseAliases_shouldThrowException_whenNoLocationGiven() {
+        // Act
+        ScanFileNameMatcher.parseAliases("*liver*");
+    }
+
+    @Test
+    public void assign_shouldGiveEachLocationToOneVideo() {
+        // Arrange
+        File first = new File("first_ivc.mp4");
+        File second = new File("second_ivc.mp4");
+        File third = new File("pelvis.mp4");
+
+        // Act
+        Map<File, ManikinScanEnum> actual = matcher.assign(Arrays.asList(first, second, third), EnumSet.of(IVC, PELVIS));
+
+        // Assert
+        assertEquals(IVC, actual.get(first));
+        assertEquals(PELVIS, actual.get(third));
+        assertEquals(2, actual.size());
+    }
+
+    @Test
+    public void assign_shouldSkipLocationsAlreadyUsed() {
+        // Act
+        Map<File, ManikinScanEnum> actual = matcher.assign(Collections.singletonList(new File("ivc.mp4")), EnumSet.of(PELVIS));
+
+        // Assert
+        assertFalse(actual.containsKey(new File("ivc.mp4")));
+    }
+}
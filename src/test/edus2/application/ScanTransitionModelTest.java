@@ -0,0 +1,81 @@
+package edus2.application;
+
+import edus2.domain.ManikinScanEnum;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static edus2.domain.ManikinScanEnum.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class ScanTransitionModelTest {
+
+    private ScanTransitionModel model;
+
+    @Before
+    public void setup() {
+        model = new ScanTransitionModel();
+    }
+
+    @Test
+    public void rankNext_shouldRankMostFrequentTransitionFirst() {
+        // Arrange
+        model.record(RIGHT_LUNG);
+        model.record(LEFT_LUNG);
+        model.record(RIGHT_LUNG);
+        model.record(LEFT_LUNG);
+        model.record(RIGHT_LUNG);
+        model.record(CARDIAC_SC);
+        model.record(CARDIAC_SC);
+        model.record(CARDIAC_SC);
+
+        // Act
+        List<ManikinScanEnum> actual = model.rankNext(RIGHT_LUNG);
+
+        // Assert
+        assertEquals(LEFT_LUNG, actual.get(0));
+        assertEquals(CARDIAC_SC, actual.get(1));
+    }
+
+    @Test
+    public void rankNext_shouldRankByPlayCount_whenNoLocationGiven() {
+        // Arrange
+        model.record(RIGHT_LUNG);
+        model.record(LEFT_LUNG);
+        model.record(LEFT_LUNG);
+
+        // Act
+        List<ManikinScanEnum> actual = model.rankNext(null);
+
+        // Assert
+        assertEquals(LEFT_LUNG, actual.get(0));
+        assertEquals(RIGHT_LUNG, actual.get(1));
+        assertEquals(ManikinScanEnum.values().length, actual.size());
+    }
+
+    @Test
+    public void rankNext_shouldNotIncludeGivenLocation() {
+        // Arrange
+        model.record(RIGHT_LUNG);
+        model.record(RIGHT_LUNG);
+
+        // Act
+        List<ManikinScanEnum> actual = model.rankNext(RIGHT_LUNG);
+
+        // Assert
+        assertFalse(actual.contains(RIGHT_LUNG));
+        assertEquals(ManikinScanEnum.values().length - 1, actual.size());
+    }
+
+    @Test
+    public void record_shouldRememberLastLocation() {
+        // Act
+        model.record(RIGHT_LUNG);
+        model.record(LEFT_LUNG);
+
+        // Assert
+        assertEquals(LEFT_LUNG, model.getLastLocation());
+    }
+}
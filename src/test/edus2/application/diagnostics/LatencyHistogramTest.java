@@ -0,0 +1,95 @@
+package edus2.application.diagnostics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void getValueAtPercentile_shouldReturnExactValues_whenValuesAreSmall() {
+        // Arrange
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+
+        // Act
+        long median = histogram.getValueAtPercentile(50);
+        long p99 = histogram.getValueAtPercentile(99);
+
+        // Assert
+        assertEquals(50, median);
+        assertEquals(99, p99);
+    }
+
+    @Test
+    public void getValueAtPercentile_shouldStayWithinBucketPrecision_whenValuesAreLarge() {
+        // Arrange
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(10_000);
+        histogram.record(250_000);
+        histogram.record(3_000_000);
+
+        // Act
+        long median = histogram.getValueAtPercentile(50);
+
+        // Assert
+        assertTrue("Median was " + median, median >= 250_000 && median <= 250_000 * 1.016);
+    }
+
+    @Test
+    public void getValueAtPercentile_shouldNotExceedMax() {
+        // Arrange
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(100_000);
+
+        // Act
+        long max = histogram.getValueAtPercentile(100);
+
+        // Assert
+        assertEquals(100_000, max);
+    }
+
+    @Test
+    public void bucketIndex_shouldMapEveryValueIntoItsBucketRange() {
+        for (long value = 0; value < 1_000_000; value += 7) {
+            int index = LatencyHistogram.bucketIndex(value);
+            assertTrue(value <= LatencyHistogram.highestValueInBucket(index));
+            assertTrue(index == 0 || value > LatencyHistogram.highestValueInBucket(index - 1));
+        }
+    }
+
+    @Test
+    public void record_shouldTrackCountMinMaxAndMean() {
+        // Arrange
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // Act
+        histogram.record(1000);
+        histogram.record(3000);
+        histogram.record(-5);
+
+        // Assert
+        assertEquals(3, histogram.getTotalCount());
+        assertEquals(0, histogram.getMin());
+        assertEquals(3000, histogram.getMax());
+        assertEquals(4000 / 3.0, histogram.getMean(), 0.001);
+    }
+
+    @Test
+    public void reset_shouldClearAllValues() {
+        // Arrange
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1000);
+
+        // Act
+        histogram.reset();
+
+        // Assert
+        assertEquals(0, histogram.getTotalCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getValueAtPercentile(50));
+    }
+}
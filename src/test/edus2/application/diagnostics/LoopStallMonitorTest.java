@@ -0,0 +1,80 @@
+package edus2.application.diagnostics;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class LoopStallMonitorTest {
+    private static final long DURATION_MICROS = 5_000_000;
+
+    private long now;
+    private LoopStallMonitor monitor;
+
+    @Before
+    public void setup() {
+        now = 0;
+        monitor = new LoopStallMonitor(() -> now);
+    }
+
+    @Test
+    public void positionChanged_shouldRecordStall_whenWrapTakesLongerThanClipPlayed() {
+        // Arrange
+        monitor.positionChanged(4_990_000, DURATION_MICROS);
+        advanceMillis(60);
+
+        // Act
+        monitor.positionChanged(20_000, DURATION_MICROS);
+
+        // Assert
+        assertEquals(1, monitor.getStalls().getTotalCount());
+        assertEquals(30_000, monitor.getStalls().getMax());
+    }
+
+    @Test
+    public void positionChanged_shouldRecordNoStall_whenWrapIsSeamless() {
+        // Arrange
+        monitor.positionChanged(4_990_000, DURATION_MICROS);
+        advanceMillis(16);
+
+        // Act
+        monitor.positionChanged(6_000, DURATION_MICROS);
+
+        // Assert
+        assertEquals(1, monitor.getStalls().getTotalCount());
+        assertEquals(0, monitor.getStalls().getMax());
+    }
+
+    @Test
+    public void positionChanged_shouldNotRecord_whenPositionMovesForward() {
+        // Arrange
+        monitor.positionChanged(1_000_000, DURATION_MICROS);
+        advanceMillis(16);
+
+        // Act
+        monitor.positionChanged(1_016_000, DURATION_MICROS);
+
+        // Assert
+        assertEquals(0, monitor.getStalls().getTotalCount());
+    }
+
+    @Test
+    public void restart_shouldForgetLastPosition() {
+        // Arrange
+        monitor.positionChanged(4_990_000, DURATION_MICROS);
+        monitor.restart();
+        advanceMillis(10_000);
+
+        // Act
+        monitor.positionChanged(0, DURATION_MICROS);
+
+        // Assert
+        assertEquals(0, monitor.getStalls().getTotalCount());
+    }
+
+    private void advanceMillis(long millis) {
+        now += TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
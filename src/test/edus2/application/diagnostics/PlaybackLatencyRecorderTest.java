@@ -0,0 +1,109 @@
+package edus2.application.diagnostics;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PlaybackLatencyRecorderTest {
+    private long now;
+    private PlaybackLatencyRecorder recorder;
+
+    @Before
+    public void setup() {
+        now = 0;
+        recorder = new PlaybackLatencyRecorder(() -> now);
+    }
+
+    @Test
+    public void mark_shouldRecordTimeFromKeyToEachStage_whenScanStartsPlaying() {
+        // Arrange
+        recorder.keyReceived();
+        advanceMillis(2);
+        recorder.mark(PlaybackStage.TAG_RESOLVED);
+        advanceMillis(3);
+        recorder.mark(PlaybackStage.READY);
+
+        // Act
+        advanceMillis(5);
+        recorder.mark(PlaybackStage.PLAYING);
+
+        // Assert
+        assertEquals(2000, recorder.getHistogram(PlaybackStage.TAG_RESOLVED).getMax());
+        assertEquals(5000, recorder.getHistogram(PlaybackStage.READY).getMax());
+        assertEquals(10000, recorder.getHistogram(PlaybackStage.PLAYING).getMax());
+        assertEquals(0, recorder.getHistogram(PlaybackStage.MEDIA_CREATED).getTotalCount());
+    }
+
+    @Test
+    public void mark_shouldNotRecord_whenScanIsAbandoned() {
+        // Arrange
+        recorder.keyReceived();
+        recorder.mark(PlaybackStage.TAG_RESOLVED);
+        recorder.abandon();
+
+        // Act
+        recorder.mark(PlaybackStage.PLAYING);
+
+        // Assert
+        assertEquals(0, recorder.getHistogram(PlaybackStage.TAG_RESOLVED).getTotalCount());
+        assertEquals(0, recorder.getHistogram(PlaybackStage.PLAYING).getTotalCount());
+    }
+
+    @Test
+    public void mark_shouldOnlyCountFirstTimeStageIsReached() {
+        // Arrange
+        recorder.keyReceived();
+        advanceMillis(1);
+        recorder.mark(PlaybackStage.READY);
+        advanceMillis(1);
+        recorder.mark(PlaybackStage.READY);
+
+        // Act
+        recorder.mark(PlaybackStage.PLAYING);
+        recorder.mark(PlaybackStage.PLAYING);
+
+        // Assert
+        assertEquals(1000, recorder.getHistogram(PlaybackStage.READY).getMax());
+        assertEquals(1, recorder.getHistogram(PlaybackStage.PLAYING).getTotalCount());
+    }
+
+    @Test
+    public void dumpReport_shouldWriteReport_whenScansWereRecorded() throws Exception {
+        // Arrange
+        Path directory = Files.createTempDirectory("edus2j-latency");
+        Path reportFile = directory.resolve("reports").resolve("latency.txt");
+        recorder.keyReceived();
+        advanceMillis(4);
+        recorder.mark(PlaybackStage.PLAYING);
+
+        // Act
+        recorder.dumpReport(reportFile);
+
+        // Assert
+        String report = new String(Files.readAllBytes(reportFile), "UTF-8");
+        assertTrue(report.contains(PlaybackStage.PLAYING.getName()));
+    }
+
+    @Test
+    public void dumpReport_shouldNotWrite_whenNothingWasRecorded() throws Exception {
+        // Arrange
+        Path reportFile = Files.createTempDirectory("edus2j-latency").resolve("latency.txt");
+
+        // Act
+        recorder.dumpReport(reportFile);
+
+        // Assert
+        assertFalse(Files.exists(reportFile));
+    }
+
+    private void advanceMillis(long millis) {
+        now += TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
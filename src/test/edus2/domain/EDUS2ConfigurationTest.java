@@ -63,6 +63,116 @@ public abstract class EDUS2ConfigurationTest {
         assertEquals(Optional.of(expected), actual);
     }
 
+    @Test
+    public void getPrefetchMemoryBudget_shouldReturnEmpty_whenBudgetNotSet() {
+        // Act
+        Optional<Integer> actual = configuration.getPrefetchMemoryBudget();
+
+        // Assert
+        assertFalse(actual.isPresent());
+    }
+
+    @Test
+    public void getPrefetchMemoryBudget_shouldReturnValue_whenValueSaved() {
+        // Arrange
+        int expected = randomInt();
+        configuration.setPrefetchMemoryBudget(expected);
+
+        // Act
+        Optional<Integer> actual = configuration.getPrefetchMemoryBudget();
+
+        // Assert
+        assertEquals(Optional.of(expected), actual);
+    }
+
+    @Test
+    public void getMediaCacheSizeLimit_shouldReturnEmpty_whenLimitNotSet() {
+        // Act
+        Optional<Integer> actual = configuration.getMediaCacheSizeLimit();
+
+        // Assert
+        assertFalse(actual.isPresent());
+    }
+
+    @Test
+    public void getMediaCacheSizeLimit_shouldReturnValue_whenValueSaved() {
+        // Arrange
+        int expected = randomInt();
+        configuration.setMediaCacheSizeLimit(expected);
+
+        // Act
+        Optional<Integer> actual = configuration.getMediaCacheSizeLimit();
+
+        // Assert
+        assertEquals(Optional.of(expected), actual);
+    }
+
+    @Test
+    public void getRepeatReadWindow_shouldReturnEmpty_whenWindowNotSet() {
+        // Act
+        Optional<Integer> actual = configuration.getRepeatReadWindow();
+
+        // Assert
+        assertFalse(actual.isPresent());
+    }
+
+    @Test
+    public void getRepeatReadWindow_shouldReturnValue_whenValueSaved() {
+        // Arrange
+        int expected = randomInt();
+        configuration.setRepeatReadWindow(expected);
+
+        // Act
+        Optional<Integer> actual = configuration.getRepeatReadWindow();
+
+        // Assert
+        assertEquals(Optional.of(expected), actual);
+    }
+
+    @Test
+    public void getScanFileNameAliases_shouldReturnEmpty_whenAliasesNotSet() {
+        // Act
+        Optional<String> actual = configuration.getScanFileNameAliases();
+
+        // Assert
+        assertFalse(actual.isPresent());
+    }
+
+    @Test
+    public void getScanFileNameAliases_shouldReturnValue_whenValueSaved() {
+        // Arrange
+        String expected = "*_ruq*=RUQ; *liver*=Right Upper Quadrant";
+        configuration.setScanFileNameAliases(expected);
+
+        // Act
+        Optional<String> actual = configuration.getScanFileNameAliases();
+
+        // Assert
+        assertEquals(Optional.of(expected), actual);
+    }
+
+    @Test
+    public void getCachedMediaLocations_shouldReturnEmpty_whenLocationsNotSet() {
+        // Act
+        Optional<String> actual = configuration.getCachedMediaLocations();
+
+        // Assert
+        assertFalse(actual.isPresent());
+    }
+
+    @Test
+    public void getCachedMediaLocations_shouldReturnValue_whenValueSaved() {
+        // Arrange
+        String expected = "Z:; E:\\Videos";
+        configuration.setCachedMediaLocations(expected);
+
+        // Act
+        Optional<String> actual = configuration.getCachedMediaLocations();
+
+        // Assert
+        assertEquals(Optional.of(expected), actual);
+    }
+
     @Test
     public void getHashedPassword_shouldReturnEmpty_whenNoPasswordSet() {
         // Act
@@ -209,6 +319,27 @@ public abstract class EDUS2ConfigurationTest {
         assertTrue(actual);
     }
 
+    @Test
+    public void isScanLoopingEnabled_shouldInitiallyReturnFalse() {
+        // Act
+        boolean actual = configuration.isScanLoopingEnabled();
+
+        // Assert
+        assertFalse(actual);
+    }
+
+    @Test
+    public void isScanLoopingEnabled_shouldReturnTrue_whenLoopingEnabled() {
+        // Arrange
+        configuration.setScanLoopingEnabled(true);
+
+        // Act
+        boolean actual = configuration.isScanLoopingEnabled();
+
+        // Assert
+        assertTrue(actual);
+    }
+
     @Test
     public void darkModeEnabledProperty_shouldInitiallyReturnTrue() {
         // Act
@@ -8,6 +8,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import static edus2.TestUtil.Lst;
 import static edus2.TestUtil.randomAlphanumericString;
 import static org.junit.Assert.*;
 
@@ -139,6 +140,73 @@ public abstract class ManikinRepositoryTest extends ManikinTestBase {
         assertFalse(actual.isPresent());
     }
 
+    @Test
+    public void getRevision_shouldChange_whenManikinSaved() {
+        // Arrange
+        long initialRevision = repository.getRevision();
+
+        // Act
+        repository.save(new Manikin(generateTagMap(), "manikin"));
+
+        // Assert
+        assertNotEquals(initialRevision, repository.getRevision());
+    }
+
+    @Test
+    public void getRevision_shouldChange_whenManikinRemoved() {
+        // Arrange
+        repository.save(new Manikin(generateTagMap(), "manikin"));
+        long initialRevision = repository.getRevision();
+
+        // Act
+        repository.remove("manikin");
+
+        // Assert
+        assertNotEquals(initialRevision, repository.getRevision());
+    }
+
+    @Test
+    public void saveAll_shouldSaveAllManikins() {
+        // Arrange
+        Manikin first = new Manikin(generateTagMap(), "first");
+        Manikin second = new Manikin(generateTagMap(), "second");
+
+        // Act
+        repository.saveAll(Lst(first, second));
+
+        // Assert
+        List<Manikin> actual = repository.retrieveAll();
+        assertEquals(2, actual.size());
+        assertTrue(actual.contains(first));
+        assertTrue(actual.contains(second));
+    }
+
+    @Test
+    public void saveAll_shouldOverwriteManikins_whenNamesExist() {
+        // Arrange
+        repository.save(new Manikin(generateTagMap(), "first"));
+        Manikin updated = new Manikin(generateTagMap(), "first");
+
+        // Act
+        repository.saveAll(Lst(updated));
+
+        // Assert
+        assertEquals(Lst(updated), repository.retrieveAll());
+    }
+
+    @Test
+    public void replaceAll_shouldReplaceAllManikins() {
+        // Arrange
+        repository.save(new Manikin(generateTagMap(), "first"));
+        Manikin replacement = new Manikin(generateTagMap(), "second");
+
+        // Act
+        repository.replaceAll(Lst(replacement));
+
+        // Assert
+        assertEquals(Lst(replacement), repository.retrieveAll());
+    }
+
     private <K, V> Map<K, V> duplicateMap(Map<K, V> original) {
         return new HashMap<>(original);
     }
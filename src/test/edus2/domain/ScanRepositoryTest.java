@@ -4,10 +4,13 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.List;
+import java.util.Optional;
 
+import static edus2.TestUtil.Lst;
 import static edus2.TestUtil.randomAlphanumericString;
 import static edus2.TestUtil.randomScan;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 
 public abstract class ScanRepositoryTest {
@@ -53,6 +56,17 @@ public abstract class ScanRepositoryTest {
         assertEquals(1, actual.size());
     }
 
+    @Test
+    public void save_shouldSaveScanMetadata() {
+        ScanMetadata metadata = new ScanMetadata(12500, 1280, 720, randomAlphanumericString(), 4096);
+        Scan scan = new Scan(ManikinScanEnum.RIGHT_LUNG, randomAlphanumericString(), metadata);
+
+        scanRepository.save(scan);
+
+        List<Scan> actual = scanRepository.retrieveAll();
+        assertEquals(Optional.of(metadata), actual.get(0).getMetadata());
+    }
+
     @Test
     public void remove_shouldRemoveScan_whenScanExists() {
         Scan scan = randomScan();
@@ -94,4 +108,66 @@ public abstract class ScanRepositoryTest {
         assertTrue(actual.isEmpty());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void getRevision_shouldChange_whenScanSaved() {
+        long initialRevision = scanRepository.getRevision();
+
+        scanRepository.save(randomScan());
+
+        assertNotEquals(initialRevision, scanRepository.getRevision());
+    }
+
+    @Test
+    public void getRevision_shouldChange_whenScanRemoved() {
+        Scan scan = randomScan();
+        scanRepository.save(scan);
+        long initialRevision = scanRepository.getRevision();
+
+        scanRepository.remove(scan);
+
+        assertNotEquals(initialRevision, scanRepository.getRevision());
+    }
+
+    @Test
+    public void getRevision_shouldChange_whenAllScansRemoved() {
+        scanRepository.save(randomScan());
+        long initialRevision = scanRepository.getRevision();
+
+        scanRepository.removeAll();
+
+        assertNotEquals(initialRevision, scanRepository.getRevision());
+    }
+
+    @Test
+    public void saveAll_shouldSaveAllScans() {
+        Scan existingScan = randomScan();
+        Scan scan = randomScan();
+        Scan scanTwo = randomScan();
+        scanRepository.save(existingScan);
+
+        scanRepository.saveAll(Lst(scan, scanTwo));
+
+        List<Scan> actual = scanRepository.retrieveAll();
+        assertEquals(3, actual.size());
+        assertTrue(actual.containsAll(Lst(existingScan, scan, scanTwo)));
+    }
+
+    @Test
+    public void replaceAll_shouldReplaceAllScans() {
+        Scan scan = randomScan();
+        scanRepository.save(randomScan());
+
+        scanRepository.replaceAll(Lst(scan));
+
+        assertEquals(Lst(scan), scanRepository.retrieveAll());
+    }
+
+    @Test
+    public void getRevision_shouldChange_whenScansReplaced() {
+        long initialRevision = scanRepository.getRevision();
+
+        scanRepository.replaceAll(Lst(randomScan()));
+
+        assertNotEquals(initialRevision, scanRepository.getRevision());
+    }
+}